@@ -0,0 +1,85 @@
+package rlcp.server.processor.factory;
+
+import java.lang.reflect.Constructor;
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import rlcp.check.ConditionForChecking;
+import rlcp.generate.GeneratingResult;
+import rlcp.server.processor.check.CheckProcessor;
+
+/**
+ * Compares creation of processor by {@code DefaultConstructorProcessorFactory} (constructor bound
+ * by {@code LambdaMetafactory}) with plain {@code new} and with reflective instantiation the
+ * factory used before: {@code Class.newInstance()}, and {@code Constructor.newInstance()} that
+ * replaces it in newer JDKs.
+ * <p>
+ * Run with {@code mvn -P jmh package} and
+ * {@code java -jar target/benchmarks.jar DefaultConstructorProcessorFactoryBenchmark}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DefaultConstructorProcessorFactoryBenchmark {
+
+    private DefaultConstructorProcessorFactory<CheckProcessor> factory;
+    private Class<? extends CheckProcessor> clazz;
+    private Constructor<? extends CheckProcessor> constructor;
+
+    @Setup
+    public void setUp() throws NoSuchMethodException {
+        clazz = EmptyCheckProcessor.class;
+        factory = new DefaultConstructorProcessorFactory<>(clazz);
+        constructor = clazz.getConstructor();
+    }
+
+    @Benchmark
+    public CheckProcessor plainNew() {
+        return new EmptyCheckProcessor();
+    }
+
+    @Benchmark
+    public CheckProcessor factory() {
+        return factory.getInstance();
+    }
+
+    @Benchmark
+    @SuppressWarnings("deprecation")
+    public CheckProcessor classNewInstance() throws InstantiationException, IllegalAccessException {
+        return clazz.newInstance();
+    }
+
+    @Benchmark
+    public CheckProcessor constructorNewInstance() throws ReflectiveOperationException {
+        return constructor.newInstance();
+    }
+
+    /**
+     * Check processor with state typical for one check unit.
+     */
+    public static class EmptyCheckProcessor implements CheckProcessor {
+        private BigDecimal result = BigDecimal.ONE;
+        private String comment = "";
+
+        public EmptyCheckProcessor() {
+        }
+
+        @Override
+        public CheckingSingleConditionResult checkSingleCondition(ConditionForChecking condition, String instructions, GeneratingResult preGenerated) {
+            return new CheckingSingleConditionResult(result, comment);
+        }
+    }
+}
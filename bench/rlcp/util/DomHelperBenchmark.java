@@ -0,0 +1,95 @@
+package rlcp.util;
+
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.dom4j.Document;
+import org.dom4j.DocumentException;
+import org.dom4j.Node;
+import org.dom4j.io.SAXReader;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.xml.sax.InputSource;
+import rlcp.check.CheckingResult;
+import rlcp.check.RlcpCheckResponseBody;
+
+/**
+ * Compares DOM parsing of Check response bodies by {@code DomHelper} (reader of thread and
+ * compiled XPath expressions) with the way it was done before: new {@code SAXReader} per document
+ * and XPath expressions given as strings. Old reader gets the same offline entity resolver, so
+ * that DTD fetching is not measured.
+ * <p>
+ * Run with {@code mvn -P jmh package} and {@code java -jar target/benchmarks.jar DomHelperBenchmark}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DomHelperBenchmark {
+
+    @Param({"1", "20"})
+    private int checkUnits;
+
+    private String body;
+    private Document document;
+
+    @Setup
+    public void setUp() throws DocumentException {
+        List<CheckingResult> results = new ArrayList<>();
+        for (int i = 0; i < checkUnits; i++) {
+            results.add(new CheckingResult(i, 1000 + i, "1.0", "output of check unit " + i));
+        }
+        body = new RlcpCheckResponseBody(results).toString();
+        document = DomHelper.toXml(body);
+    }
+
+    @Benchmark
+    public Document parseWithNewReader() throws DocumentException {
+        SAXReader reader = new SAXReader();
+        reader.setEntityResolver((publicId, systemId) -> new InputSource(new StringReader("")));
+        return reader.read(new StringReader(body));
+    }
+
+    @Benchmark
+    public Document parseWithThreadReader() throws DocumentException {
+        return DomHelper.toXml(body);
+    }
+
+    @Benchmark
+    public long selectWithStringXPath() {
+        long sum = 0;
+        for (Object node : document.selectNodes("//" + Constants.CHECKING_RESULT)) {
+            Node result = (Node) node;
+            sum += Integer.parseInt(result.selectSingleNode("@" + Constants.ID).getText());
+            sum += Long.parseLong(result.selectSingleNode("@" + Constants.TIME).getText());
+            sum += result.selectSingleNode("@" + Constants.RESULT).getText().length();
+            sum += result.selectSingleNode("comment()").getText().length();
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public long selectWithCompiledXPath() {
+        long sum = 0;
+        for (Node result : DomHelper.selectNodes(document, "//" + Constants.CHECKING_RESULT)) {
+            sum += Integer.parseInt(DomHelper.getTextFromNodeByXpath(result, "@" + Constants.ID));
+            sum += Long.parseLong(DomHelper.getTextFromNodeByXpath(result, "@" + Constants.TIME));
+            sum += DomHelper.getTextFromNodeByXpath(result, "@" + Constants.RESULT).length();
+            sum += DomHelper.getTextFromNodeByXpath(result, "comment()").length();
+        }
+        return sum;
+    }
+}
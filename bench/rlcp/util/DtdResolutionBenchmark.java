@@ -0,0 +1,108 @@
+package rlcp.util;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.StringReader;
+import java.net.InetSocketAddress;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import com.sun.net.httpserver.HttpServer;
+import org.dom4j.Document;
+import org.dom4j.DocumentException;
+import org.dom4j.io.SAXReader;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import rlcp.check.ConditionForChecking;
+import rlcp.check.RlcpCheckRequestBody;
+
+/**
+ * Parse latency of Check request body for every {@code DomHelper.DtdMode}, compared with
+ * parsing that resolves DTD over network as default {@code SAXReader} does ({@code NETWORK}). DTD is
+ * served by HTTP server on loopback interface, so the result is lower bound of real network
+ * resolution cost: no round trip to remote host and no timeout of isolated network.
+ * <p>
+ * Run with {@code mvn -P jmh package} and {@code java -jar target/benchmarks.jar DtdResolutionBenchmark}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DtdResolutionBenchmark {
+
+    private static final String remoteDtdUrl = "http://de.ifmo.ru/--DTD/Request.dtd";
+
+    @Param({"OFF", "LOCAL", "VALIDATING", "NETWORK"})
+    private String resolution;
+
+    private String body;
+    private HttpServer dtdServer;
+    private SAXReader networkReader;
+
+    @Setup
+    public void setUp() throws IOException {
+        ConditionForChecking[] checkUnits = new ConditionForChecking[10];
+        for (int i = 0; i < checkUnits.length; i++) {
+            checkUnits[i] = new ConditionForChecking(i, 1000, "input " + i, "output " + i);
+        }
+        body = new RlcpCheckRequestBody(Arrays.asList(checkUnits), "solution", null).toString();
+        if (!resolution.equals("NETWORK")) {
+            DomHelper.setDtdMode(DomHelper.DtdMode.valueOf(resolution));
+            return;
+        }
+
+        byte[] dtd = readResource("dtd/Request.dtd");
+        dtdServer = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        dtdServer.createContext("/Request.dtd", exchange -> {
+            exchange.sendResponseHeaders(200, dtd.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(dtd);
+            }
+        });
+        dtdServer.start();
+        body = body.replace(remoteDtdUrl, "http://127.0.0.1:" + dtdServer.getAddress().getPort() + "/Request.dtd");
+        networkReader = new SAXReader();
+    }
+
+    @TearDown
+    public void tearDown() {
+        if (dtdServer != null) {
+            dtdServer.stop(0);
+        }
+        DomHelper.setDtdMode(DomHelper.DtdMode.LOCAL);
+    }
+
+    @Benchmark
+    public Document parse() throws DocumentException {
+        if (networkReader != null) {
+            return networkReader.read(new StringReader(body));
+        }
+        return DomHelper.toXml(body);
+    }
+
+    private static byte[] readResource(String name) throws IOException {
+        try (InputStream in = DtdResolutionBenchmark.class.getResourceAsStream(name)) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buffer = new byte[1024];
+            int read;
+            while ((read = in.read(buffer)) >= 0) {
+                out.write(buffer, 0, read);
+            }
+            return out.toByteArray();
+        }
+    }
+}
@@ -16,7 +16,6 @@ import rlcp.util.Constants;
 import rlcp.util.DomHelper;
 import rlcp.util.Util;
 
-import java.io.IOException;
 import java.util.*;
 import java.util.function.BiFunction;
 import java.util.function.Function;
@@ -32,6 +31,76 @@ import static rlcp.util.Constants.*;
  */
 public class Rlcp {
 
+    /**
+     * Parsers of RLCP-request bodies. Both accept the same inputs and produce equal bodies.
+     */
+    public enum RequestParser {
+        /**
+         * Builds dom4j document of body and evaluates XPath expression for every field.
+         */
+        DOM,
+        /**
+         * Reads body once with SAX parser, without building document. Used by default.
+         */
+        STREAMING
+    }
+
+    /**
+     * Formats of serialized RLCP-response bodies.
+     */
+    public enum ResponseFormat {
+        /**
+         * Indented XML with line breaks. Used by default.
+         */
+        PRETTY,
+        /**
+         * XML without indentation and line breaks inside root element.
+         */
+        COMPACT
+    }
+
+    private static volatile RequestParser requestParser = RequestParser.STREAMING;
+    private static volatile ResponseFormat responseFormat = ResponseFormat.PRETTY;
+
+    /**
+     * Returns parser used for RLCP-request bodies.
+     *
+     * @return parser used for RLCP-request bodies
+     */
+    public static RequestParser getRequestParser() {
+        return requestParser;
+    }
+
+    /**
+     * Sets parser used for RLCP-request bodies by all threads.
+     *
+     * @param parser parser of RLCP-request bodies
+     * @throws NullPointerException if parser is null
+     */
+    public static void setRequestParser(RequestParser parser) {
+        requestParser = Objects.requireNonNull(parser);
+    }
+
+    /**
+     * Returns format of serialized RLCP-response bodies.
+     *
+     * @return format of serialized RLCP-response bodies
+     */
+    public static ResponseFormat getResponseFormat() {
+        return responseFormat;
+    }
+
+    /**
+     * Sets format of serialized RLCP-response bodies for all threads. Bodies that are already
+     * serialized keep their format.
+     *
+     * @param format format of serialized RLCP-response bodies
+     * @throws NullPointerException if format is null
+     */
+    public static void setResponseFormat(ResponseFormat format) {
+        responseFormat = Objects.requireNonNull(format);
+    }
+
     /**
      * Parse the content of the given RLCP-request and return one instance of extends {@code RlcpRequest}:
      * {@code RlcpGenerateRequest}, {@code RlcpCalculateRequest} or {@code RlcpCheckRequest}.
@@ -71,17 +140,12 @@ public class Rlcp {
     private static RlcpRequest parseRequest(String rlcpRequestString, RlcpMethod method) throws BadRlcpRequestException {
         Objects.requireNonNull(rlcpRequestString);
         Objects.requireNonNull(method);
-        StringBuilder headerBuilder = new StringBuilder();
-        StringBuilder bodyBuilder = new StringBuilder();
-        try {
-            Util.readHeaderAndBody(rlcpRequestString, headerBuilder, bodyBuilder);
-        } catch (IOException ex) {
-            throw new BadRlcpRequestException(ex);
-        }
+        int bodyStart = Util.findBodyStart(rlcpRequestString);
+        int bodyEnd = rlcpRequestString.length();
 
         RlcpRequestHeader parsedHeader;
         try {
-            parsedHeader = RlcpRequestHeader.parse(headerBuilder.toString(), method);
+            parsedHeader = RlcpRequestHeader.parse(rlcpRequestString, 0, bodyStart, method);
         } catch (BadRlcpHeaderException ex) {
             throw new BadRlcpRequestException(ex);
         }
@@ -89,11 +153,11 @@ public class Rlcp {
         try {
             switch (method.getName().toLowerCase()) {
                 case "generate":
-                    return new RlcpGenerateRequest(parsedHeader, parseGenerateRequestBody(bodyBuilder.toString()));
+                    return new RlcpGenerateRequest(parsedHeader, parseGenerateRequestBody(rlcpRequestString, bodyStart, bodyEnd));
                 case "check":
-                    return new RlcpCheckRequest(parsedHeader, parseCheckRequestBody(bodyBuilder.toString()));
+                    return new RlcpCheckRequest(parsedHeader, parseCheckRequestBody(rlcpRequestString, bodyStart, bodyEnd));
                 case "calculate":
-                    return new RlcpCalculateRequest(parsedHeader, parseCalculateRequestBody(bodyBuilder.toString()));
+                    return new RlcpCalculateRequest(parsedHeader, parseCalculateRequestBody(rlcpRequestString, bodyStart, bodyEnd));
                 case "echo":
                     return new RlcpEchoRequest(parsedHeader, parseEchoRequestBody());
                 default:
@@ -163,11 +227,11 @@ public class Rlcp {
 
         switch (method.getName().toLowerCase()) {
             case "generate":
-                return parseGenerateRequestBody(rlcpBodyString);
+                return parseGenerateRequestBody(rlcpBodyString, 0, rlcpBodyString.length());
             case "check":
-                return parseCheckRequestBody(rlcpBodyString);
+                return parseCheckRequestBody(rlcpBodyString, 0, rlcpBodyString.length());
             case "calculate":
-                return parseCalculateRequestBody(rlcpBodyString);
+                return parseCalculateRequestBody(rlcpBodyString, 0, rlcpBodyString.length());
             case "echo":
                 return parseEchoRequestBody();
             default:
@@ -215,28 +279,23 @@ public class Rlcp {
         Objects.requireNonNull(method);
         Objects.requireNonNull(rlcpResponseString);
 
-        StringBuilder headerBuilder = new StringBuilder();
-        StringBuilder bodyBuilder = new StringBuilder();
-        try {
-            Util.readHeaderAndBody(rlcpResponseString, headerBuilder, bodyBuilder);
-        } catch (IOException ex) {
-            throw new RlcpException(ex);
-        }
+        int bodyStart = Util.findBodyStart(rlcpResponseString);
+        int bodyEnd = rlcpResponseString.length();
 
         RlcpResponseHeader parsedHeader;
         try {
-            parsedHeader = RlcpResponseHeader.parse(headerBuilder.toString());
+            parsedHeader = RlcpResponseHeader.parse(rlcpResponseString, 0, bodyStart);
         } catch (BadRlcpHeaderException ex) {
             throw new RlcpException(ex);
         }
 
             switch (method.getName().toLowerCase()) {
                 case "generate":
-                    return new RlcpGenerateResponse(parsedHeader, parseGenerateResponseBody(bodyBuilder.toString()));
+                    return new RlcpGenerateResponse(parsedHeader, parseGenerateResponseBody(rlcpResponseString, bodyStart, bodyEnd));
                 case "check":
-                    return new RlcpCheckResponse(parsedHeader, parseCheckResponseBody(bodyBuilder.toString()));
+                    return new RlcpCheckResponse(parsedHeader, parseCheckResponseBody(rlcpResponseString, bodyStart, bodyEnd));
                 case "calculate":
-                    return new RlcpCalculateResponse(parsedHeader, parseCalculateResponseBody(bodyBuilder.toString()));
+                    return new RlcpCalculateResponse(parsedHeader, parseCalculateResponseBody(rlcpResponseString, bodyStart, bodyEnd));
                 case "echo":
                     return new RlcpEchoResponse(parsedHeader, new RlcpEchoResponseBody());
                 default:
@@ -267,11 +326,11 @@ public class Rlcp {
 
         switch (method.getName().toLowerCase()) {
             case "generate":
-                return parseGenerateResponseBody(rlcpBodyString);
+                return parseGenerateResponseBody(rlcpBodyString, 0, rlcpBodyString.length());
             case "check":
-                return parseCheckResponseBody(rlcpBodyString);
+                return parseCheckResponseBody(rlcpBodyString, 0, rlcpBodyString.length());
             case "calculate":
-                return parseCalculateResponseBody(rlcpBodyString);
+                return parseCalculateResponseBody(rlcpBodyString, 0, rlcpBodyString.length());
             case "echo":
                 return parseEchoResponseBody();
             default:
@@ -279,20 +338,28 @@ public class Rlcp {
         }
     }
 
-    private static RlcpGenerateRequestBody parseGenerateRequestBody(String rlcpBodyString) throws RlcpException {
+    private static RlcpGenerateRequestBody parseGenerateRequestBody(CharSequence source, int start, int end) throws RlcpException {
+        checkRequestBodyNotBlank(source, start, end);
+        if (requestParser == RequestParser.STREAMING) {
+            return StreamingRequestBodyParser.parseGenerateRequestBody(source, start, end);
+        }
         String condition;
         try {
-            condition = DomHelper.getTextFromNodeByXpath(DomHelper.toXml(rlcpBodyString), xPath_selectConditionForGenerating);
+            condition = DomHelper.getTextFromNodeByXpath(DomHelper.toXml(source, start, end), xPath_selectConditionForGenerating);
         } catch (DocumentException ex) {
             throw new RlcpException(ex);
         }
         return new RlcpGenerateRequestBody(condition);
     }
 
-    private static RlcpCheckRequestBody parseCheckRequestBody(String rlcpBodyString) {
+    private static RlcpCheckRequestBody parseCheckRequestBody(CharSequence source, int start, int end) {
+        checkRequestBodyNotBlank(source, start, end);
+        if (requestParser == RequestParser.STREAMING) {
+            return StreamingRequestBodyParser.parseCheckRequestBody(source, start, end);
+        }
         Document rlcpRequestXml;
         try {
-            rlcpRequestXml = DomHelper.toXml(rlcpBodyString);
+            rlcpRequestXml = DomHelper.toXml(source, start, end);
         } catch (DocumentException ex) {
             throw new RlcpException(ex);
         }
@@ -303,7 +370,7 @@ public class Rlcp {
     }
 
     private static List<ConditionForChecking> parseConditions(Document rlcpRequestXml) {
-        List<Node> checkUnitsNodes = rlcpRequestXml.selectNodes(Constants.xPath_selectCheckUnitsNodes);
+        List<Node> checkUnitsNodes = DomHelper.selectNodes(rlcpRequestXml, Constants.xPath_selectCheckUnitsNodes);
         List<ConditionForChecking> checkUnits = parseConditions(checkUnitsNodes);
         return checkUnits;
     }
@@ -337,12 +404,16 @@ public class Rlcp {
         return DomHelper.getTextFromNodeByXpath(node, Constants.xPath_selectCheckUnit_expectedOutputData);
     }
 
-    private static RlcpCalculateRequestBody parseCalculateRequestBody(String rlcpBodyString) {
+    private static RlcpCalculateRequestBody parseCalculateRequestBody(CharSequence source, int start, int end) {
+        checkRequestBodyNotBlank(source, start, end);
+        if (requestParser == RequestParser.STREAMING) {
+            return StreamingRequestBodyParser.parseCalculateRequestBody(source, start, end);
+        }
         String condition;
         String instructions;
         GeneratingResult generatingResult;
         try {
-            Document requestDocument = DomHelper.toXml(rlcpBodyString);
+            Document requestDocument = DomHelper.toXml(source, start, end);
             condition = DomHelper.getTextFromNodeByXpath(requestDocument, xPath_selectConditionForCalculating);
             instructions = DomHelper.getTextFromNodeByXpath(requestDocument, xPath_selectInstructions);
             generatingResult = DomHelper.parsePreGenearted(requestDocument);
@@ -353,17 +424,24 @@ public class Rlcp {
 
     }
 
+    //checked before choosing parser, so both parsers fail on empty body the same way
+    private static void checkRequestBodyNotBlank(CharSequence source, int start, int end) {
+        if (Util.isBlank(source, start, end)) {
+            throw new RlcpException("Request body is empty");
+        }
+    }
+
     private static RlcpEchoRequestBody parseEchoRequestBody() {
         return new RlcpEchoRequestBody();
     }
 
-    private static RlcpGenerateResponseBody parseGenerateResponseBody(String rlcpBodyString) {
-        if (rlcpBodyString.trim().isEmpty()) {
+    private static RlcpGenerateResponseBody parseGenerateResponseBody(CharSequence source, int start, int end) {
+        if (Util.isBlank(source, start, end)) {
             return new RlcpGenerateResponseBody("", "", "");
         }
         Node resultNode;
         try {
-            resultNode = DomHelper.toXml(rlcpBodyString).selectSingleNode(RESPONSE + "/" + GENERATING_RESULT);
+            resultNode = DomHelper.selectSingleNode(DomHelper.toXml(source, start, end), RESPONSE + "/" + GENERATING_RESULT);
         } catch (DocumentException ex) {
             throw new RlcpException(ex);
         }
@@ -373,18 +451,18 @@ public class Rlcp {
                 DomHelper.getTextFromNodeByXpath(resultNode, PRE_GENERATED_INSTRUCTIONS + "/comment()"));
     }
 
-    private static RlcpCheckResponseBody parseCheckResponseBody(String rlcpBodyString) {
-        if (rlcpBodyString.trim().isEmpty()) {
+    private static RlcpCheckResponseBody parseCheckResponseBody(CharSequence source, int start, int end) {
+        if (Util.isBlank(source, start, end)) {
             return new RlcpCheckResponseBody(Collections.<CheckingResult>emptyList());
         }
         Document doc;
         try {
-            doc = DomHelper.toXml(rlcpBodyString);
+            doc = DomHelper.toXml(source, start, end);
         } catch (DocumentException ex) {
             throw new RlcpException(ex);
         }
         List<CheckingResult> results = new ArrayList<CheckingResult>();
-        for (Node node : (List<Node>) doc.selectNodes("//" + Constants.CHECKING_RESULT)) {
+        for (Node node : DomHelper.selectNodes(doc, "//" + Constants.CHECKING_RESULT)) {
             CheckingResult result = parseResult(node);
             results.add(result);
         }
@@ -398,13 +476,13 @@ public class Rlcp {
                 DomHelper.getTextFromNodeByXpath(node, "comment()"));
     }
 
-    private static RlcpCalculateResponseBody parseCalculateResponseBody(String rlcpBodyString) {
-        if (rlcpBodyString.trim().isEmpty()) {
+    private static RlcpCalculateResponseBody parseCalculateResponseBody(CharSequence source, int start, int end) {
+        if (Util.isBlank(source, start, end)) {
             return new RlcpCalculateResponseBody(new CalculatingResult("", ""));
         }
         Node resultNode;
         try {
-            resultNode = DomHelper.toXml(rlcpBodyString).selectSingleNode(RESPONSE + "/" + CALCULATING_RESULT);
+            resultNode = DomHelper.selectSingleNode(DomHelper.toXml(source, start, end), RESPONSE + "/" + CALCULATING_RESULT);
         } catch (DocumentException ex) {
             throw new RlcpException(ex);
         }
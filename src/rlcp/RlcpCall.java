@@ -0,0 +1,125 @@
+package rlcp;
+
+import java.io.IOException;
+import java.net.Socket;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Single execution of RLCP request. Knows socket the request is currently sent over, so
+ * that execution could be cancelled by closing it. Also runs asynchronous executions
+ * with time limit. Thread-safe.
+ *
+ * @see RlcpConnector#executeAsync(RlcpRequest, int, long, Executor)
+ */
+class RlcpCall {
+
+    private static final ExecutorService defaultExecutor = Executors.newCachedThreadPool(daemonThreadFactory("rlcp-async-"));
+    private static final ScheduledExecutorService timer = createTimer();
+
+    private Socket socket;
+    private boolean cancelled = false;
+
+    /**
+     * Binds call to socket it is executed over. Socket is closed immediately if call is already cancelled.
+     *
+     * @param socket socket the request is sent over
+     * @throws IOException if call is cancelled
+     */
+    synchronized void attach(Socket socket) throws IOException {
+        if (cancelled) {
+            closeQuietly(socket);
+            throw new IOException("RLCP request is cancelled");
+        }
+        this.socket = socket;
+    }
+
+    /**
+     * Unbinds call from socket, so that cancellation does not close it any more. Used when
+     * pooled connection is released.
+     */
+    synchronized void detach() {
+        socket = null;
+    }
+
+    /**
+     * Cancels call, closing socket it is executed over.
+     */
+    synchronized void cancel() {
+        cancelled = true;
+        if (socket != null) {
+            closeQuietly(socket);
+            socket = null;
+        }
+    }
+
+    /**
+     * Runs execution asynchronously. Returned future is completed with {@code TimeoutException} if
+     * execution is not complete within time limit. If future is completed exceptionally, including
+     * by {@code cancel()} or time limit, the call is cancelled and its socket is closed.
+     *
+     * @param execution execution to run with the call
+     * @param timeLimit time limit in milliseconds, 0 means no limit
+     * @param executor  executor to run execution with, or {@code null} for shared default executor
+     * @param <T>       type of execution result
+     * @return future of execution result
+     */
+    static <T> CompletableFuture<T> executeAsync(Function<RlcpCall, T> execution, long timeLimit, Executor executor) {
+        RlcpCall call = new RlcpCall();
+        CompletableFuture<T> future = new CompletableFuture<>();
+        (executor == null ? defaultExecutor : executor).execute(() -> {
+            if (future.isDone()) {
+                return;
+            }
+            try {
+                future.complete(execution.apply(call));
+            } catch (Throwable ex) {
+                future.completeExceptionally(ex);
+            }
+        });
+        if (timeLimit > 0) {
+            ScheduledFuture<?> timeout = timer.schedule(
+                    () -> future.completeExceptionally(new TimeoutException("RLCP request is not complete in " + timeLimit + " ms")),
+                    timeLimit, TimeUnit.MILLISECONDS);
+            future.whenComplete((result, ex) -> timeout.cancel(false));
+        }
+        future.whenComplete((result, ex) -> {
+            if (ex != null) {
+                call.cancel();
+            }
+        });
+        return future;
+    }
+
+    private static void closeQuietly(Socket socket) {
+        try {
+            socket.close();
+        } catch (IOException ex) {
+        }
+    }
+
+    private static ScheduledExecutorService createTimer() {
+        ScheduledThreadPoolExecutor timer = new ScheduledThreadPoolExecutor(1, daemonThreadFactory("rlcp-async-timer-"));
+        timer.setRemoveOnCancelPolicy(true);
+        return timer;
+    }
+
+    private static ThreadFactory daemonThreadFactory(String namePrefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, namePrefix + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
@@ -0,0 +1,322 @@
+package rlcp;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.UnknownHostException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+
+import rlcp.exception.BadRlcpRequestException;
+import rlcp.exception.BadRlcpResponseException;
+import rlcp.exception.RlcpException;
+import rlcp.util.Util;
+
+import static rlcp.util.Constants.rlcpDefaultPipelineDepth;
+
+/**
+ * RLCP client that reuses connections to RLCP-servers. All requests are sent with
+ * "connection:keep-alive" header field. Owns a pool of keep-alive connections per
+ * server host and port and caches resolved server addresses.
+ * <p>
+ * Server is asked for keep-alive support by the first request, that is sent over new
+ * connection the usual way; servers that do not echo the header field in response keep
+ * getting new connection per request. Thread-safe. Intended to be long-lived and shared.
+ *
+ * @see RlcpClientConfig
+ * @see RlcpConnector#execute(RlcpRequest, RlcpClient)
+ */
+public class RlcpClient implements Closeable {
+
+    private static final RlcpClient defaultClient = new RlcpClient(RlcpClientConfig.getDefault());
+
+    private final RlcpClientConfig config;
+    private final ConcurrentMap<InetSocketAddress, RlcpConnectionPool> pools = new ConcurrentHashMap<>();
+    private final Set<InetSocketAddress> keepAliveEndpoints = Collections.newSetFromMap(new ConcurrentHashMap<InetSocketAddress, Boolean>());
+    private final ConcurrentMap<String, ResolvedAddress> resolvedAddresses = new ConcurrentHashMap<>();
+    private volatile long lastEvictionTime = System.nanoTime();
+    private volatile boolean closed = false;
+
+    /**
+     * Simple constructor.
+     *
+     * @param config client configuration. Must not be null.
+     * @throws IllegalArgumentException if config is null
+     */
+    public RlcpClient(RlcpClientConfig config) throws IllegalArgumentException {
+        Util.checkNotNull("Config is null in RlcpClient constructor", config);
+        this.config = config;
+    }
+
+    /**
+     * Returns client with default configuration that is used by RlcpConnector for requests
+     * with "connection:keep-alive" header field.
+     *
+     * @return shared client with default configuration
+     */
+    public static RlcpClient getDefault() {
+        return defaultClient;
+    }
+
+    /**
+     * Returns client configuration.
+     *
+     * @return client configuration
+     */
+    public RlcpClientConfig getConfig() {
+        return config;
+    }
+
+    /**
+     * Sends request to RLCP-server over pooled connection and returns parsed response.
+     *
+     * @param request RlcpRequest to send to RLCP-server. Is marked with "connection:keep-alive" header field.
+     * @return RlcpResponse from RLCP-server
+     * @throws RlcpException if request could not be executed
+     */
+    public RlcpResponse execute(RlcpRequest request) throws RlcpException {
+        return execute(request, config.getConnectTimeLimit(), new RlcpCall());
+    }
+
+    /**
+     * Sends request to RLCP-server over pooled connection asynchronously.
+     *
+     * @param request   RlcpRequest to send to RLCP-server. Is marked with "connection:keep-alive" header field.
+     * @param timeLimit time limit in milliseconds for whole execution, 0 means no limit
+     * @param executor  executor to run execution with, or {@code null} for shared default executor
+     * @return future of RlcpResponse from RLCP-server. Cancelling it or expiring time limit closes connection
+     * @see RlcpConnector#executeAsync(RlcpRequest, int, long, Executor)
+     */
+    public CompletableFuture<RlcpResponse> executeAsync(RlcpRequest request, long timeLimit, Executor executor) {
+        return RlcpCall.executeAsync(call -> execute(request, config.getConnectTimeLimit(), call), timeLimit, executor);
+    }
+
+    /**
+     * Sends several requests to the same RLCP-server over one connection without waiting
+     * for each response (pipelining) and returns responses in the order of requests.
+     * If server is not known to support keep-alive connections, first request is sent
+     * alone to find it out; if server does not support them, remaining requests are
+     * executed one by one.
+     *
+     * @param requests RlcpRequests to send to the same RLCP-server
+     * @return RlcpResponses from RLCP-server in the order of requests
+     * @throws IllegalArgumentException if requests are addressed to different servers
+     * @throws RlcpException            if requests could not be executed
+     */
+    public List<RlcpResponse> executePipelined(List<? extends RlcpRequest> requests) throws IllegalArgumentException, RlcpException {
+        return executePipelined(requests, config.getConnectTimeLimit(), new RlcpCall());
+    }
+
+    /**
+     * Closes all idle connections. Requests executed after that get new connections
+     * that are not pooled.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        for (RlcpConnectionPool pool : pools.values()) {
+            pool.close();
+        }
+    }
+
+    RlcpResponse execute(RlcpRequest request, int connectTimeLimit, RlcpCall call) throws RlcpException {
+        return executePipelined(Collections.singletonList(request), connectTimeLimit, call).get(0);
+    }
+
+    List<RlcpResponse> executePipelined(List<? extends RlcpRequest> requests, int connectTimeLimit, RlcpCall call) throws IllegalArgumentException, RlcpException {
+        List<RlcpResponse> responses = new ArrayList<>();
+        if (requests.isEmpty()) {
+            return responses;
+        }
+        InetSocketAddress endpoint;
+        try {
+            endpoint = getEndpoint(requests.get(0));
+            for (RlcpRequest request : requests) {
+                if (!endpoint.equals(getEndpoint(request))) {
+                    throw new IllegalArgumentException("Pipelined requests are addressed to different RLCP-servers");
+                }
+                request.getHeader().getOptionalHeaderFieldsContainer().setKeepAlive();
+            }
+        } catch (BadRlcpRequestException ex) {
+            throw new RlcpException(ex);
+        }
+        evictIdleConnections();
+
+        try {
+            if (closed || !keepAliveEndpoints.contains(endpoint)) {
+                responses.add(executeOnNewConnection(endpoint, requests.get(0), connectTimeLimit, call));
+            }
+            while (responses.size() < requests.size()) {
+                List<? extends RlcpRequest> remaining = requests.subList(responses.size(), requests.size());
+                if (!closed && keepAliveEndpoints.contains(endpoint)) {
+                    responses.addAll(exchange(endpoint, remaining, connectTimeLimit, call));
+                } else {
+                    responses.add(executeOnNewConnection(endpoint, remaining.get(0), connectTimeLimit, call));
+                }
+            }
+        } catch (IOException | BadRlcpResponseException ex) {
+            throw new RlcpException(ex);
+        }
+        return responses;
+    }
+
+    /**
+     * Sends request over new connection, shutting down its output, and reads response. Remembers
+     * server as supporting keep-alive connections if response has "connection:keep-alive" header field.
+     */
+    private RlcpResponse executeOnNewConnection(InetSocketAddress endpoint, RlcpRequest request, int connectTimeLimit, RlcpCall call) throws IOException, BadRlcpResponseException {
+        RlcpConnection connection = connect(endpoint, connectTimeLimit, call);
+        try {
+            connection.send(request);
+            connection.shutdownOutput();
+            RlcpResponse response = connection.receive(getResponseClass(request));
+            if (response.getHeader().getOptionalHeaderFieldsContainer().isKeepAlive()) {
+                keepAliveEndpoints.add(endpoint);
+            } else {
+                keepAliveEndpoints.remove(endpoint);
+            }
+            return response;
+        } finally {
+            call.detach();
+            connection.close();
+        }
+    }
+
+    /**
+     * Sends requests over pooled connection, keeping at most {@code rlcpDefaultPipelineDepth} requests
+     * without response. Stops after response without "connection:keep-alive" header field, as server
+     * closes connection then; returned list is shorter than requests list in that case.
+     */
+    private List<RlcpResponse> exchange(InetSocketAddress endpoint, List<? extends RlcpRequest> requests, int connectTimeLimit, RlcpCall call) throws IOException, BadRlcpResponseException {
+        RlcpConnectionPool pool = getPool(endpoint);
+        RlcpConnection connection = pool.acquire();
+        boolean reused = connection != null;
+        List<RlcpResponse> responses = new ArrayList<>();
+        boolean keepAlive = true;
+        try {
+            if (connection == null) {
+                connection = connect(endpoint, connectTimeLimit, call);
+            } else {
+                connection.attach(call);
+            }
+            int sent = 0;
+            while (keepAlive && responses.size() < requests.size()) {
+                try {
+                    while (sent < requests.size() && sent - responses.size() < rlcpDefaultPipelineDepth) {
+                        connection.send(requests.get(sent++));
+                    }
+                    RlcpRequest request = requests.get(responses.size());
+                    RlcpResponse response = connection.receive(getResponseClass(request));
+                    responses.add(response);
+                    keepAlive = response.getHeader().getOptionalHeaderFieldsContainer().isKeepAlive();
+                } catch (IOException ex) {
+                    if (!reused || !responses.isEmpty()) {
+                        throw ex;
+                    }
+                    //idle connection was closed by server, for example after its keep-alive time limit
+                    connection.close();
+                    connection = connect(endpoint, connectTimeLimit, call);
+                    reused = false;
+                    sent = 0;
+                }
+            }
+        } catch (IOException | BadRlcpResponseException | RuntimeException ex) {
+            keepAlive = false;
+            throw ex;
+        } finally {
+            call.detach();
+            pool.release(connection, keepAlive && !closed);
+        }
+        return responses;
+    }
+
+    private static Class<? extends RlcpResponse> getResponseClass(RlcpRequest request) {
+        Class<?> responseClass = request.getMethod().getResponseClass();
+        return responseClass.asSubclass(RlcpResponse.class);
+    }
+
+    private RlcpConnectionPool getPool(InetSocketAddress endpoint) {
+        RlcpConnectionPool pool = pools.get(endpoint);
+        if (pool == null) {
+            pool = pools.computeIfAbsent(endpoint, key -> new RlcpConnectionPool(config));
+        }
+        return pool;
+    }
+
+    /**
+     * Closes idle connections of all servers at most once per idle time limit, so that connections
+     * to servers that are not requested any more are not kept open.
+     */
+    private void evictIdleConnections() {
+        long now = System.nanoTime();
+        if ((now - lastEvictionTime) / 1000000 < config.getIdleTimeLimit()) {
+            return;
+        }
+        lastEvictionTime = now;
+        for (RlcpConnectionPool pool : pools.values()) {
+            pool.evictIdleConnections();
+        }
+    }
+
+    private RlcpConnection connect(InetSocketAddress endpoint, int connectTimeLimit, RlcpCall call) throws IOException {
+        InetAddress address = resolve(endpoint.getHostString());
+        Socket socket = new Socket();
+        call.attach(socket);
+        try {
+            socket.connect(new InetSocketAddress(address, endpoint.getPort()), connectTimeLimit);
+            socket.setSoTimeout(config.getReadTimeLimit());
+            return new RlcpConnection(endpoint, socket);
+        } catch (IOException ex) {
+            resolvedAddresses.remove(endpoint.getHostString());
+            try {
+                socket.close();
+            } catch (IOException e) {
+            }
+            throw new IOException("There was a problem to connect with RLCP-server", ex);
+        }
+    }
+
+    private InetAddress resolve(String host) throws UnknownHostException {
+        long now = System.nanoTime();
+        ResolvedAddress resolved = resolvedAddresses.get(host);
+        if (resolved != null && (now - resolved.resolveTime) / 1000000 < config.getDnsCacheTimeLimit()) {
+            return resolved.address;
+        }
+        InetAddress address = InetAddress.getByName(host);
+        if (config.getDnsCacheTimeLimit() > 0) {
+            resolvedAddresses.put(host, new ResolvedAddress(address, now));
+        }
+        return address;
+    }
+
+    private static InetSocketAddress getEndpoint(RlcpRequest request) throws BadRlcpRequestException {
+        String host = null;
+        int port = 0;
+        try {
+            host = request.getHeader().getUrl().getHost();
+            port = Integer.parseInt(request.getHeader().getUrl().getPort());
+            return InetSocketAddress.createUnresolved(host, port);
+        } catch (Exception ex) {
+            throw new BadRlcpRequestException("Error while reading host and port from request for socket in RlcpClient. Host is " + host + " and port is " + port, ex);
+        }
+    }
+
+    private static class ResolvedAddress {
+
+        private final InetAddress address;
+        private final long resolveTime;
+
+        private ResolvedAddress(InetAddress address, long resolveTime) {
+            this.address = address;
+            this.resolveTime = resolveTime;
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package rlcp;
+
+import static rlcp.util.Constants.rlcpDefaultClientConnectTimeLimitInMillis;
+import static rlcp.util.Constants.rlcpDefaultClientDnsCacheTimeLimitInMillis;
+import static rlcp.util.Constants.rlcpDefaultClientHealthCheckIdleTimeInMillis;
+import static rlcp.util.Constants.rlcpDefaultClientIdleTimeLimitInMillis;
+import static rlcp.util.Constants.rlcpDefaultClientMaxConnections;
+import static rlcp.util.Constants.rlcpDefaultClientReadTimeLimitInMillis;
+
+/**
+ * Class for RlcpClient configuration storing. All time limits are in milliseconds. Unmodifiable.
+ *
+ * @see RlcpClient
+ */
+public class RlcpClientConfig {
+
+    private static final RlcpClientConfig defaultConfig = new RlcpClientConfig(
+            rlcpDefaultClientMaxConnections,
+            rlcpDefaultClientIdleTimeLimitInMillis,
+            rlcpDefaultClientHealthCheckIdleTimeInMillis,
+            rlcpDefaultClientConnectTimeLimitInMillis,
+            rlcpDefaultClientReadTimeLimitInMillis,
+            rlcpDefaultClientDnsCacheTimeLimitInMillis
+    );
+
+    private final int maxConnections;
+    private final long idleTimeLimit;
+    private final long healthCheckIdleTime;
+    private final int connectTimeLimit;
+    private final int readTimeLimit;
+    private final long dnsCacheTimeLimit;
+
+    /**
+     * Simple constructor.
+     *
+     * @param maxConnections      maximum number of connections to one RLCP-server
+     * @param idleTimeLimit       time after which idle connection is closed. Should be less than
+     *                            keep-alive time limit of servers
+     * @param healthCheckIdleTime time after which idle connection is checked before reuse
+     * @param connectTimeLimit    time limit for connection establishing and waiting for free connection, 0 means no limit
+     * @param readTimeLimit       time limit for waiting of response data, 0 means no limit
+     * @param dnsCacheTimeLimit   time during which resolved server address is reused, 0 disables caching
+     * @throws IllegalArgumentException if maxConnections is not positive or any time limit is negative
+     */
+    public RlcpClientConfig(int maxConnections, long idleTimeLimit, long healthCheckIdleTime, int connectTimeLimit,
+                            int readTimeLimit, long dnsCacheTimeLimit) throws IllegalArgumentException {
+        if (maxConnections <= 0 || idleTimeLimit < 0 || healthCheckIdleTime < 0 || connectTimeLimit < 0
+                || readTimeLimit < 0 || dnsCacheTimeLimit < 0) {
+            throw new IllegalArgumentException("Bad client configuration: max connections " + maxConnections
+                    + ", idle time limit " + idleTimeLimit + ", health check idle time " + healthCheckIdleTime
+                    + ", connect time limit " + connectTimeLimit + ", read time limit " + readTimeLimit
+                    + ", dns cache time limit " + dnsCacheTimeLimit);
+        }
+        this.maxConnections = maxConnections;
+        this.idleTimeLimit = idleTimeLimit;
+        this.healthCheckIdleTime = healthCheckIdleTime;
+        this.connectTimeLimit = connectTimeLimit;
+        this.readTimeLimit = readTimeLimit;
+        this.dnsCacheTimeLimit = dnsCacheTimeLimit;
+    }
+
+    /**
+     * Returns default client configuration.
+     *
+     * @return default client configuration
+     */
+    public static RlcpClientConfig getDefault() {
+        return defaultConfig;
+    }
+
+    /**
+     * Returns maximum number of connections to one RLCP-server.
+     *
+     * @return maximum number of connections to one RLCP-server
+     */
+    public int getMaxConnections() {
+        return maxConnections;
+    }
+
+    /**
+     * Returns time after which idle connection is closed.
+     *
+     * @return time after which idle connection is closed
+     */
+    public long getIdleTimeLimit() {
+        return idleTimeLimit;
+    }
+
+    /**
+     * Returns time after which idle connection is checked before reuse.
+     *
+     * @return time after which idle connection is checked before reuse
+     */
+    public long getHealthCheckIdleTime() {
+        return healthCheckIdleTime;
+    }
+
+    /**
+     * Returns time limit for connection establishing and waiting for free connection, 0 means no limit.
+     *
+     * @return time limit for connection establishing and waiting for free connection
+     */
+    public int getConnectTimeLimit() {
+        return connectTimeLimit;
+    }
+
+    /**
+     * Returns time limit for waiting of response data, 0 means no limit.
+     *
+     * @return time limit for waiting of response data
+     */
+    public int getReadTimeLimit() {
+        return readTimeLimit;
+    }
+
+    /**
+     * Returns time during which resolved server address is reused, 0 means caching is disabled.
+     *
+     * @return time during which resolved server address is reused
+     */
+    public long getDnsCacheTimeLimit() {
+        return dnsCacheTimeLimit;
+    }
+
+    /**
+     * Returns String representation for logging.
+     *
+     * @return String representation for logging
+     */
+    @Override
+    public String toString() {
+        return "maxConnections=" + maxConnections + ", idleTimeLimit=" + idleTimeLimit
+                + ", healthCheckIdleTime=" + healthCheckIdleTime + ", connectTimeLimit=" + connectTimeLimit
+                + ", readTimeLimit=" + readTimeLimit + ", dnsCacheTimeLimit=" + dnsCacheTimeLimit;
+    }
+}
@@ -0,0 +1,170 @@
+package rlcp;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+
+import rlcp.exception.BadRlcpBodyException;
+import rlcp.exception.BadRlcpHeaderException;
+import rlcp.exception.BadRlcpResponseException;
+import rlcp.util.Constants;
+import rlcp.util.RlcpFrameReader;
+import rlcp.util.Util;
+
+/**
+ * Client side keep-alive connection to RLCP-server. Carries many content-length framed
+ * requests and responses, responses are read in the order requests were sent. Not thread-safe.
+ *
+ * @see RlcpHeaderFieldsContainer#isKeepAlive()
+ */
+class RlcpConnection {
+
+    private final InetSocketAddress endpoint;
+    private final Socket socket;
+    private final RlcpFrameReader frameReader;
+    private final OutputStream output;
+    private long idleSince = System.nanoTime();
+
+    /**
+     * Simple constructor.
+     *
+     * @param endpoint unresolved host and port of RLCP-server, used as connection key. Must not be null.
+     * @param socket   connected socket. Must not be null.
+     * @throws IOException if socket streams can not be obtained
+     */
+    RlcpConnection(InetSocketAddress endpoint, Socket socket) throws IOException {
+        Util.checkNotNull("Endpoint or socket is null in RlcpConnection constructor", endpoint, socket);
+        this.endpoint = endpoint;
+        this.socket = socket;
+        this.frameReader = new RlcpFrameReader(socket.getInputStream(), Constants.rlcpDefaultCharset,
+                Constants.rlcpDefaultMaxHeaderSize, Integer.MAX_VALUE);
+        this.output = new BufferedOutputStream(socket.getOutputStream());
+    }
+
+    /**
+     * Returns unresolved host and port of RLCP-server.
+     *
+     * @return unresolved host and port of RLCP-server
+     */
+    InetSocketAddress getEndpoint() {
+        return endpoint;
+    }
+
+    /**
+     * Writes request to server without waiting for response.
+     *
+     * @param request request to send
+     * @throws IOException if an I/O error occurs
+     */
+    void send(RlcpRequest request) throws IOException {
+        request.writeTo(output);
+        output.flush();
+    }
+
+    /**
+     * Binds execution call to connection socket, so that cancellation of the call closes connection.
+     *
+     * @param call execution call
+     * @throws IOException if call is already cancelled
+     */
+    void attach(RlcpCall call) throws IOException {
+        call.attach(socket);
+    }
+
+    /**
+     * Shuts down output of connection, so that server reading request until end of stream
+     * could find its end. Connection can not be reused after that.
+     *
+     * @throws IOException if an I/O error occurs
+     */
+    void shutdownOutput() throws IOException {
+        socket.shutdownOutput();
+    }
+
+    /**
+     * Reads next response from server.
+     *
+     * @param responseClass class of expected response
+     * @param <T>           type of expected response
+     * @return parsed response
+     * @throws IOException              if an I/O error occurs or server closed connection before response
+     * @throws BadRlcpResponseException if response can not be framed
+     */
+    <T extends RlcpResponse> T receive(Class<T> responseClass) throws IOException, BadRlcpResponseException {
+        String rawResponse;
+        try {
+            rawResponse = frameReader.readFrame();
+        } catch (BadRlcpHeaderException | BadRlcpBodyException ex) {
+            throw new BadRlcpResponseException(ex);
+        }
+        if (rawResponse == null) {
+            throw new IOException("Connection is closed by RLCP-server");
+        }
+        return Rlcp.parseResponse(rawResponse, responseClass);
+    }
+
+    /**
+     * Remembers the moment connection became idle.
+     */
+    void markIdle() {
+        idleSince = System.nanoTime();
+    }
+
+    /**
+     * Returns time in milliseconds since connection became idle.
+     *
+     * @return time in milliseconds since connection became idle
+     */
+    long getIdleTime() {
+        return (System.nanoTime() - idleSince) / 1000000;
+    }
+
+    /**
+     * Checks that idle connection is not closed by server. Waits for server data for a
+     * millisecond: server sends nothing on healthy idle connection, so any data or end of
+     * stream means connection can not be reused.
+     *
+     * @return {@code true} if connection can be reused, {@code false} otherwise
+     */
+    boolean isHealthy() {
+        if (isClosed() || socket.isInputShutdown() || socket.isOutputShutdown()) {
+            return false;
+        }
+        try {
+            int readTimeLimit = socket.getSoTimeout();
+            socket.setSoTimeout(1);
+            try {
+                frameReader.hasNextFrame();
+                return false;
+            } finally {
+                socket.setSoTimeout(readTimeLimit);
+            }
+        } catch (SocketTimeoutException ex) {
+            return true;
+        } catch (IOException ex) {
+            return false;
+        }
+    }
+
+    /**
+     * Returns {@code true} if connection is closed, {@code false} otherwise.
+     *
+     * @return {@code true} if connection is closed, {@code false} otherwise
+     */
+    boolean isClosed() {
+        return socket.isClosed();
+    }
+
+    /**
+     * Closes connection quietly.
+     */
+    void close() {
+        try {
+            socket.close();
+        } catch (IOException ex) {
+        }
+    }
+}
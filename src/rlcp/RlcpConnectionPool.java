@@ -0,0 +1,119 @@
+package rlcp;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pool of keep-alive connections to one RLCP-server. Limits number of connections,
+ * keeps released connections idle for reuse and closes connections idle for too long.
+ * Thread-safe.
+ *
+ * @see RlcpClient
+ */
+class RlcpConnectionPool {
+
+    private final RlcpClientConfig config;
+    private final Semaphore permits;
+    private final Deque<RlcpConnection> idleConnections = new ArrayDeque<>();
+    private boolean closed = false;
+
+    /**
+     * Simple constructor.
+     *
+     * @param config client configuration. Must not be null.
+     */
+    RlcpConnectionPool(RlcpClientConfig config) {
+        this.config = config;
+        this.permits = new Semaphore(config.getMaxConnections(), true);
+    }
+
+    /**
+     * Takes permit for one connection, waiting for it no longer than connect time limit, and returns
+     * most recently used healthy idle connection. Returns {@code null} if there is no such connection;
+     * caller should establish new one then. Permit should be given back by {@code release()} in any case.
+     *
+     * @return idle connection or {@code null} if new connection should be established
+     * @throws IOException if all connections are busy during connect time limit
+     */
+    RlcpConnection acquire() throws IOException {
+        try {
+            if (config.getConnectTimeLimit() == 0) {
+                permits.acquire();
+            } else if (!permits.tryAcquire(config.getConnectTimeLimit(), TimeUnit.MILLISECONDS)) {
+                throw new IOException("All " + config.getMaxConnections() + " connections to RLCP-server are busy");
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for connection to RLCP-server", ex);
+        }
+
+        RlcpConnection connection;
+        while ((connection = pollIdleConnection()) != null) {
+            if (!connection.isClosed() && (connection.getIdleTime() < config.getHealthCheckIdleTime() || connection.isHealthy())) {
+                return connection;
+            }
+            connection.close();
+        }
+        return null;
+    }
+
+    /**
+     * Gives back permit taken by {@code acquire()}. Connection is kept idle for reuse if it is
+     * reusable, otherwise it is closed.
+     *
+     * @param connection connection used with the permit, may be {@code null} if it was not established
+     * @param reusable   {@code true} if server keeps connection alive and there is no unread response
+     */
+    void release(RlcpConnection connection, boolean reusable) {
+        try {
+            if (connection != null && !(reusable && !connection.isClosed() && offerIdleConnection(connection))) {
+                connection.close();
+            }
+        } finally {
+            permits.release();
+        }
+    }
+
+    /**
+     * Closes connections idle longer than idle time limit.
+     */
+    synchronized void evictIdleConnections() {
+        Iterator<RlcpConnection> iterator = idleConnections.iterator();
+        while (iterator.hasNext()) {
+            RlcpConnection connection = iterator.next();
+            if (connection.getIdleTime() >= config.getIdleTimeLimit()) {
+                iterator.remove();
+                connection.close();
+            }
+        }
+    }
+
+    /**
+     * Closes all idle connections. Busy connections are closed when released.
+     */
+    synchronized void close() {
+        closed = true;
+        for (RlcpConnection connection : idleConnections) {
+            connection.close();
+        }
+        idleConnections.clear();
+    }
+
+    private synchronized RlcpConnection pollIdleConnection() {
+        evictIdleConnections();
+        return idleConnections.pollFirst();
+    }
+
+    private synchronized boolean offerIdleConnection(RlcpConnection connection) {
+        if (closed) {
+            return false;
+        }
+        connection.markIdle();
+        idleConnections.offerFirst(connection);
+        return true;
+    }
+}
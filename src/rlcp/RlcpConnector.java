@@ -1,10 +1,16 @@
 package rlcp;
 
+import java.io.BufferedOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.net.InetAddress;
 import java.net.InetSocketAddress;
 import java.net.Socket;
 import java.net.UnknownHostException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
 import rlcp.echo.RlcpEchoRequest;
 import rlcp.echo.RlcpEchoResponse;
@@ -27,6 +33,12 @@ import rlcp.util.Util;
  * Provides public {@code execute()} method, that establishes network
  * connection, sends request, receives Respose as raw String and parses it as
  * specified method response.
+ * <p>
+ * Requests with "connection:keep-alive" header field are delegated to the shared
+ * {@code RlcpClient}, that sends them over pooled persistent connections.
+ *
+ * @see RlcpHeaderFieldsContainer#setKeepAlive()
+ * @see RlcpClient
  */
 public class RlcpConnector<Request extends RlcpRequest, Response extends RlcpResponse> {
 
@@ -75,7 +87,9 @@ public class RlcpConnector<Request extends RlcpRequest, Response extends RlcpRes
 
     /**
      * Establishes network connection, sends request, receives Respose as raw
-     * String and parses it as specified method response.
+     * String and parses it as specified method response. Request with
+     * "connection:keep-alive" header field is executed by shared
+     * {@code RlcpClient}, that reuses connections to servers supporting it.
      *
      * @param request RlcpRequest to send to RLCP-server
      * @param timeout timeout for connection in milliseconds
@@ -83,14 +97,50 @@ public class RlcpConnector<Request extends RlcpRequest, Response extends RlcpRes
      * @throws UnknownHostException
      * @throws IOException
      * @throws BadRlcpResponseException
+     * @see RlcpClient#getDefault()
      */
     public Response execute(Request request, int timeout) {
+        return execute(request, timeout, new RlcpCall());
+    }
+
+    /**
+     * Executes request asynchronously with shared default executor, without time limit.
+     *
+     * @param request RlcpRequest to send to RLCP-server
+     * @param timeout timeout for connection in milliseconds
+     * @return future of RlcpResponse from RLCP-server. Cancelling it closes connection
+     * @see #executeAsync(RlcpRequest, int, long, Executor)
+     */
+    public CompletableFuture<Response> executeAsync(Request request, int timeout) {
+        return executeAsync(request, timeout, 0, null);
+    }
+
+    /**
+     * Executes request asynchronously with specified executor. Returned future is
+     * completed exceptionally with {@code RlcpException} if request fails and with
+     * {@code TimeoutException} if it is not complete within time limit. Cancelling
+     * the future or expiring time limit closes connection of the request, so that
+     * executor thread is not blocked any more.
+     *
+     * @param request   RlcpRequest to send to RLCP-server
+     * @param timeout   timeout for connection in milliseconds
+     * @param timeLimit time limit in milliseconds for whole execution, 0 means no limit
+     * @param executor  executor to run execution with, or {@code null} for shared default executor
+     * @return future of RlcpResponse from RLCP-server
+     */
+    public CompletableFuture<Response> executeAsync(Request request, int timeout, long timeLimit, Executor executor) {
+        return RlcpCall.executeAsync(call -> execute(request, timeout, call), timeLimit, executor);
+    }
+
+    private Response execute(Request request, int timeout, RlcpCall call) {
+        if (request.getHeader().getOptionalHeaderFieldsContainer().isKeepAlive()) {
+            return asResponse(RlcpClient.getDefault().execute(request, timeout, call));
+        }
         Socket socket = null;
         String rawResponse;
         try {
-            String requestString = request.toString();
-            socket = createSocket(request, timeout);
-            send(requestString, socket);
+            socket = createSocket(request, timeout, call);
+            send(request, socket);
             rawResponse = Util.readSocketInputUntilInputShutdown(socket);
         } catch (Exception exc) {
             throw new RlcpException(exc);
@@ -103,13 +153,55 @@ public class RlcpConnector<Request extends RlcpRequest, Response extends RlcpRes
         return (Response) Rlcp.parseResponse(rawResponse, request.getMethod().getResponseClass());
     }
 
-    private void send(String requestString, Socket socket) throws IOException {
-        socket.getOutputStream().write(requestString.getBytes());
-        socket.getOutputStream().flush();
+    /**
+     * Sends request over connection pooled by specified client and parses response
+     * as specified method response.
+     *
+     * @param request RlcpRequest to send to RLCP-server
+     * @param client  client owning connections to RLCP-servers
+     * @return RlcpResponse from RLCP-server
+     * @see RlcpClient#execute(RlcpRequest)
+     */
+    public Response execute(Request request, RlcpClient client) {
+        return asResponse(client.execute(request));
+    }
+
+    /**
+     * Sends several requests to the same RLCP-server over one keep-alive connection
+     * of shared {@code RlcpClient} without waiting for each response (pipelining)
+     * and returns responses in the order of requests.
+     *
+     * @param requests RlcpRequests to send to the same RLCP-server
+     * @param timeout  timeout for connection in milliseconds
+     * @return RlcpResponses from RLCP-server in the order of requests
+     * @throws IllegalArgumentException if requests are addressed to different servers
+     * @see RlcpClient#executePipelined(List)
+     */
+    public List<Response> executePipelined(List<? extends Request> requests, int timeout) throws IllegalArgumentException {
+        List<Response> responses = new ArrayList<>();
+        for (RlcpResponse response : RlcpClient.getDefault().executePipelined(requests, timeout, new RlcpCall())) {
+            responses.add(asResponse(response));
+        }
+        return responses;
+    }
+
+    /**
+     * Casts response of request to response class of connector. RLCP-server answers request with
+     * response of request method, and connector is parameterized with classes of the same method.
+     */
+    @SuppressWarnings("unchecked")
+    private Response asResponse(RlcpResponse response) {
+        return (Response) response;
+    }
+
+    private void send(Request request, Socket socket) throws IOException {
+        OutputStream out = new BufferedOutputStream(socket.getOutputStream());
+        request.writeTo(out);
+        out.flush();
         socket.shutdownOutput();
     }
 
-    private Socket createSocket(Request request, int timeout) throws BadRlcpRequestException, IOException {
+    private Socket createSocket(Request request, int timeout, RlcpCall call) throws BadRlcpRequestException, IOException {
         String host = null;
         int port = 0;
         try {
@@ -121,6 +213,7 @@ public class RlcpConnector<Request extends RlcpRequest, Response extends RlcpRes
 
         try {
             Socket socket = new Socket();
+            call.attach(socket);
             socket.connect(new InetSocketAddress(InetAddress.getByName(host), port), timeout);
             return socket;
         } catch (IOException ex) {
@@ -1,18 +1,22 @@
 package rlcp;
 
 import java.io.Serializable;
-import java.util.HashMap;
 import java.util.Map;
 import java.util.Set;
+import java.util.TreeMap;
+
+import static rlcp.util.Constants.CONNECTION_HEADER_FIELD;
+import static rlcp.util.Constants.KEEP_ALIVE;
 
 /**
- * Special header fields container, where all unnecessary feilds stored.
+ * Special header fields container, where all unnecessary feilds stored. Names of fields are case-insensitive.
  */
 public class RlcpHeaderFieldsContainer implements Serializable {
-    private Map<String, String> headerFields = new HashMap<String, String>();
+    private Map<String, String> headerFields = new TreeMap<String, String>(String.CASE_INSENSITIVE_ORDER);
 
     /**
-     * Sets header field with specified name and value. Replaces old value of fiels with such name if any.
+     * Sets header field with specified name and value. Replaces old value of fiels with such name,
+     * ignoring case, if any.
      *
      * @param name  header fiels name
      * @param value header fiels value
@@ -23,6 +27,7 @@ public class RlcpHeaderFieldsContainer implements Serializable {
 
     /**
      * Returns value of header field with specified name or {@code null} if there is no fiels with such name.
+     * Name is compared ignoring case.
      *
      * @param name header fiels name
      * @return value of header field with specified name or {@code null} if there is no fiels with such name.
@@ -40,4 +45,22 @@ public class RlcpHeaderFieldsContainer implements Serializable {
         return headerFields.keySet();
     }
 
+    /**
+     * Sets "connection:keep-alive" header field. In request it asks server to keep connection open
+     * for next requests, in response it confirms that server does so.
+     */
+    public void setKeepAlive() {
+        setHeaderField(CONNECTION_HEADER_FIELD, KEEP_ALIVE);
+    }
+
+    /**
+     * Returns {@code true} if there is "connection:keep-alive" header field, {@code false} otherwise.
+     *
+     * @return {@code true} if there is "connection:keep-alive" header field, {@code false} otherwise
+     */
+    public boolean isKeepAlive() {
+        String connection = getHeaderFieldByName(CONNECTION_HEADER_FIELD);
+        return connection != null && connection.trim().equalsIgnoreCase(KEEP_ALIVE);
+    }
+
 }
@@ -1,14 +1,19 @@
 package rlcp;
 
 import java.io.IOException;
+import java.io.OutputStream;
 import java.io.Serializable;
 import java.net.UnknownHostException;
+import java.nio.charset.Charset;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
 import rlcp.exception.BadRlcpHeaderException;
 import rlcp.exception.BadRlcpRequestException;
 import rlcp.exception.BadRlcpResponseException;
 import rlcp.exception.RlcpException;
 import rlcp.method.RlcpMethod;
+import rlcp.util.Constants;
 import rlcp.util.Util;
 
 import static rlcp.util.Util.*;
@@ -64,7 +69,46 @@ public abstract class RlcpRequest implements Serializable {
      * @throws UnknownHostException, IOException, BadRlcpResponseException, BadRlcpRequestException
      */
     public RlcpResponse execute(int timeout) {
-        return getMethod().getConnector().execute(this, timeout);
+        return getConnector().execute(this, timeout);
+    }
+
+    /**
+     * Executes request over connection pooled by specified client, sending it
+     * to RLCP-server and recieving response to return.
+     *
+     * @param client client owning connections to RLCP-servers
+     * @return RlcpResponse implementation instance for this method returned
+     * from RLCP-server
+     * @see RlcpClient
+     */
+    public RlcpResponse execute(RlcpClient client) {
+        return getConnector().execute(this, client);
+    }
+
+    /**
+     * Executes request asynchronously with shared default executor, without
+     * time limit.
+     *
+     * @return future of RlcpResponse implementation instance for this method
+     * returned from RLCP-server. Cancelling it closes connection
+     * @see RlcpConnector#executeAsync(RlcpRequest, int)
+     */
+    public CompletableFuture<? extends RlcpResponse> executeAsync() {
+        return executeAsync(0, 0, null);
+    }
+
+    /**
+     * Executes request asynchronously with specified executor.
+     *
+     * @param timeout   timeout for connection in milliseconds
+     * @param timeLimit time limit in milliseconds for whole execution, 0 means no limit
+     * @param executor  executor to run execution with, or {@code null} for shared default executor
+     * @return future of RlcpResponse implementation instance for this method
+     * returned from RLCP-server. Cancelling it or expiring time limit closes connection
+     * @see RlcpConnector#executeAsync(RlcpRequest, int, long, Executor)
+     */
+    public CompletableFuture<? extends RlcpResponse> executeAsync(int timeout, long timeLimit, Executor executor) {
+        return getConnector().executeAsync(this, timeout, timeLimit, executor);
     }
 
     /**
@@ -86,4 +130,27 @@ public abstract class RlcpRequest implements Serializable {
                 .append(unixLineSeparator)
                 .toString();
     }
+
+    /**
+     * Writes raw representation of RlcpRequest, that is equal to {@code toString()}, to byte
+     * stream. Body is written as it was encoded for content length, without serializing again.
+     *
+     * @param out stream to write to
+     * @throws IOException if an I/O error occurs
+     */
+    public void writeTo(OutputStream out) throws IOException {
+        Charset charset = Constants.rlcpDefaultCharset;
+        out.write((getHeader().toString() + winLineSeparator).getBytes(charset));
+        getBody().writeTo(out);
+        out.write(unixLineSeparator.getBytes(charset));
+    }
+
+    /**
+     * Returns connector of request method. Connector of method is parameterized with request and
+     * response classes of the method, so that it accepts this request.
+     */
+    @SuppressWarnings("unchecked")
+    private RlcpConnector<RlcpRequest, RlcpResponse> getConnector() {
+        return getMethod().getConnector();
+    }
 }
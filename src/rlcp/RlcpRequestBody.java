@@ -2,15 +2,20 @@ package rlcp;
 
 import org.dom4j.Document;
 import rlcp.method.RlcpMethod;
+import rlcp.util.Constants;
 import rlcp.util.DomHelper;
 import rlcp.util.Util;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.io.Serializable;
+import java.nio.ByteBuffer;
 
 import static rlcp.util.Util.*;
 
 /**
- * Interface for RlcpRequest body entity.
+ * Interface for RlcpRequest body entity. Body is serialized once, when its content length
+ * or raw representation is first requested; bodies must not change after that.
  */
 public abstract class RlcpRequestBody implements Serializable {
 
@@ -18,6 +23,8 @@ public abstract class RlcpRequestBody implements Serializable {
     private static final String docTypePublicId = null;
     private static final String docTypeSystemId = "http://de.ifmo.ru/--DTD/Request.dtd";
 
+    private transient volatile byte[] encoded;
+
     /**
      * Returns XML document representation of RlcpRequestBody.
      *
@@ -54,21 +61,50 @@ public abstract class RlcpRequestBody implements Serializable {
      */
     @Override
     public String toString() {
-        Document doc = getDocument();
-        doc.addDocType(docTypeName, docTypePublicId, docTypeSystemId);
-        String bodyString = DomHelper.getPrettyOrCompactIfExc(doc);
-        bodyString = bodyString.replace(winLineSeparator, unixLineSeparator);
-        bodyString = bodyString.replace(macLineSeparator, unixLineSeparator);
-        bodyString = bodyString.trim();
-        return bodyString;
+        return new String(getEncodedBytes(), Constants.rlcpDefaultCharset);
     }
 
     /**
-     * Returns length of String returned by {@code toString()} method.
+     * Returns raw representation of RlcpRequestBody, that is {@code toString()} encoded once
+     * and reused by all further calls.
      *
-     * @return length of String returned by {@code toString()} method
+     * @return read-only buffer with raw representation
+     */
+    public ByteBuffer getEncoded() {
+        return ByteBuffer.wrap(getEncodedBytes()).asReadOnlyBuffer();
+    }
+
+    /**
+     * Writes raw representation of RlcpRequestBody to byte stream.
+     *
+     * @param out stream to write to
+     * @throws IOException if an I/O error occurs
+     */
+    public void writeTo(OutputStream out) throws IOException {
+        out.write(getEncodedBytes());
+    }
+
+    /**
+     * Returns length of raw representation in bytes.
+     *
+     * @return length of raw representation in bytes
      */
     public int getContentLength() {
-        return toString().length();
+        return getEncodedBytes().length;
+    }
+
+    private byte[] getEncodedBytes() {
+        byte[] result = encoded;
+        if (result == null) {
+            Document doc = getDocument();
+            doc.addDocType(docTypeName, docTypePublicId, docTypeSystemId);
+            String bodyString = DomHelper.getPrettyOrCompactIfExc(doc);
+            bodyString = bodyString.replace(winLineSeparator, unixLineSeparator);
+            bodyString = bodyString.replace(macLineSeparator, unixLineSeparator);
+            bodyString = bodyString.trim();
+            result = bodyString.getBytes(Constants.rlcpDefaultCharset);
+            encoded = result;
+        }
+        return result;
     }
 }
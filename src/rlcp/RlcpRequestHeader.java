@@ -1,13 +1,17 @@
 package rlcp;
 
 import java.io.Serializable;
-import java.util.HashMap;
-import java.util.Map;
 
 import rlcp.exception.BadRlcpHeaderException;
+import rlcp.exception.BadRlcpUrlException;
 import rlcp.method.*;
+import rlcp.util.RlcpHeaderTokenizer;
 import rlcp.util.Util;
 
+import static rlcp.util.Constants.CHARSET_HEADER_FIELD;
+import static rlcp.util.Constants.CONTENT_LENGTH_HEADER_FIELD;
+import static rlcp.util.Constants.URL_HEADER_FIELD;
+import static rlcp.util.Constants.rlcpDefaultCharset;
 import static rlcp.util.Util.*;
 
 /**
@@ -52,8 +56,13 @@ public class RlcpRequestHeader implements Serializable {
         headerBuilder.append(method).append(winLineSeparator);
         headerBuilder.append("url:").append(url).append(winLineSeparator);
         headerBuilder.append("content-length:").append(contentLength).append(winLineSeparator);
+        //content-length counts bytes of this charset, that is what readers check the field for
+        headerBuilder.append(CHARSET_HEADER_FIELD).append(":").append(rlcpDefaultCharset.name()).append(winLineSeparator);
 
         for (String name : headerFields.getHeaderFieldNames()) {
+            if (name.equalsIgnoreCase(CHARSET_HEADER_FIELD)) {
+                continue;
+            }
             String value = headerFields.getHeaderFieldByName(name);
             headerBuilder.append(name).append(":").append(value).append(winLineSeparator);
         }
@@ -70,42 +79,61 @@ public class RlcpRequestHeader implements Serializable {
      */
     public static RlcpRequestHeader parse(String requestHeaderString, RlcpMethod method) throws BadRlcpHeaderException {
         checkStringNotNullNotEmpty(requestHeaderString);
+        return parse(requestHeaderString, 0, requestHeaderString.length(), method);
+    }
 
-        String lineSeparator = getLineSeparatorFor(requestHeaderString);
-
-        String[] headers = requestHeaderString.split(lineSeparator);
-
-        String parsedMethod = parseMethodHeaderField(headers[0], requestHeaderString);
+    /**
+     * Returns RlcpRequestHeader instance parsed from range of raw RlcpRequest. Range is parsed in
+     * place, without copying.
+     *
+     * @param source raw RlcpRequest representation
+     * @param start  index of the first character of header
+     * @param end    index following the last character of header
+     * @param method RlcpMethod instance
+     * @return parsed RlcpRequestHeader instance
+     * @throws BadRlcpHeaderException
+     * @throws IllegalArgumentException if range is empty or contains only line separators and whitespace
+     */
+    static RlcpRequestHeader parse(CharSequence source, int start, int end, RlcpMethod method) throws BadRlcpHeaderException {
+        if (Util.isBlank(source, start, end)) {
+            throw new IllegalArgumentException("empty String");
+        }
+        RlcpHeaderTokenizer tokenizer = new RlcpHeaderTokenizer(source, start, end);
+        tokenizer.nextLine();
+        if (!(tokenizer.lineEqualsIgnoreCase("check")
+                || tokenizer.lineEqualsIgnoreCase("generate")
+                || tokenizer.lineEqualsIgnoreCase("echo")
+                || tokenizer.lineEqualsIgnoreCase("calculate"))) {
+            throw new BadRlcpHeaderException("Wrong method called in " + source.subSequence(start, end));
+        }
 
         RlcpUrl parsedUrl = null;
         int parsedContentLength = 0;
-        Map<String, String> optionalHeaderFields = new HashMap<String, String>();
-        for (String header : headers) {
-            if (header.toLowerCase().startsWith("content-length:")) {
-                parsedContentLength = parseContentLengthHeaderField(header, requestHeaderString.toLowerCase());
-            } else if (header.startsWith("url:")) {
-                parsedUrl = parseUrlHeaderField(headers[1], requestHeaderString);
-            } else {
+        RlcpHeaderFieldsContainer optionalHeaderFields = new RlcpHeaderFieldsContainer();
+        while (tokenizer.nextLine()) {
+            if (tokenizer.isField(CONTENT_LENGTH_HEADER_FIELD)) {
                 try {
-                    String headerFieldName = parseHeaderFieldName(header);
-                    String headerFieldValue = parseNamedHeaderField(header, headerFieldName + ":");
-                    optionalHeaderFields.put(headerFieldName, headerFieldValue);
-                } catch (BadRlcpHeaderException brhe) {
+                    parsedContentLength = tokenizer.intValue();
+                } catch (NumberFormatException ex) {
+                    throw new BadRlcpHeaderException("content-length is not a number in " + source.subSequence(start, end), ex);
                 }
+            } else if (tokenizer.isField(URL_HEADER_FIELD)) {
+                try {
+                    parsedUrl = RlcpUrl.parse(tokenizer.value());
+                } catch (BadRlcpUrlException ex) {
+                    throw new BadRlcpHeaderException("RlcpUrl parse failed in " + source.subSequence(start, end), ex);
+                }
+            } else if (tokenizer.isField() && tokenizer.hasValue()) {
+                optionalHeaderFields.setHeaderField(tokenizer.name(), tokenizer.value());
             }
         }
 
         if (parsedUrl == null) {
-            throw new BadRlcpHeaderException("too few elements in " + requestHeaderString);
+            throw new BadRlcpHeaderException("too few elements in " + source.subSequence(start, end));
         }
 
         RlcpRequestHeader requestHeader = new RlcpRequestHeader(method, parsedUrl, parsedContentLength);
-        for (Map.Entry<String, String> entry : optionalHeaderFields.entrySet()) {
-            String name = entry.getKey();
-            String value = entry.getValue();
-            requestHeader.getOptionalHeaderFieldsContainer().setHeaderField(name, value);
-        }
-
+        requestHeader.headerFields = optionalHeaderFields;
         return requestHeader;
     }
 
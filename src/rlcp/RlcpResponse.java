@@ -1,8 +1,12 @@
 package rlcp;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.io.Serializable;
+import java.nio.charset.Charset;
 
 import rlcp.method.RlcpMethod;
+import rlcp.util.Constants;
 import rlcp.util.Util;
 
 /**
@@ -52,4 +56,22 @@ public abstract class RlcpResponse implements Serializable {
             return getHeader().toString();
         }
     }
+
+    /**
+     * Writes raw representation of RlcpResponse, that is equal to {@code toString()}, to byte
+     * stream. Body is written as it was serialized for content length, without serializing again.
+     *
+     * @param out stream to write to
+     * @throws IOException if an I/O error occurs
+     */
+    public void writeTo(OutputStream out) throws IOException {
+        Charset charset = Constants.rlcpDefaultCharset;
+        out.write(getHeader().toString().getBytes(charset));
+        if (getHeader().isSuccessful()) {
+            byte[] lineSeparator = Util.nativeLineSeparator.getBytes(charset);
+            out.write(lineSeparator);
+            getBody().writeTo(out);
+            out.write(lineSeparator);
+        }
+    }
 }
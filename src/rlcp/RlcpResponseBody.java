@@ -1,12 +1,24 @@
 package rlcp;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
 import java.io.Serializable;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+
 import org.dom4j.Document;
+import org.dom4j.io.OutputFormat;
+import org.dom4j.io.XMLWriter;
+import rlcp.exception.RlcpException;
 import rlcp.method.RlcpMethod;
-import rlcp.util.DomHelper;
+import rlcp.util.Constants;
+import rlcp.util.StreamingXmlWriter;
 
 /**
- * Interface for RlcpResponse body entity.
+ * Interface for RlcpResponse body entity. Body is serialized once, when its content length
+ * or raw representation is first requested; bodies must not change after that.
  */
 public abstract class RlcpResponseBody implements Serializable{
 
@@ -14,6 +26,8 @@ public abstract class RlcpResponseBody implements Serializable{
     private static final String docTypePublicId = null;
     private static final String docTypeSystemId = "http://de.ifmo.ru/--DTD/Response.dtd";
 
+    private transient volatile byte[] encoded;
+
     /**
      * Returns XML document representation of RlcpResponseBody.
      *
@@ -22,31 +36,95 @@ public abstract class RlcpResponseBody implements Serializable{
     public abstract Document getDocument();
 
     /**
-     * Returns XML document representation of RlcpRequestBody, converted to
-     * pretty printed String.
+     * Writes XML representation of RlcpResponseBody to character stream. This implementation
+     * builds XML document by {@code getDocument()}; implementations of RLCP methods write XML
+     * straight to the stream.
      *
-     * @return XML document representation of RlcpRequestBody, converted to
-     * pretty printed String
+     * @param writer  stream to write to
+     * @param compact {@code true} to write without indentation and line breaks
+     * @throws IOException if an I/O error occurs
      */
-    @Override
-    public String toString(){
+    public void write(Writer writer, boolean compact) throws IOException {
         Document doc = getDocument();
         doc.addDocType(docTypeName, docTypePublicId, docTypeSystemId);
-        return DomHelper.getPrettyOrCompactIfExc(doc);
+        XMLWriter xmlWriter = new XMLWriter(writer, compact ? OutputFormat.createCompactFormat() : OutputFormat.createPrettyPrint());
+        xmlWriter.write(doc);
+        xmlWriter.flush();
     }
 
     /**
-     * Returns length of String returned by {@code toString()} method.
+     * Returns XML writer with declaration and document type of response body written.
      *
-     * @return length of String returned by {@code toString()} method
+     * @param writer  stream to write to
+     * @param compact {@code true} to write without indentation and line breaks
+     * @return XML writer ready for root element
+     * @throws IOException if an I/O error occurs
+     */
+    protected static StreamingXmlWriter startDocument(Writer writer, boolean compact) throws IOException {
+        StreamingXmlWriter xmlWriter = new StreamingXmlWriter(writer, compact);
+        xmlWriter.writeDeclaration();
+        xmlWriter.writeDocType(docTypeName, docTypeSystemId);
+        return xmlWriter;
+    }
+
+    /**
+     * Writes raw representation of RlcpResponseBody to byte stream.
+     *
+     * @param out stream to write to
+     * @throws IOException if an I/O error occurs
+     */
+    public void writeTo(OutputStream out) throws IOException {
+        out.write(getEncodedBytes());
+    }
+
+    /**
+     * Returns raw representation of RlcpResponseBody, serialized once and reused by all
+     * further calls.
+     *
+     * @return read-only buffer with raw representation
+     */
+    public ByteBuffer getEncoded() {
+        return ByteBuffer.wrap(getEncodedBytes()).asReadOnlyBuffer();
+    }
+
+    /**
+     * Returns XML document representation of RlcpResponseBody, converted to String
+     * in format set by {@code Rlcp.setResponseFormat()}, pretty printed by default.
+     *
+     * @return XML document representation of RlcpResponseBody, converted to String
+     */
+    @Override
+    public String toString(){
+        return new String(getEncodedBytes(), Constants.rlcpDefaultCharset);
+    }
+
+    /**
+     * Returns length of raw representation in bytes.
+     *
+     * @return length of raw representation in bytes
      */
     public int getContentLength(){
-        return toString().length();
+        return getEncodedBytes().length;
     }
-    
+
     /**
      * Returns corresponding RlcpMethod instance.
      * @return corresponding RlcpMethod instance
      */
     public abstract RlcpMethod getMethod();
+
+    private byte[] getEncodedBytes() {
+        byte[] result = encoded;
+        if (result == null) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            try (Writer writer = new OutputStreamWriter(out, Constants.rlcpDefaultCharset)) {
+                write(writer, Rlcp.getResponseFormat() == Rlcp.ResponseFormat.COMPACT);
+            } catch (IOException ex) {
+                throw new RlcpException(ex);
+            }
+            result = out.toByteArray();
+            encoded = result;
+        }
+        return result;
+    }
 }
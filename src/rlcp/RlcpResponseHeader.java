@@ -1,15 +1,10 @@
 package rlcp;
 
-import java.io.BufferedReader;
-import java.io.IOException;
 import java.io.Serializable;
-import java.io.StringReader;
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
 
 import rlcp.exception.BadRlcpHeaderException;
+import rlcp.util.Constants;
+import rlcp.util.RlcpHeaderTokenizer;
 import rlcp.util.Util;
 
 /**
@@ -61,8 +56,13 @@ public class RlcpResponseHeader implements Serializable {
 
         headerBuilder.append(Util.nativeLineSeparator);
         headerBuilder.append("content-length:").append(contentLength).append(Util.nativeLineSeparator);
+        //content-length counts bytes of this charset, that is what readers check the field for
+        headerBuilder.append(Constants.CHARSET_HEADER_FIELD).append(":").append(Constants.rlcpDefaultCharset.name()).append(Util.nativeLineSeparator);
 
         for (String name : headerFields.getHeaderFieldNames()) {
+            if (name.equalsIgnoreCase(Constants.CHARSET_HEADER_FIELD)) {
+                continue;
+            }
             String value = headerFields.getHeaderFieldByName(name);
             headerBuilder.append(name).append(":").append(value).append(Util.nativeLineSeparator);
         }
@@ -79,58 +79,51 @@ public class RlcpResponseHeader implements Serializable {
      */
     public static RlcpResponseHeader parse(String responseHeaderString) throws BadRlcpHeaderException {
         Util.checkStringNotNullNotEmpty(responseHeaderString);
+        return parse(responseHeaderString, 0, responseHeaderString.length());
+    }
 
-        BufferedReader br = new BufferedReader(new StringReader(responseHeaderString));
-        boolean firstLineRead = false;
-        String firstLine = null;
-        List<String> headers = new ArrayList<String>();
-        try {
-            while (br.ready()) {
-                String line = br.readLine();
-                if (line == null) {
-                    break;
-                }
-                if (!firstLineRead) {
-                    firstLine = line;
-                    firstLineRead = true;
-                } else {
-                    headers.add(line);
-                }
-            }
-        } catch (IOException ex) {
-            //what could be wrong with StringBuilder
-            throw new BadRlcpHeaderException(ex);
+    /**
+     * Returns RlcpResponseHeader instance parsed from range of raw RlcpResponse. Range is parsed in
+     * place, without copying.
+     *
+     * @param source raw RlcpResponse representation
+     * @param start  index of the first character of header
+     * @param end    index following the last character of header
+     * @return parsed RlcpResponseHeader instance
+     * @throws BadRlcpHeaderException
+     * @throws IllegalArgumentException if range is empty or contains only line separators and whitespace
+     */
+    static RlcpResponseHeader parse(CharSequence source, int start, int end) throws BadRlcpHeaderException {
+        if (Util.isBlank(source, start, end)) {
+            throw new IllegalArgumentException("empty String");
         }
-
+        RlcpHeaderTokenizer tokenizer = new RlcpHeaderTokenizer(source, start, end);
+        tokenizer.nextLine();
         String parsedResponseCode, parsedErrors = null;
-        if (firstLine.contains(" ")) {
-            parsedResponseCode = firstLine.substring(0, firstLine.indexOf(" "));
-            parsedErrors = Util.omitLineSeparatorArtefacts(firstLine.substring(firstLine.indexOf(" ")));
+        int space = tokenizer.indexInLine(' ');
+        if (space >= 0) {
+            parsedResponseCode = tokenizer.lineTo(space);
+            parsedErrors = tokenizer.lineFrom(space);
         } else {
-            parsedResponseCode = Util.omitLineSeparatorArtefacts(firstLine);
+            parsedResponseCode = tokenizer.line();
         }
 
         int parsedContentLength = 0;
-        Map<String, String> optionalHeaderFields = new HashMap<String, String>();
-        for (String header : headers) {
-            if (header.toLowerCase().startsWith("content-length:")) {
-                parsedContentLength = Util.parseContentLengthHeaderField(header.toLowerCase(), responseHeaderString);
-            } else {
+        RlcpHeaderFieldsContainer optionalHeaderFields = new RlcpHeaderFieldsContainer();
+        while (tokenizer.nextLine()) {
+            if (tokenizer.isField(Constants.CONTENT_LENGTH_HEADER_FIELD)) {
                 try {
-                    String headerFieldName = Util.parseHeaderFieldName(header);
-                    String headerFieldValue = Util.parseNamedHeaderField(header, headerFieldName + ":");
-                    optionalHeaderFields.put(headerFieldName, headerFieldValue);
-                } catch (BadRlcpHeaderException brhe) {
+                    parsedContentLength = tokenizer.intValue();
+                } catch (NumberFormatException ex) {
+                    throw new BadRlcpHeaderException("content-length is not a number in " + source.subSequence(start, end), ex);
                 }
+            } else if (tokenizer.isField() && tokenizer.hasValue()) {
+                optionalHeaderFields.setHeaderField(tokenizer.name(), tokenizer.value());
             }
         }
 
         RlcpResponseHeader responseHeader = new RlcpResponseHeader(RlcpCode.getByCode(parsedResponseCode), parsedErrors, parsedContentLength);
-        for (Map.Entry<String, String> entry : optionalHeaderFields.entrySet()) {
-            String name = entry.getKey();
-            String value = entry.getValue();
-            responseHeader.getOptionalHeaderFieldsContainer().setHeaderField(name, value);
-        }
+        responseHeader.headerFields = optionalHeaderFields;
         return responseHeader;
     }
 
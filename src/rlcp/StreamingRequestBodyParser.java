@@ -0,0 +1,217 @@
+package rlcp;
+
+import org.xml.sax.Attributes;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.SAXParseException;
+import org.xml.sax.XMLReader;
+import org.xml.sax.ext.DefaultHandler2;
+import rlcp.calculate.RlcpCalculateRequestBody;
+import rlcp.check.ConditionForChecking;
+import rlcp.check.RlcpCheckRequestBody;
+import rlcp.exception.RlcpException;
+import rlcp.generate.GeneratingResult;
+import rlcp.generate.RlcpGenerateRequestBody;
+import rlcp.util.CharSequenceReader;
+import rlcp.util.DomHelper;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static rlcp.util.Constants.*;
+
+/**
+ * Single-pass SAX parser of RLCP-request bodies. Collects data of all request body types while
+ * reading raw body once, without building DOM document. Selects the same comments as XPath
+ * expressions of {@code Constants} evaluated on dom4j document: first non-empty comment in
+ * document order, comments of DTD are ignored, elements in namespaces do not match.
+ *
+ * @see Rlcp.RequestParser#STREAMING
+ */
+class StreamingRequestBodyParser extends DefaultHandler2 {
+
+    private static final String lexicalHandlerProperty = "http://xml.org/sax/properties/lexical-handler";
+
+    private final List<String> elementNames = new ArrayList<>();
+    private final List<RawCondition> elementConditions = new ArrayList<>();
+    private final List<RawCondition> conditionsForChecking = new ArrayList<>();
+    private boolean insideDtd = false;
+    private String conditionForGenerating;
+    private String conditionForCalculating;
+    private String instructions;
+    private String preGeneratedText;
+    private String preGeneratedCode;
+    private String preGeneratedInstructions;
+
+    private StreamingRequestBodyParser() {
+    }
+
+    /**
+     * Parses Generate request body.
+     *
+     * @param source raw request or request body
+     * @param start  index of the first character of body
+     * @param end    index following the last character of body
+     * @return parsed request body
+     * @throws RlcpException if raw body is not well-formed XML
+     */
+    static RlcpGenerateRequestBody parseGenerateRequestBody(CharSequence source, int start, int end) throws RlcpException {
+        return new RlcpGenerateRequestBody(parse(source, start, end).conditionForGenerating);
+    }
+
+    /**
+     * Parses Check request body.
+     *
+     * @param source raw request or request body
+     * @param start  index of the first character of body
+     * @param end    index following the last character of body
+     * @return parsed request body
+     * @throws RlcpException         if raw body is not well-formed XML
+     * @throws NumberFormatException if id or time limit of check unit is not a number
+     */
+    static RlcpCheckRequestBody parseCheckRequestBody(CharSequence source, int start, int end) throws RlcpException {
+        StreamingRequestBodyParser parser = parse(source, start, end);
+        List<ConditionForChecking> checkUnits = new ArrayList<>(parser.conditionsForChecking.size());
+        for (RawCondition condition : parser.conditionsForChecking) {
+            checkUnits.add(new ConditionForChecking(Integer.parseInt(condition.id), Long.parseLong(condition.time),
+                    condition.input, condition.output));
+        }
+        return new RlcpCheckRequestBody(checkUnits, parser.instructions, parser.getPreGenerated());
+    }
+
+    /**
+     * Parses Calculate request body.
+     *
+     * @param source raw request or request body
+     * @param start  index of the first character of body
+     * @param end    index following the last character of body
+     * @return parsed request body
+     * @throws RlcpException if raw body is not well-formed XML
+     */
+    static RlcpCalculateRequestBody parseCalculateRequestBody(CharSequence source, int start, int end) throws RlcpException {
+        StreamingRequestBodyParser parser = parse(source, start, end);
+        return new RlcpCalculateRequestBody(parser.conditionForCalculating, parser.instructions, parser.getPreGenerated());
+    }
+
+    private static StreamingRequestBodyParser parse(CharSequence source, int start, int end) throws RlcpException {
+        StreamingRequestBodyParser parser = new StreamingRequestBodyParser();
+        try {
+            XMLReader reader = DomHelper.getXMLReader();
+            reader.setContentHandler(parser);
+            reader.setErrorHandler(parser);
+            reader.setProperty(lexicalHandlerProperty, parser);
+            reader.parse(new InputSource(new CharSequenceReader(source, start, end)));
+        } catch (SAXException | IOException ex) {
+            throw new RlcpException(ex);
+        }
+        return parser;
+    }
+
+    private GeneratingResult getPreGenerated() {
+        if (preGeneratedText == null && preGeneratedCode == null && preGeneratedInstructions == null) {
+            return null;
+        }
+        return new GeneratingResult(preGeneratedText, preGeneratedCode, preGeneratedInstructions);
+    }
+
+    @Override
+    public void startElement(String uri, String localName, String qName, Attributes attributes) {
+        //elements in namespaces never match XPath steps without prefix
+        String name = uri.isEmpty() ? localName : null;
+        RawCondition condition = null;
+        if (CONDITION_FOR_CHECKING.equals(name)) {
+            condition = new RawCondition(attributes.getValue("", ID), attributes.getValue("", TIME));
+            conditionsForChecking.add(condition);
+        }
+        elementNames.add(name);
+        elementConditions.add(condition);
+    }
+
+    @Override
+    public void endElement(String uri, String localName, String qName) {
+        elementNames.remove(elementNames.size() - 1);
+        elementConditions.remove(elementConditions.size() - 1);
+    }
+
+    @Override
+    public void comment(char[] ch, int start, int length) {
+        //dom4j drops empty comments and comments of DTD
+        if (insideDtd || length == 0) {
+            return;
+        }
+        String parent = getAncestorName(0);
+        String grandParent = getAncestorName(1);
+        if (INPUT.equals(parent) && CONDITION_FOR_CHECKING.equals(grandParent)) {
+            RawCondition condition = elementConditions.get(elementConditions.size() - 2);
+            if (condition.input == null) {
+                condition.input = new String(ch, start, length);
+            }
+        } else if (OUTPUT.equals(parent) && CONDITION_FOR_CHECKING.equals(grandParent)) {
+            RawCondition condition = elementConditions.get(elementConditions.size() - 2);
+            if (condition.output == null) {
+                condition.output = new String(ch, start, length);
+            }
+        } else if (INPUT.equals(parent) && CONDITION_FOR_GENERATING.equals(grandParent) && CONDITIONS.equals(getAncestorName(2))) {
+            if (conditionForGenerating == null) {
+                conditionForGenerating = new String(ch, start, length);
+            }
+        } else if (INPUT.equals(parent) && CONDITION_FOR_CALCULATING.equals(grandParent) && CONDITIONS.equals(getAncestorName(2))) {
+            if (conditionForCalculating == null) {
+                conditionForCalculating = new String(ch, start, length);
+            }
+        } else if (PRE_GENERATED.equals(grandParent)) {
+            if (PRE_GENERATED_TEXT.equals(parent) && preGeneratedText == null) {
+                preGeneratedText = new String(ch, start, length);
+            } else if (PRE_GENERATED_CODE.equals(parent) && preGeneratedCode == null) {
+                preGeneratedCode = new String(ch, start, length);
+            } else if (PRE_GENERATED_INSTRUCTIONS.equals(parent) && preGeneratedInstructions == null) {
+                preGeneratedInstructions = new String(ch, start, length);
+            }
+        }
+        if (INSTRUCTIONS.equals(parent) && REQUEST.equals(grandParent) && elementNames.size() == 2 && instructions == null) {
+            instructions = new String(ch, start, length);
+        }
+    }
+
+    @Override
+    public void startDTD(String name, String publicId, String systemId) {
+        insideDtd = true;
+    }
+
+    @Override
+    public void endDTD() {
+        insideDtd = false;
+    }
+
+    @Override
+    public void error(SAXParseException ex) throws SAXException {
+        throw ex;
+    }
+
+    /**
+     * Returns name of currently open element.
+     *
+     * @param level 0 for innermost open element, 1 for its parent and so on
+     * @return element name, or {@code null} if there is no such element or it is in namespace
+     */
+    private String getAncestorName(int level) {
+        int index = elementNames.size() - 1 - level;
+        return index < 0 ? null : elementNames.get(index);
+    }
+
+    /**
+     * Check unit data as it is written in request body.
+     */
+    private static class RawCondition {
+        private final String id;
+        private final String time;
+        private String input;
+        private String output;
+
+        private RawCondition(String id, String time) {
+            this.id = id;
+            this.time = time;
+        }
+    }
+}
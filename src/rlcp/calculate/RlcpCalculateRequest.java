@@ -2,6 +2,8 @@ package rlcp.calculate;
 
 import java.io.IOException;
 import java.net.UnknownHostException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
 import rlcp.RlcpRequest;
 import rlcp.RlcpRequestBody;
@@ -95,4 +97,33 @@ public class RlcpCalculateRequest extends RlcpRequest {
     public RlcpCalculateResponse execute() throws RlcpException {
         return execute(0);
     }
+
+    /**
+     * Executes request asynchronously with specified executor.
+     *
+     * @param timeout   timeout for connection in milliseconds
+     * @param timeLimit time limit in milliseconds for whole execution, 0 means no limit
+     * @param executor  executor to run execution with, or {@code null} for shared default executor
+     * @return future of {@code RlcpCalculateResponse} instance for this method returned
+     * from RLCP-server
+     * @see RlcpCalculateResponse
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public CompletableFuture<RlcpCalculateResponse> executeAsync(int timeout, long timeLimit, Executor executor) {
+        return (CompletableFuture<RlcpCalculateResponse>) super.executeAsync(timeout, timeLimit, executor);
+    }
+
+    /**
+     * Executes request asynchronously with shared default executor, without
+     * time limit.
+     *
+     * @return future of {@code RlcpCalculateResponse} instance for this method returned
+     * from RLCP-server
+     * @see RlcpCalculateResponse
+     */
+    @Override
+    public CompletableFuture<RlcpCalculateResponse> executeAsync() {
+        return executeAsync(0, 0, null);
+    }
 }
@@ -1,5 +1,8 @@
 package rlcp.calculate;
 
+import java.io.IOException;
+import java.io.Writer;
+
 import org.dom4j.Document;
 import org.dom4j.DocumentHelper;
 import org.dom4j.Element;
@@ -7,6 +10,7 @@ import rlcp.RlcpResponseBody;
 import rlcp.method.Calculate;
 import rlcp.method.RlcpMethod;
 import rlcp.util.Constants;
+import rlcp.util.StreamingXmlWriter;
 
 import static rlcp.util.Constants.*;
 
@@ -50,6 +54,23 @@ public class RlcpCalculateResponseBody extends RlcpResponseBody {
         return document;
     }
 
+    /**
+     * Writes XML representation of RlcpCalculateResponseBody straight to character stream.
+     *
+     * @param writer  stream to write to
+     * @param compact {@code true} to write without indentation and line breaks
+     * @throws IOException if an I/O error occurs
+     */
+    @Override
+    public void write(Writer writer, boolean compact) throws IOException {
+        StreamingXmlWriter xmlWriter = startDocument(writer, compact);
+        xmlWriter.startElement(RESPONSE).startElement(CALCULATING_RESULT);
+        xmlWriter.startElement(PRE_GENERATED_TEXT).comment(calculatingResult.getText()).endElement();
+        xmlWriter.startElement(PRE_GENERATED_CODE).comment(calculatingResult.getCode()).endElement();
+        xmlWriter.endElement().endElement();
+        xmlWriter.endDocument();
+    }
+
     /**
      * Returns Calculate instance.
      *
@@ -1,6 +1,7 @@
 package rlcp.check;
 
 import java.io.Serializable;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Class for checking result entity. Unmodifiable.
@@ -9,6 +10,7 @@ public class CheckingResult implements Serializable {
 
     private int id;
     private long time;
+    private long timeInNanos;
     private String result;
     private String output;
 
@@ -20,8 +22,22 @@ public class CheckingResult implements Serializable {
      * @param output text comment
      */
     public CheckingResult(int id, long time, String result, String output) {
+        this(id, result, output, TimeUnit.MILLISECONDS.toNanos(time));
+    }
+
+    /**
+     * Constructor with elapsed time measured in nanoseconds. Time in milliseconds is rounded up,
+     * so that any positive time is at least 1 ms.
+     * @param id identifier
+     * @param result String representation of result. For example "1.0","0.0","0.55".
+     * @param output text comment
+     * @param timeInNanos elapsed time in nanoseconds
+     */
+    public CheckingResult(int id, String result, String output, long timeInNanos) {
         this.id = id;
-        this.time = time;
+        long timeInMillis = TimeUnit.NANOSECONDS.toMillis(timeInNanos);
+        this.time = TimeUnit.MILLISECONDS.toNanos(timeInMillis) < timeInNanos ? timeInMillis + 1 : timeInMillis;
+        this.timeInNanos = timeInNanos;
         this.result = result;
         this.output = output;
     }
@@ -42,6 +58,15 @@ public class CheckingResult implements Serializable {
         return time;
     }
 
+    /**
+     * Returns elapsed time in nanoseconds. Is known with sub-millisecond precision
+     * only on the server side, parsed results have millisecond precision.
+     * @return elapsed time in nanoseconds
+     */
+    public long getTimeInNanos() {
+        return timeInNanos;
+    }
+
     /**
      * Returns String representation of result. For example "1.0","0.0","0.55".
      * @return String representation of result
@@ -2,6 +2,8 @@ package rlcp.check;
 
 import java.io.IOException;
 import java.net.UnknownHostException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
 import rlcp.RlcpRequest;
 import rlcp.RlcpRequestBody;
@@ -96,4 +98,32 @@ public class RlcpCheckRequest extends RlcpRequest {
         return execute(0);
     }
 
+    /**
+     * Executes request asynchronously with specified executor.
+     *
+     * @param timeout   timeout for connection in milliseconds
+     * @param timeLimit time limit in milliseconds for whole execution, 0 means no limit
+     * @param executor  executor to run execution with, or {@code null} for shared default executor
+     * @return future of {@code RlcpCheckResponse} instance for this method returned
+     * from RLCP-server
+     * @see RlcpCheckResponse
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public CompletableFuture<RlcpCheckResponse> executeAsync(int timeout, long timeLimit, Executor executor) {
+        return (CompletableFuture<RlcpCheckResponse>) super.executeAsync(timeout, timeLimit, executor);
+    }
+
+    /**
+     * Executes request asynchronously with shared default executor, without
+     * time limit.
+     *
+     * @return future of {@code RlcpCheckResponse} instance for this method returned
+     * from RLCP-server
+     * @see RlcpCheckResponse
+     */
+    @Override
+    public CompletableFuture<RlcpCheckResponse> executeAsync() {
+        return executeAsync(0, 0, null);
+    }
 }
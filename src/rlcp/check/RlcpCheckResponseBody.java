@@ -1,5 +1,7 @@
 package rlcp.check;
 
+import java.io.IOException;
+import java.io.Writer;
 import java.util.Collections;
 import java.util.List;
 
@@ -10,6 +12,7 @@ import rlcp.RlcpResponseBody;
 import rlcp.method.Check;
 import rlcp.method.RlcpMethod;
 import rlcp.util.Constants;
+import rlcp.util.StreamingXmlWriter;
 
 import static rlcp.util.Constants.*;
 
@@ -73,6 +76,29 @@ public class RlcpCheckResponseBody extends RlcpResponseBody {
         return document;
     }
 
+    /**
+     * Writes XML representation of RlcpCheckResponseBody straight to character stream.
+     *
+     * @param writer  stream to write to
+     * @param compact {@code true} to write without indentation and line breaks
+     * @throws IOException if an I/O error occurs
+     */
+    @Override
+    public void write(Writer writer, boolean compact) throws IOException {
+        StreamingXmlWriter xmlWriter = startDocument(writer, compact);
+        xmlWriter.startElement(RESPONSE);
+        for (CheckingResult checkingResult : results) {
+            xmlWriter.startElement(CHECKING_RESULT)
+                    .attribute(ID, Integer.toString(checkingResult.getId()))
+                    .attribute(TIME, Long.toString(checkingResult.getTime()))
+                    .attribute(RESULT, checkingResult.getResult())
+                    .comment(checkingResult.getOutput())
+                    .endElement();
+        }
+        xmlWriter.endElement();
+        xmlWriter.endDocument();
+    }
+
     /**
      * Returns Check instance.
      *
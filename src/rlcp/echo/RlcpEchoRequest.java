@@ -12,6 +12,8 @@ import rlcp.method.RlcpMethod;
 
 import java.io.IOException;
 import java.net.UnknownHostException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
 public class RlcpEchoRequest extends RlcpRequest {
 
@@ -47,4 +49,15 @@ public class RlcpEchoRequest extends RlcpRequest {
     public RlcpEchoResponse execute() throws RlcpException {
         return execute(0);
     }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public CompletableFuture<RlcpEchoResponse> executeAsync(int timeout, long timeLimit, Executor executor) {
+        return (CompletableFuture<RlcpEchoResponse>) super.executeAsync(timeout, timeLimit, executor);
+    }
+
+    @Override
+    public CompletableFuture<RlcpEchoResponse> executeAsync() {
+        return executeAsync(0, 0, null);
+    }
 }
@@ -1,5 +1,7 @@
 package rlcp.echo;
 
+import java.io.Writer;
+
 import org.dom4j.Document;
 import org.dom4j.DocumentHelper;
 import rlcp.RlcpResponseBody;
@@ -19,8 +21,13 @@ public class RlcpEchoResponseBody extends RlcpResponseBody {
         return Echo.getInstance();
     }
 
+    /**
+     * Writes nothing: Echo response has no body.
+     *
+     * @param writer  stream to write to
+     * @param compact not used
+     */
     @Override
-    public String toString() {
-        return "";
+    public void write(Writer writer, boolean compact) {
     }
 }
@@ -2,6 +2,8 @@ package rlcp.generate;
 
 import java.io.IOException;
 import java.net.UnknownHostException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 import rlcp.RlcpRequest;
 import rlcp.RlcpRequestBody;
 import rlcp.RlcpRequestHeader;
@@ -94,4 +96,33 @@ public class RlcpGenerateRequest extends RlcpRequest {
     public RlcpGenerateResponse execute() throws RlcpException {
         return execute(0);
     }
+
+    /**
+     * Executes request asynchronously with specified executor.
+     *
+     * @param timeout   timeout for connection in milliseconds
+     * @param timeLimit time limit in milliseconds for whole execution, 0 means no limit
+     * @param executor  executor to run execution with, or {@code null} for shared default executor
+     * @return future of {@code RlcpGenerateResponse} instance for this method returned
+     * from RLCP-server
+     * @see RlcpGenerateResponse
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public CompletableFuture<RlcpGenerateResponse> executeAsync(int timeout, long timeLimit, Executor executor) {
+        return (CompletableFuture<RlcpGenerateResponse>) super.executeAsync(timeout, timeLimit, executor);
+    }
+
+    /**
+     * Executes request asynchronously with shared default executor, without
+     * time limit.
+     *
+     * @return future of {@code RlcpGenerateResponse} instance for this method returned
+     * from RLCP-server
+     * @see RlcpGenerateResponse
+     */
+    @Override
+    public CompletableFuture<RlcpGenerateResponse> executeAsync() {
+        return executeAsync(0, 0, null);
+    }
 }
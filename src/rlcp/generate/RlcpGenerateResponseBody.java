@@ -1,5 +1,8 @@
 package rlcp.generate;
 
+import java.io.IOException;
+import java.io.Writer;
+
 import org.dom4j.Document;
 import org.dom4j.DocumentHelper;
 import org.dom4j.Element;
@@ -7,6 +10,7 @@ import rlcp.RlcpResponseBody;
 import rlcp.method.Generate;
 import rlcp.method.RlcpMethod;
 import rlcp.util.Constants;
+import rlcp.util.StreamingXmlWriter;
 
 import static rlcp.util.Constants.*;
 
@@ -53,6 +57,24 @@ public class RlcpGenerateResponseBody extends RlcpResponseBody {
         return document;
     }
 
+    /**
+     * Writes XML representation of RlcpGenerateResponseBody straight to character stream.
+     *
+     * @param writer  stream to write to
+     * @param compact {@code true} to write without indentation and line breaks
+     * @throws IOException if an I/O error occurs
+     */
+    @Override
+    public void write(Writer writer, boolean compact) throws IOException {
+        StreamingXmlWriter xmlWriter = startDocument(writer, compact);
+        xmlWriter.startElement(RESPONSE).startElement(GENERATING_RESULT);
+        xmlWriter.startElement(PRE_GENERATED_TEXT).comment(generatingResult.getText()).endElement();
+        xmlWriter.startElement(PRE_GENERATED_CODE).comment(generatingResult.getCode()).endElement();
+        xmlWriter.startElement(PRE_GENERATED_INSTRUCTIONS).comment(generatingResult.getInstructions()).endElement();
+        xmlWriter.endElement().endElement();
+        xmlWriter.endDocument();
+    }
+
     /**
      * Returns Generate instance.
      * @return Generate instance
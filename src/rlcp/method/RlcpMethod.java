@@ -155,17 +155,19 @@ public abstract class RlcpMethod {
          * otherwise
          */
         public static RlcpMethod recognizeMethod(String raw) {
-            String rawInLower = raw.toLowerCase();
-            if (rawInLower.startsWith("check")) {
+            //requests start with method name, so they are recognized without lowercased copy of whole raw
+            if (raw.regionMatches(true, 0, "check", 0, 5)) {
                 return Check.getInstance();
-            } else if (rawInLower.startsWith("generate")) {
+            } else if (raw.regionMatches(true, 0, "generate", 0, 8)) {
                 return Generate.getInstance();
-            } else if (rawInLower.startsWith("calculate")) {
+            } else if (raw.regionMatches(true, 0, "calculate", 0, 9)) {
                 return Calculate.getInstance();
-            } else if (rawInLower.startsWith("echo")) {
+            } else if (raw.regionMatches(true, 0, "echo", 0, 4)) {
                 return Echo.getInstance();
             }
 
+            String rawInLower = raw.toLowerCase();
+
             if (rawInLower.contains("conditionforchecking")) {
                 return Check.getInstance();
             } else if (rawInLower.contains("conditionforgenerating")) {
@@ -0,0 +1,173 @@
+package rlcp.server;
+
+import rlcp.*;
+import rlcp.check.RlcpCheckResponse;
+import rlcp.exception.NotImplementedMethodException;
+import rlcp.exception.UnsupportedRlcpMethodException;
+import rlcp.server.config.Config;
+import rlcp.server.config.User;
+import rlcp.server.executor.FlowExecutors;
+import rlcp.server.logger.Logger;
+import rlcp.server.processor.factory.ProcessorFactoryContainer;
+import rlcp.util.Util;
+
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Class for raw request processing independent of transport. Parses raw request, authorizes
+ * it, executes corresponding {@code ServerMethod} and returns response that is to send to client.
+ * Thread-safe.
+ *
+ * @see ServerMethod
+ */
+public class RequestHandler {
+
+    private Config config;
+    private ProcessorFactoryContainer processorFactoryContainer;
+    private FlowExecutors flowExecutors;
+
+    /**
+     * Simple constructor. All params must not be null.
+     *
+     * @param config                    configuration
+     * @param processorFactoryContainer flow modules container
+     * @throws IllegalArgumentException if any parameter is null
+     */
+    public RequestHandler(Config config, ProcessorFactoryContainer processorFactoryContainer) throws IllegalArgumentException {
+        this(config, processorFactoryContainer, null);
+    }
+
+    /**
+     * Constructor with executors shared by request flows.
+     *
+     * @param config                    configuration (must not be {@code null})
+     * @param processorFactoryContainer flow modules container (must not be {@code null})
+     * @param flowExecutors             executors shared by request flows, or {@code null} for {@code FlowExecutors.getDefault()}
+     * @throws IllegalArgumentException if config or processorFactoryContainer is null
+     */
+    public RequestHandler(Config config, ProcessorFactoryContainer processorFactoryContainer, FlowExecutors flowExecutors) throws IllegalArgumentException {
+        Util.checkNotNull("Config or logicContainer is null in RequestHandler constructor", config, processorFactoryContainer);
+        this.config = config;
+        this.processorFactoryContainer = processorFactoryContainer;
+        this.flowExecutors = flowExecutors;
+    }
+
+    /**
+     * Processes raw request. Never throws exceptions: any failure is converted to failed response.
+     *
+     * @param serverInput raw request read from client
+     * @return response that is to send to client
+     */
+    public RlcpResponse handle(String serverInput) {
+        return handle(serverInput, false);
+    }
+
+    /**
+     * Processes raw request. Never throws exceptions: any failure is converted to failed response.
+     * If keep-alive is allowed and parsed request asks for it, response gets "connection:keep-alive"
+     * header field.
+     *
+     * @param serverInput      raw request read from client
+     * @param keepAliveAllowed {@code true} if connection may be kept open after response
+     * @return response that is to send to client
+     * @see RlcpHeaderFieldsContainer#isKeepAlive()
+     */
+    public RlcpResponse handle(String serverInput, boolean keepAliveAllowed) {
+        if (serverInputFailed(serverInput)) {
+            return createErrorResponse(RlcpCode.IncorrectRequest, "input failed");
+        }
+
+        RlcpRequest request;
+        try {
+            request = Rlcp.parseRequest(serverInput);
+        } catch (UnsupportedRlcpMethodException ex) {
+            Logger.log(ex);
+            return createErrorResponse(RlcpCode.UnsupportedMethod, "bad request");
+        } catch (NotImplementedMethodException ex) {
+            Logger.log(ex);
+            return createErrorResponse(RlcpCode.NotImplementedMethod, "bad request");
+        } catch (Exception ex) {
+            Logger.log(ex);
+            return createErrorResponse(RlcpCode.IncorrectRequest, "bad request");
+        }
+
+        RlcpResponse response = process(request);
+        if (keepAliveAllowed && request.getHeader().getOptionalHeaderFieldsContainer().isKeepAlive()) {
+            response.getHeader().getOptionalHeaderFieldsContainer().setKeepAlive();
+        }
+        return response;
+    }
+
+    private RlcpResponse process(RlcpRequest request) {
+        if (!authSuccessful(request)) {
+            return createErrorResponse(RlcpCode.AuthFailed, "authorization failed");
+        }
+        try {
+            ServerMethod method = ServerMethod.lookForMethod(request.getHeader().getMethod());
+            RlcpResponse response = method.execute(request, processorFactoryContainer.snapshot(), config, flowExecutors);
+            Logger.log("Request method " + method + " is executed");
+            return response;
+        } catch (RejectedExecutionException ex) {
+            return createErrorResponse(RlcpCode.Unavailable, request.getMethod() + " requests limit is reached");
+        } catch (Exception ex) {
+            Logger.log(ex);
+            return createErrorResponse(RlcpCode.Unavailable, "error processing " + request.getMethod() + " request");
+        }
+    }
+
+    /**
+     * Returns failed response with specified code and message.
+     *
+     * @param code    response code
+     * @param message error message
+     * @return failed response with specified code and message
+     */
+    public static RlcpResponse createErrorResponse(RlcpCode code, String message) {
+        Logger.log(message);
+        Logger.log("Request failed");
+        RlcpResponseHeader responseHeader = RlcpResponseHeader.createFailedHeader(code.getCode(), code.getMessage() + " - " + message);
+        return new RlcpCheckResponse(responseHeader, null);
+    }
+
+    /**
+     * Checks if raw request may be processed on fast lane reserved for cheap requests, that is
+     * served even when worker pool is saturated. Only ECHO requests are fast-lane requests.
+     *
+     * @param serverInput raw request or its beginning read from client
+     * @return {@code true} if raw request is ECHO request
+     */
+    public static boolean isFastLaneRequest(String serverInput) {
+        if (serverInput == null) {
+            return false;
+        }
+        int lineEnd = serverInput.indexOf('\n');
+        String methodLine = lineEnd < 0 ? serverInput : serverInput.substring(0, lineEnd);
+        return methodLine.trim().equalsIgnoreCase(ServerMethod.ECHO.name());
+    }
+
+    private boolean serverInputFailed(String serverInput) {
+        return serverInput == null || serverInput.isEmpty();
+    }
+
+    private boolean authSuccessful(RlcpRequest request) {
+        if (config.isPublicAuthAllowed()) {
+            return true;
+        }
+        RlcpUrl url = request.getHeader().getUrl();
+        return authorize(url.getLogin(), url.getPassword());
+    }
+
+    private boolean authorize(String urlLogin, String urlPassword) {
+        for (User user : config.getUsers()) {
+            if (singleAuthSuccess(user, urlLogin, urlPassword)) {
+                Logger.log("auth success. Login:" + urlLogin);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean singleAuthSuccess(User user, String login, String password) {
+        return user.getLogin().equals(login) && user.getPassword().equals(password);
+    }
+}
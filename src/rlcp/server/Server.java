@@ -3,22 +3,41 @@ package rlcp.server;
 import java.io.IOException;
 import java.net.ServerSocket;
 import java.net.Socket;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
 
+import rlcp.RlcpCode;
 import rlcp.server.config.Config;
 import rlcp.server.config.ConfigParser;
+import rlcp.server.config.ConnectionConfig;
+import rlcp.server.executor.FlowExecutors;
+import rlcp.server.executor.ServerExecutor;
+import rlcp.server.executor.WorkerThreads;
 import rlcp.server.logger.Logger;
+import rlcp.server.nio.NioServer;
 import rlcp.server.processor.factory.ProcessorFactoryContainer;
 import rlcp.util.Util;
 
+import static rlcp.util.Constants.rlcpDefaultFastLaneThreads;
+
 /**
  * RLCP-server class.
  */
 public class Server implements Runnable {
 
     private ProcessorFactoryContainer processorFactoryContainer;
+    private Function<Config, ServerExecutor> executorFactory;
     private String configPath;
-    private boolean isRunning = false;
+    private volatile boolean isRunning = false;
     private ServerSocket serverSocket;
+    private ServerExecutor executor;
+    private ThreadPoolExecutor fastLaneExecutor;
+    private volatile FlowExecutors flowExecutors;
+    private RequestHandler requestHandler;
+    private volatile NioServer nioServer;
     private Thread runningThread = null;
 
     /**
@@ -29,25 +48,41 @@ public class Server implements Runnable {
      * @throws IllegalArgumentException if logicContainer is {@code null}
      */
     public Server(String configPath, ProcessorFactoryContainer processorFactoryContainer) throws IllegalArgumentException {
-        Util.checkNotNull("logicConatainer is null in Server constructor", processorFactoryContainer);
+        this(configPath, processorFactoryContainer, ServerExecutor::create);
+    }
+
+    /**
+     * Constructor with custom execution model of accepted connections.
+     *
+     * @param configPath                configuration file path
+     * @param processorFactoryContainer flow modules container (must not be {@code null})
+     * @param executorFactory           builds ServerExecutor from configuration (must not be {@code null})
+     * @throws IllegalArgumentException if processorFactoryContainer or executorFactory is {@code null}
+     */
+    public Server(String configPath, ProcessorFactoryContainer processorFactoryContainer, Function<Config, ServerExecutor> executorFactory) throws IllegalArgumentException {
+        Util.checkNotNull("logicConatainer or executorFactory is null in Server constructor", processorFactoryContainer, executorFactory);
         this.configPath = configPath;
         this.processorFactoryContainer = processorFactoryContainer;
+        this.executorFactory = executorFactory;
     }
 
     /**
      * This method reads config(or uses default one if error occured) and starts
-     * multi-threaded server.
+     * multi-threaded server. Blocking or non-blocking front end is chosen by
+     * {@code ConnectionConfig.getIoMode()}.
      */
     public void run() {
         isRunning = true;
         Config config = ConfigParser.readConfigFromFileOrGetDefaults(configPath);
         config.printOut();
+        executor = executorFactory.apply(config);
+        flowExecutors = FlowExecutors.create(config);
+        requestHandler = new RequestHandler(config, processorFactoryContainer, flowExecutors);
         try {
-            serverSocket = new ServerSocket(config.getPort());
-            while (isRunning()) {
-                Socket socket = serverSocket.accept();
-
-                new ServerThread(socket, config, processorFactoryContainer).start();
+            if (config.getConnectionConfig().getIoMode() == ConnectionConfig.IoMode.NIO) {
+                runNonBlocking(config);
+            } else {
+                runBlocking(config);
             }
         } catch (Exception e) {
             if (!isRunning()) {
@@ -57,11 +92,67 @@ public class Server implements Runnable {
                 isRunning = false;
                 Logger.log(e);
             }
+        } finally {
+            executor.drain();
+            if (nioServer != null) {
+                nioServer.close();
+            }
+            flowExecutors.shutdown();
         }
     }
 
+    /**
+     * Accepts connections and passes them to worker pool. Request method is not known before
+     * request is read, so connections rejected by saturated worker pool go to small fast lane
+     * pool, that answers ECHO requests only.
+     */
+    private void runBlocking(Config config) throws IOException {
+        serverSocket = new ServerSocket(config.getPort());
+        fastLaneExecutor = new ThreadPoolExecutor(0, rlcpDefaultFastLaneThreads,
+                60, TimeUnit.SECONDS,
+                new SynchronousQueue<Runnable>(),
+                WorkerThreads.factory(config.getExecutionConfig().getThreadMode(), "rlcp-fast-lane-"));
+        try {
+            while (isRunning()) {
+                Socket socket = serverSocket.accept();
+
+                ServerThread serverThread = new ServerThread(socket, config, requestHandler);
+                if (!executor.tryExecute(serverThread)) {
+                    runOnFastLane(serverThread);
+                }
+            }
+        } finally {
+            fastLaneExecutor.shutdown();
+        }
+    }
+
+    private void runOnFastLane(ServerThread serverThread) {
+        try {
+            fastLaneExecutor.execute(serverThread::runFastLane);
+        } catch (RejectedExecutionException e) {
+            serverThread.reject(RlcpCode.Unavailable, "server is overloaded");
+        }
+    }
+
+    private void runNonBlocking(Config config) {
+        nioServer = new NioServer(config, requestHandler, executor);
+        if (isRunning()) {
+            nioServer.run();
+        }
+        if (!isRunning()) {
+            Logger.log("Server Stopped.");
+        }
+    }
+
+    /**
+     * Stops accepting new connections. Already accepted ones are processed within
+     * worker pool drain time limit.
+     */
     public void stop() {
         isRunning = false;
+        if (nioServer != null) {
+            nioServer.stop();
+        }
         if (serverSocket != null) {
             try {
                 serverSocket.close();
@@ -72,6 +163,18 @@ public class Server implements Runnable {
 
     }
 
+    /**
+     * Returns number of request flows and check units that were cancelled after their time
+     * limit but keep running, ignoring interruption. Such tasks waste server CPU; non-zero
+     * value means some processor does not respond to interruption.
+     *
+     * @return number of cancelled but still running tasks, 0 if server is not started
+     */
+    public int getRunawayTaskCount() {
+        FlowExecutors executors = flowExecutors;
+        return executors == null ? 0 : executors.getSupervisor().getRunawayTaskCount();
+    }
+
     private boolean isRunning() {
         return isRunning;
     }
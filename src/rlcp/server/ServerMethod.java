@@ -6,6 +6,7 @@ import rlcp.exception.BadRlcpRequestException;
 import rlcp.exception.UnsupportedRlcpMethodException;
 import rlcp.method.*;
 import rlcp.server.config.Config;
+import rlcp.server.executor.FlowExecutors;
 import rlcp.server.flow.*;
 import rlcp.server.processor.factory.ProcessorFactoryContainer;
 
@@ -19,51 +20,33 @@ public enum ServerMethod {
     /**
      * RLCP-server implementation for Check method.
      */
-    CHECK(Check.getInstance()) {
-        @Override
-        public RlcpRequestFlow getFlow() {
-            return new RlcpCheckFlow();
-        }
-    },
+    CHECK(Check.getInstance(), new RlcpCheckFlow()),
     /**
      * RLCP-server implementation for Calculate method.
      */
-    CALCULATE(Calculate.getInstance()) {
-        @Override
-        public RlcpRequestFlow getFlow() {
-            return new RlcpCalculateFlow();
-        }
-    },
+    CALCULATE(Calculate.getInstance(), new RlcpCalculateFlow()),
     /**
      * RLCP-server implementation for Generate method.
      */
-    ECHO(Echo.getInstance()) {
-        @Override
-        public RlcpRequestFlow getFlow() {
-            return new RlcpEchoFlow();
-        }
-    },
+    ECHO(Echo.getInstance(), new RlcpEchoFlow()),
 
-    GENERATE(Generate.getInstance()) {
-        @Override
-        public RlcpRequestFlow getFlow() {
-            return new RlcpGenerateFlow();
-        }
-    },
+    GENERATE(Generate.getInstance(), new RlcpGenerateFlow()),
     /**
      * RLCP-server implementation for invalid method. Used for exceptions and
      * unrecognized requests.
      */
-    INVALID(null) {
+    INVALID(null, null) {
         @Override
         public RlcpRequestFlow getFlow() {
             throw new UnsupportedRlcpMethodException("INVALID.getFlow will never be supported");
         }
     };
     private RlcpMethod method;
+    private RlcpRequestFlow flow;
 
-    private ServerMethod(RlcpMethod method) {
+    private ServerMethod(RlcpMethod method, RlcpRequestFlow flow) {
         this.method = method;
+        this.flow = flow;
     }
 
     /**
@@ -77,17 +60,33 @@ public enum ServerMethod {
      * @throws Exception
      */
     public RlcpResponse execute(RlcpRequest rlcpRequest, ProcessorFactoryContainer processorFactoryContainer, Config config) throws Exception {
+        return execute(rlcpRequest, processorFactoryContainer, config, null);
+    }
+
+    /**
+     * Processes rlcpRequest using logicContainer and executors shared by flows of the server.
+     *
+     * @param rlcpRequest               rlcpRequest.
+     * @param processorFactoryContainer logiccontainer.
+     * @param config                    server config
+     * @param flowExecutors             executors shared by flows, or {@code null} for {@code FlowExecutors.getDefault()}
+     * @return rlcpResponse instance
+     * @throws Exception
+     */
+    public RlcpResponse execute(RlcpRequest rlcpRequest, ProcessorFactoryContainer processorFactoryContainer, Config config, FlowExecutors flowExecutors) throws Exception {
         checkRequestMethodIsSameAsExpected(this, rlcpRequest);
-        RlcpResponse rlcpResponse = getFlow().processRequest(rlcpRequest, processorFactoryContainer, config);
+        RlcpResponse rlcpResponse = getFlow().processRequest(rlcpRequest, processorFactoryContainer, config, flowExecutors);
         return rlcpResponse;
     }
 
     /**
-     * Return flow of requests
+     * Return flow of requests. Flow is stateless and shared by all requests of the method.
      *
      * @return flow of requests
      */
-    public abstract RlcpRequestFlow getFlow();
+    public RlcpRequestFlow getFlow() {
+        return flow;
+    }
 
     /**
      * Returns ServerMethod instance with specified name (ignoring case) or {@code ServerMethod.INVALID}
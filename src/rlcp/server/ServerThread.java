@@ -1,25 +1,54 @@
 package rlcp.server;
 
+import java.io.BufferedOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 import rlcp.*;
-import rlcp.check.RlcpCheckResponse;
-import rlcp.exception.NotImplementedMethodException;
-import rlcp.exception.UnsupportedRlcpMethodException;
+import rlcp.exception.BadRlcpBodyException;
+import rlcp.exception.BadRlcpHeaderException;
 import rlcp.server.config.Config;
-import rlcp.server.config.User;
+import rlcp.server.config.ConnectionConfig;
+import rlcp.server.config.ExecutionConfig.ThreadMode;
+import rlcp.server.executor.WorkerThreads;
 import rlcp.server.logger.Logger;
 import rlcp.server.processor.factory.ProcessorFactoryContainer;
+import rlcp.util.Constants;
+import rlcp.util.RlcpFrameReader;
 import rlcp.util.Util;
 
 /**
- * Class for single request processing thread.
+ * Class for single request processing task. It is run by {@code ServerExecutor}.
+ *
+ * @see rlcp.server.executor.ServerExecutor
+ * @see ServerThreadAdapter
  */
-public class ServerThread extends Thread {
+public class ServerThread implements Runnable {
+
+    private static final long rejectDrainTimeLimitInMillis = 500;
+    private static final int rejectDrainThreads = 2;
+    private static final int rejectDrainQueueSize = 64;
+    /**
+     * Drains input of rejected connections, so that thread that rejects them never waits for
+     * client. Connections that do not fit into its queue are closed right away.
+     */
+    private static final ExecutorService rejectDrainExecutor = new ThreadPoolExecutor(0, rejectDrainThreads,
+            60, TimeUnit.SECONDS,
+            new ArrayBlockingQueue<Runnable>(rejectDrainQueueSize),
+            WorkerThreads.factory(ThreadMode.PLATFORM, "rlcp-reject-drain-"));
+    private static final int outputBufferSize = 8 * 1024;
 
     private Socket socket;
-    private Config config;
-    private ProcessorFactoryContainer processorFactoryContainer;
+    private ConnectionConfig connectionConfig;
+    private RequestHandler requestHandler;
+    private RlcpFrameReader frameReader;
+    private OutputStream outputStream;
 
     /**
      * Simple constructor. All params must not be null.
@@ -33,62 +62,136 @@ public class ServerThread extends Thread {
     public ServerThread(Socket socket, Config config, ProcessorFactoryContainer processorFactoryContainer) throws IllegalArgumentException {
         Util.checkNotNull("Socket, config or logicContainer is null in ServerThread constructor", config, processorFactoryContainer, socket);
         this.socket = socket;
-        this.config = config;
-        this.processorFactoryContainer = processorFactoryContainer;
+        this.connectionConfig = config.getConnectionConfig();
+        this.requestHandler = new RequestHandler(config, processorFactoryContainer);
+    }
+
+    /**
+     * Constructor with request handler shared by connections. All params must not be null.
+     *
+     * @param socket         socket instance
+     * @param config         configuration
+     * @param requestHandler handler of requests read from socket
+     * @throws IllegalArgumentException if any parameter is null
+     */
+    public ServerThread(Socket socket, Config config, RequestHandler requestHandler) throws IllegalArgumentException {
+        Util.checkNotNull("Socket, config or requestHandler is null in ServerThread constructor", config, requestHandler, socket);
+        this.socket = socket;
+        this.connectionConfig = config.getConnectionConfig();
+        this.requestHandler = requestHandler;
     }
 
     /**
-     * Request processing method.
+     * Request processing method. If request asks to keep connection alive and configuration
+     * allows it, next requests are read from the same connection until client closes it or
+     * keep-alive time limit expires.
      */
     @Override
     public void run() {
 
         Logger.log("Request...");
 
+        boolean keepAlive;
         String serverInput = tryToReadServerInput();
-        if (serverInputFailed(serverInput)) {
-            handleError(RlcpCode.IncorrectRequest, "input failed");
-            return;
-        }
+        do {
+            RlcpResponse response = requestHandler.handle(serverInput, connectionConfig.isKeepAliveAllowed());
+            keepAlive = response.getHeader().getOptionalHeaderFieldsContainer().isKeepAlive();
+            try {
+                sendResponse(response, keepAlive);
+                if (response.getHeader().isSuccessful()) {
+                    Logger.log("Request is complete");
+                }
+            } catch (IOException ex) {
+                Logger.log(ex);
+                keepAlive = false;
+            }
+        } while (keepAlive && nextRequestIncoming() && (serverInput = tryToReadServerInput()) != null);
+        socketClose();
+    }
 
-        RlcpRequest request = null;
+    /**
+     * Fast lane processing method, used when worker pool is saturated. Reads single request and
+     * processes it only if it is ECHO request; any other request is answered with
+     * {@code RlcpCode.Unavailable}. Connection is closed after response.
+     *
+     * @see RequestHandler#isFastLaneRequest(String)
+     */
+    public void runFastLane() {
+        Logger.log("Fast lane request...");
+
+        String serverInput = tryToReadServerInput();
+        RlcpResponse response = RequestHandler.isFastLaneRequest(serverInput)
+                ? requestHandler.handle(serverInput)
+                : RequestHandler.createErrorResponse(RlcpCode.Unavailable, "server is overloaded");
         try {
-            request = Rlcp.parseRequest(serverInput);
-        } catch (UnsupportedRlcpMethodException ex) {
-            Logger.log(ex);
-            handleError(RlcpCode.UnsupportedMethod, "bad request");
-            return;
-        } catch (NotImplementedMethodException ex) {
+            sendResponse(response);
+        } catch (IOException ex) {
             Logger.log(ex);
-            handleError(RlcpCode.NotImplementedMethod, "bad request");
-            return;
-        } catch (Exception ex) {
+        }
+        socketClose();
+    }
+
+    /**
+     * Answers client with error without reading and processing its request. Used when
+     * server can not process the connection, for example when worker pool is saturated.
+     * Unread request is drained and connection is closed in background, so this method does not
+     * wait for client.
+     *
+     * @param code    response code
+     * @param message error message
+     */
+    public void reject(RlcpCode code, String message) {
+        try {
+            sendResponse(RequestHandler.createErrorResponse(code, message));
+            socket.shutdownOutput();
+        } catch (IOException ex) {
             Logger.log(ex);
-            handleError(RlcpCode.IncorrectRequest, "bad request");
+            socketClose();
             return;
         }
-
-        if (!authSuccessful(request)) {
-            handleError(RlcpCode.AuthFailed, "authorization failed");
-        } else if (!executeRlcpRequest(request)) {
-            handleError(RlcpCode.Unavailable, "error processing " + request.getMethod() + " request");
-        } else {
+        try {
+            rejectDrainExecutor.execute(this::discardUnreadInputAndClose);
+        } catch (RejectedExecutionException ex) {
             socketClose();
-            Logger.log("Request is complete");
         }
     }
 
-    private boolean serverInputFailed(String serverInput) {
-        return serverInput == null || serverInput.isEmpty();
+    private void discardUnreadInputAndClose() {
+        try {
+            discardUnreadInput();
+        } catch (IOException ex) {
+            Logger.log(ex);
+        }
+        socketClose();
+    }
+
+    /**
+     * Reads and drops request bytes sent by client. Closing socket with unread input resets
+     * connection, and client may lose response written before.
+     */
+    private void discardUnreadInput() throws IOException {
+        long deadline = System.currentTimeMillis() + rejectDrainTimeLimitInMillis;
+        socket.setSoTimeout((int) rejectDrainTimeLimitInMillis);
+        byte[] buffer = new byte[4096];
+        try {
+            while (System.currentTimeMillis() < deadline && socket.getInputStream().read(buffer) >= 0) {
+            }
+        } catch (SocketTimeoutException ex) {
+        }
     }
 
     private String tryToReadServerInput() {
         Logger.log("Input incoming...");
         String input = null;
         try {
-            input = Util.readSocketInputUntilInputShutdown(socket);
+            socket.setSoTimeout((int) (connectionConfig.getReadTimeLimit() * 1000));
+            if (connectionConfig.getFraming() == ConnectionConfig.Framing.SHUTDOWN) {
+                input = Util.readSocketInputUntilInputShutdown(socket);
+            } else {
+                input = getFrameReader().readFrame();
+            }
             Logger.log("Input was read");
-        } catch (IOException ex) {
+        } catch (IOException | BadRlcpHeaderException | BadRlcpBodyException ex) {
             Logger.log(ex);
         }
 
@@ -97,63 +200,61 @@ public class ServerThread extends Thread {
 
     }
 
-    private boolean executeRlcpRequest(RlcpRequest request) {
-        boolean isSuccessful = false;
+    /**
+     * Waits for next request on keep-alive connection.
+     *
+     * @return {@code true} if next request is incoming, {@code false} if client closed connection
+     * or keep-alive time limit expired
+     */
+    private boolean nextRequestIncoming() {
         try {
-            ServerMethod method = ServerMethod.lookForMethod(request.getHeader().getMethod());
-            executeMethodForRequest(method, request);
-            isSuccessful = true;
-        } catch (Exception ex) {
-            Logger.log(ex);
-        }
-        return isSuccessful;
-    }
-
-    private boolean authSuccessful(RlcpRequest request) {
-        if (config.isPublicAuthAllowed()) {
-            return true;
-        }
-        RlcpUrl url = request.getHeader().getUrl();
-        return authorize(url.getLogin(), url.getPassword());
-    }
-
-    private boolean authorize(String urlLogin, String urlPassword) {
-        for (User user : config.getUsers()) {
-            if (singleAuthSuccess(user, urlLogin, urlPassword)) {
-                Logger.log("auth success. Login:" + urlLogin);
+            socket.setSoTimeout((int) (connectionConfig.getKeepAliveTimeLimit() * 1000));
+            if (getFrameReader().hasNextFrame()) {
+                Logger.log("Next request on keep-alive connection...");
                 return true;
             }
+            Logger.log("Keep-alive connection is closed by client");
+        } catch (SocketTimeoutException ex) {
+            Logger.log("Keep-alive connection is idle, closing");
+        } catch (IOException ex) {
+            Logger.log(ex);
         }
         return false;
     }
 
-    private boolean singleAuthSuccess(User user, String login, String password) {
-        return user.getLogin().equals(login) && user.getPassword().equals(password);
+    private RlcpFrameReader getFrameReader() throws IOException {
+        if (frameReader == null) {
+            frameReader = new RlcpFrameReader(socket.getInputStream(), Constants.rlcpDefaultCharset,
+                    connectionConfig.getMaxHeaderSize(), connectionConfig.getMaxBodySize());
+        }
+        return frameReader;
     }
 
-    private void executeMethodForRequest(ServerMethod method, RlcpRequest rlcpRequest) throws Exception {
-        RlcpResponse rlcpResponse = method.execute(rlcpRequest, processorFactoryContainer, config);
-        sendResponse(rlcpResponse);
-        Logger.log("Request method " + method + " is executed");
+    private void sendResponse(RlcpResponse response) throws IOException {
+        sendResponse(response, false);
     }
 
-    private void sendResponse(RlcpResponse response) throws IOException {
+    /**
+     * Writes response to client through buffer of the connection. On keep-alive connection failed response,
+     * that consists of header only, is terminated with empty line, so that client could find its end without
+     * waiting for connection close.
+     */
+    private void sendResponse(RlcpResponse response, boolean keepAlive) throws IOException {
         Logger.log("Output sending...");
-        Logger.log(Util.nativeLineSeparator + response.toString());
-        socket.getOutputStream().write(response.toString().getBytes());
+        Logger.log(Util.nativeLineSeparator + response);
+        OutputStream out = getOutputStream();
+        response.writeTo(out);
+        if (keepAlive && !response.getHeader().isSuccessful()) {
+            out.write(Util.nativeLineSeparator.getBytes(Constants.rlcpDefaultCharset));
+        }
+        out.flush();
     }
 
-    private void handleError(RlcpCode code, String message) {
-        try {
-            RlcpResponseHeader responseHeader = RlcpResponseHeader.createFailedHeader(code.getCode(), code.getMessage() + " - " + message);
-            RlcpResponse response = new RlcpCheckResponse(responseHeader, null);
-            sendResponse(response);
-        } catch (IOException ex) {
-            Logger.log(ex);
+    private OutputStream getOutputStream() throws IOException {
+        if (outputStream == null) {
+            outputStream = new BufferedOutputStream(socket.getOutputStream(), outputBufferSize);
         }
-        Logger.log(message);
-        Logger.log("Request failed");
-        socketClose();
+        return outputStream;
     }
 
     private void socketClose() {
@@ -174,8 +275,4 @@ public class ServerThread extends Thread {
         } catch (Exception ex) {
         }
     }
-
-    private static String getRawMethod(String serverInput) {
-        return serverInput.substring(0, serverInput.indexOf(Util.nativeLineSeparator)).toUpperCase();
-    }
 }
@@ -0,0 +1,37 @@
+package rlcp.server;
+
+import java.net.Socket;
+import rlcp.server.config.Config;
+import rlcp.server.processor.factory.ProcessorFactoryContainer;
+
+/**
+ * Thread of its own for single connection, for code that started {@code ServerThread} as thread
+ * before it became a task.
+ *
+ * @deprecated run {@code ServerThread} by {@code ServerExecutor} or wrap it in a thread instead
+ */
+@Deprecated
+public class ServerThreadAdapter extends Thread {
+
+    private final ServerThread serverThread;
+
+    /**
+     * Simple constructor. All params must not be null.
+     *
+     * @param socket                    socket instance
+     * @param config                    configuration
+     * @param processorFactoryContainer logicContainer
+     * @throws IllegalArgumentException if any parameter is null
+     */
+    public ServerThreadAdapter(Socket socket, Config config, ProcessorFactoryContainer processorFactoryContainer) throws IllegalArgumentException {
+        this.serverThread = new ServerThread(socket, config, processorFactoryContainer);
+    }
+
+    /**
+     * Request processing method.
+     */
+    @Override
+    public void run() {
+        serverThread.run();
+    }
+}
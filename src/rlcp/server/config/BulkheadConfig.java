@@ -0,0 +1,71 @@
+package rlcp.server.config;
+
+import static rlcp.util.Constants.rlcpDefaultFlowConcurrency;
+import static rlcp.util.Constants.rlcpDefaultFlowQueueSize;
+
+/**
+ * Class for storing limits of simultaneous requests of one RLCP method. Requests above
+ * concurrency wait in queue; requests that do not fit in queue are rejected with
+ * {@code RlcpCode.Unavailable}. Unmodifiable.
+ *
+ * @see ExecutionConfig#getBulkheadConfig(String)
+ */
+public class BulkheadConfig {
+
+    private static final BulkheadConfig defaultConfig = new BulkheadConfig(rlcpDefaultFlowConcurrency, rlcpDefaultFlowQueueSize);
+
+    private final int concurrency;
+    private final int queueSize;
+
+    /**
+     * Simple constructor.
+     *
+     * @param concurrency maximum number of simultaneously processed requests
+     * @param queueSize   maximum number of requests waiting for processing
+     * @throws IllegalArgumentException if concurrency is not positive or queueSize is negative
+     */
+    public BulkheadConfig(int concurrency, int queueSize) throws IllegalArgumentException {
+        if (concurrency <= 0 || queueSize < 0) {
+            throw new IllegalArgumentException("Bad bulkhead configuration: concurrency " + concurrency + ", queue size " + queueSize);
+        }
+        this.concurrency = concurrency;
+        this.queueSize = queueSize;
+    }
+
+    /**
+     * Returns default bulkhead configuration.
+     *
+     * @return default bulkhead configuration
+     */
+    public static BulkheadConfig getDefault() {
+        return defaultConfig;
+    }
+
+    /**
+     * Returns maximum number of simultaneously processed requests.
+     *
+     * @return maximum number of simultaneously processed requests
+     */
+    public int getConcurrency() {
+        return concurrency;
+    }
+
+    /**
+     * Returns maximum number of requests waiting for processing.
+     *
+     * @return maximum number of requests waiting for processing
+     */
+    public int getQueueSize() {
+        return queueSize;
+    }
+
+    /**
+     * Returns String representation for logging.
+     *
+     * @return String representation for logging
+     */
+    @Override
+    public String toString() {
+        return "concurrency=" + concurrency + ", queue=" + queueSize;
+    }
+}
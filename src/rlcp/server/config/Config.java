@@ -16,6 +16,9 @@ public class Config {
 
     private final long requestFlowTimeLimit;
     private final long checkUnitTimeLimit;
+    private final WorkerPoolConfig workerPoolConfig;
+    private final ConnectionConfig connectionConfig;
+    private final ExecutionConfig executionConfig;
     private List<User> users;
     private int port;
 
@@ -27,11 +30,29 @@ public class Config {
      * @param checkUnitTimeLimit
      */
     public Config(int port, List<User> users, long requestFlowTimeLimit, long checkUnitTimeLimit) {
-        Util.checkNotNull("UserList is null in Config constructor. It can be empty but never null", users);
+        this(port, users, requestFlowTimeLimit, checkUnitTimeLimit, WorkerPoolConfig.getDefault(), ConnectionConfig.getDefault(), ExecutionConfig.getDefault());
+    }
+
+    /**
+     * Constructor with worker pool, connection handling and execution configuration.
+     *
+     * @param port                 server port
+     * @param users                list of server users. Must not be null.
+     * @param requestFlowTimeLimit time limit for request flow in seconds
+     * @param checkUnitTimeLimit   time limit for check unit in seconds
+     * @param workerPoolConfig     worker pool configuration. Must not be null.
+     * @param connectionConfig     connection handling configuration. Must not be null.
+     * @param executionConfig      request execution configuration. Must not be null.
+     */
+    public Config(int port, List<User> users, long requestFlowTimeLimit, long checkUnitTimeLimit, WorkerPoolConfig workerPoolConfig, ConnectionConfig connectionConfig, ExecutionConfig executionConfig) {
+        Util.checkNotNull("UserList or one of nested configs is null in Config constructor. UserList can be empty but never null", users, workerPoolConfig, connectionConfig, executionConfig);
         this.users = Collections.unmodifiableList(users);
         this.port = port;
         this.requestFlowTimeLimit = requestFlowTimeLimit;
         this.checkUnitTimeLimit = checkUnitTimeLimit;
+        this.workerPoolConfig = workerPoolConfig;
+        this.connectionConfig = connectionConfig;
+        this.executionConfig = executionConfig;
     }
 
     /**
@@ -70,6 +91,9 @@ public class Config {
         Logger.log("Users: " + users);
         Logger.log("Flow TimeLimit: " + requestFlowTimeLimit);
         Logger.log("CheckUnit TimeLimit: " + checkUnitTimeLimit);
+        Logger.log("Worker pool: " + workerPoolConfig);
+        Logger.log("Connections: " + connectionConfig);
+        Logger.log("Execution: " + executionConfig);
     }
 
     /**
@@ -90,4 +114,31 @@ public class Config {
         return checkUnitTimeLimit;
     }
 
+    /**
+     * Returns worker pool configuration
+     *
+     * @return worker pool configuration
+     */
+    public WorkerPoolConfig getWorkerPoolConfig() {
+        return workerPoolConfig;
+    }
+
+    /**
+     * Returns connection handling configuration
+     *
+     * @return connection handling configuration
+     */
+    public ConnectionConfig getConnectionConfig() {
+        return connectionConfig;
+    }
+
+    /**
+     * Returns request execution configuration
+     *
+     * @return request execution configuration
+     */
+    public ExecutionConfig getExecutionConfig() {
+        return executionConfig;
+    }
+
 }
@@ -3,16 +3,28 @@ package rlcp.server.config;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import org.dom4j.Document;
 import org.dom4j.DocumentException;
 import org.dom4j.Node;
-import org.dom4j.io.SAXReader;
 import rlcp.server.logger.Logger;
 import rlcp.util.Constants;
+import rlcp.util.DomHelper;
 
+import static rlcp.util.Constants.rlcpDefaultCheckUnitPoolSize;
 import static rlcp.util.Constants.rlcpDefaultCheckUnitTimeLimitInSec;
+import static rlcp.util.Constants.rlcpDefaultEventLoopThreads;
+import static rlcp.util.Constants.rlcpDefaultKeepAliveTimeLimitInSec;
+import static rlcp.util.Constants.rlcpDefaultMaxBodySize;
+import static rlcp.util.Constants.rlcpDefaultMaxHeaderSize;
+import static rlcp.util.Constants.rlcpDefaultReadTimeLimitInSec;
 import static rlcp.util.Constants.rlcpDefaultRequestFlowTimeLimitInSec;
+import static rlcp.util.Constants.rlcpDefaultWorkerPoolCoreSize;
+import static rlcp.util.Constants.rlcpDefaultWorkerPoolDrainTimeLimitInSec;
+import static rlcp.util.Constants.rlcpDefaultWorkerPoolMaxSize;
+import static rlcp.util.Constants.rlcpDefaultWorkerPoolQueueSize;
 
 /**
  * Configuration parser class.
@@ -65,8 +77,7 @@ public class ConfigParser {
     }
 
     private static Document readXmlFromFile(String path) throws DocumentException, FileNotFoundException {
-        SAXReader saxReader = new SAXReader();
-        return saxReader.read(new FileInputStream(path));
+        return DomHelper.toXml(new FileInputStream(path));
     }
 
     private static Config parseConfigFromXML(Document configXml) {
@@ -74,8 +85,11 @@ public class ConfigParser {
         List<User> users = parseUsersFromXML(configXml);
         long requestFlowTimeLimit = parseRequestFlowTimeLimit(configXml);
         long checkUnitTimeLimit = parseCheckUnitTimeLimit(configXml);
+        WorkerPoolConfig workerPoolConfig = parseWorkerPoolConfig(configXml);
+        ConnectionConfig connectionConfig = parseConnectionConfig(configXml);
+        ExecutionConfig executionConfig = parseExecutionConfig(configXml);
 
-        return new Config(port, users, requestFlowTimeLimit, checkUnitTimeLimit);
+        return new Config(port, users, requestFlowTimeLimit, checkUnitTimeLimit, workerPoolConfig, connectionConfig, executionConfig);
     }
 
     private static int parsePortFromXML(Document xmlDoc) {
@@ -99,6 +113,121 @@ public class ConfigParser {
 
     }
 
+    private static WorkerPoolConfig parseWorkerPoolConfig(Document xmlDoc) {
+        Node workerPoolNode = xmlDoc.selectSingleNode("//WorkerPool");
+        if (workerPoolNode == null) {
+            return WorkerPoolConfig.getDefault();
+        }
+        int coreSize = (int) parseLongAttribute(workerPoolNode, "coreSize", rlcpDefaultWorkerPoolCoreSize);
+        int maxSize = (int) parseLongAttribute(workerPoolNode, "maxSize", Math.max(coreSize, rlcpDefaultWorkerPoolMaxSize));
+        int queueSize = (int) parseLongAttribute(workerPoolNode, "queueSize", rlcpDefaultWorkerPoolQueueSize);
+        long drainTimeLimit = parseLongAttribute(workerPoolNode, "drainTimeLimit", rlcpDefaultWorkerPoolDrainTimeLimitInSec);
+        WorkerPoolConfig.RejectionPolicy rejectionPolicy;
+        try {
+            rejectionPolicy = WorkerPoolConfig.RejectionPolicy.lookFor(workerPoolNode.selectSingleNode("./@rejectionPolicy").getText());
+        } catch (Exception e) {
+            rejectionPolicy = WorkerPoolConfig.getDefault().getRejectionPolicy();
+        }
+        try {
+            return new WorkerPoolConfig(coreSize, maxSize, queueSize, rejectionPolicy, drainTimeLimit);
+        } catch (IllegalArgumentException e) {
+            Logger.log(e);
+            return WorkerPoolConfig.getDefault();
+        }
+    }
+
+    private static ConnectionConfig parseConnectionConfig(Document xmlDoc) {
+        ConnectionConfig.IoMode ioMode;
+        try {
+            ioMode = ConnectionConfig.IoMode.lookFor(xmlDoc.selectSingleNode("//IoMode").selectSingleNode("./@value").getText());
+        } catch (Exception e) {
+            ioMode = ConnectionConfig.getDefault().getIoMode();
+        }
+        int eventLoopThreads = (int) parseLongAttribute(xmlDoc.selectSingleNode("//EventLoopThreads"), "value", rlcpDefaultEventLoopThreads);
+        Node framingNode = xmlDoc.selectSingleNode("//Framing");
+        ConnectionConfig.Framing framing;
+        try {
+            framing = ConnectionConfig.Framing.lookFor(framingNode.selectSingleNode("./@mode").getText());
+        } catch (Exception e) {
+            framing = ConnectionConfig.getDefault().getFraming();
+        }
+        int maxHeaderSize = (int) parseLongAttribute(framingNode, "maxHeaderSize", rlcpDefaultMaxHeaderSize);
+        int maxBodySize = (int) parseLongAttribute(framingNode, "maxBodySize", rlcpDefaultMaxBodySize);
+        long readTimeLimit = parseLongAttribute(framingNode, "readTimeLimit", rlcpDefaultReadTimeLimitInSec);
+        Node keepAliveNode = xmlDoc.selectSingleNode("//KeepAlive");
+        long keepAliveTimeLimit = parseLongAttribute(keepAliveNode, "timeLimit", rlcpDefaultKeepAliveTimeLimitInSec);
+        if (ioMode == ConnectionConfig.IoMode.NIO && keepAliveTimeLimit > 0) {
+            if (keepAliveNode != null) {
+                Logger.log("Keep-alive connections are not supported with NIO io mode and are disabled");
+            }
+            keepAliveTimeLimit = 0;
+        }
+        try {
+            return new ConnectionConfig(ioMode, eventLoopThreads, framing, maxHeaderSize, maxBodySize, readTimeLimit, keepAliveTimeLimit);
+        } catch (IllegalArgumentException e) {
+            Logger.log(e);
+            return ConnectionConfig.getDefault();
+        }
+    }
+
+    private static ExecutionConfig parseExecutionConfig(Document xmlDoc) {
+        ExecutionConfig.ThreadMode threadMode;
+        try {
+            threadMode = ExecutionConfig.ThreadMode.lookFor(xmlDoc.selectSingleNode("//ThreadMode").selectSingleNode("./@value").getText());
+        } catch (Exception e) {
+            threadMode = ExecutionConfig.getDefault().getThreadMode();
+        }
+        Node checkUnitsNode = xmlDoc.selectSingleNode("//CheckUnits");
+        ExecutionConfig.CheckMode checkMode;
+        try {
+            checkMode = ExecutionConfig.CheckMode.lookFor(checkUnitsNode.selectSingleNode("./@mode").getText());
+        } catch (Exception e) {
+            checkMode = ExecutionConfig.getDefault().getCheckMode();
+        }
+        int checkUnitPoolSize = (int) parseLongAttribute(checkUnitsNode, "poolSize", rlcpDefaultCheckUnitPoolSize);
+        ExecutionConfig.Isolation isolation;
+        try {
+            isolation = ExecutionConfig.Isolation.lookFor(checkUnitsNode.selectSingleNode("./@isolation").getText());
+        } catch (Exception e) {
+            isolation = ExecutionConfig.getDefault().getIsolation();
+        }
+        BulkheadConfig bulkheadConfig = parseBulkheadConfig(xmlDoc.selectSingleNode("//Flows"), BulkheadConfig.getDefault());
+        Map<String, BulkheadConfig> methodBulkheadConfigs = new HashMap<>();
+        @SuppressWarnings("unchecked")
+        List<Node> flowNodes = xmlDoc.selectNodes("//Flows/Flow");
+        for (Node flowNode : flowNodes) {
+            Node methodNode = flowNode.selectSingleNode("./@method");
+            if (methodNode != null) {
+                methodBulkheadConfigs.put(methodNode.getText().trim().toLowerCase(), parseBulkheadConfig(flowNode, bulkheadConfig));
+            }
+        }
+        try {
+            return new ExecutionConfig(threadMode, checkMode, checkUnitPoolSize, isolation, bulkheadConfig, methodBulkheadConfigs);
+        } catch (IllegalArgumentException e) {
+            Logger.log(e);
+            return new ExecutionConfig(threadMode, checkMode, rlcpDefaultCheckUnitPoolSize, isolation, bulkheadConfig, methodBulkheadConfigs);
+        }
+    }
+
+    private static BulkheadConfig parseBulkheadConfig(Node node, BulkheadConfig defaultConfig) {
+        int concurrency = (int) parseLongAttribute(node, "concurrency", defaultConfig.getConcurrency());
+        int queueSize = (int) parseLongAttribute(node, "queueSize", defaultConfig.getQueueSize());
+        try {
+            return new BulkheadConfig(concurrency, queueSize);
+        } catch (IllegalArgumentException e) {
+            Logger.log(e);
+            return defaultConfig;
+        }
+    }
+
+    private static long parseLongAttribute(Node node, String attribute, long defaultValue) {
+        try {
+            return Long.parseLong(node.selectSingleNode("./@" + attribute).getText());
+        } catch (Exception e) {
+            return defaultValue;
+        }
+    }
+
     private static List<User> parseUsersFromXML(Document xmlDoc) {
         @SuppressWarnings("unchecked")
         List<Node> userNodes = xmlDoc.selectNodes("//UserInfo");
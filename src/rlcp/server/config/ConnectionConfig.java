@@ -0,0 +1,205 @@
+package rlcp.server.config;
+
+import static rlcp.util.Constants.rlcpDefaultEventLoopThreads;
+import static rlcp.util.Constants.rlcpDefaultKeepAliveTimeLimitInSec;
+import static rlcp.util.Constants.rlcpDefaultMaxBodySize;
+import static rlcp.util.Constants.rlcpDefaultMaxHeaderSize;
+import static rlcp.util.Constants.rlcpDefaultReadTimeLimitInSec;
+
+/**
+ * Class for RLCP-server connection handling configuration storing. Unmodifiable.
+ */
+public class ConnectionConfig {
+
+    private static final ConnectionConfig defaultConfig = new ConnectionConfig(IoMode.BLOCKING, rlcpDefaultEventLoopThreads,
+            Framing.CONTENT_LENGTH, rlcpDefaultMaxHeaderSize, rlcpDefaultMaxBodySize, rlcpDefaultReadTimeLimitInSec,
+            rlcpDefaultKeepAliveTimeLimitInSec);
+
+    private final IoMode ioMode;
+    private final int eventLoopThreads;
+    private final Framing framing;
+    private final int maxHeaderSize;
+    private final int maxBodySize;
+    private final long readTimeLimit;
+    private final long keepAliveTimeLimit;
+
+    /**
+     * Simple constructor.
+     *
+     * @param ioMode           server front end implementation. Must not be null.
+     * @param eventLoopThreads number of event loop threads for {@code IoMode.NIO}
+     * @param framing          way of finding request end for {@code IoMode.BLOCKING}. Must not be null.
+     * @param maxHeaderSize    maximum size of request header in bytes
+     * @param maxBodySize      maximum size of request body in bytes
+     * @param readTimeLimit    time limit in seconds for waiting of request data, 0 means no limit
+     * @param keepAliveTimeLimit time limit in seconds for waiting of next request on keep-alive connection,
+     *                         0 disables keep-alive connections
+     * @throws IllegalArgumentException if ioMode or framing is null or any number is out of range
+     */
+    public ConnectionConfig(IoMode ioMode, int eventLoopThreads, Framing framing, int maxHeaderSize, int maxBodySize, long readTimeLimit,
+                            long keepAliveTimeLimit) throws IllegalArgumentException {
+        if (ioMode == null || eventLoopThreads <= 0 || framing == null || maxHeaderSize <= 0 || maxBodySize < 0
+                || readTimeLimit < 0 || readTimeLimit * 1000 > Integer.MAX_VALUE
+                || keepAliveTimeLimit < 0 || keepAliveTimeLimit * 1000 > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Bad connection configuration: io mode " + ioMode + ", event loop threads " + eventLoopThreads
+                    + ", framing " + framing + ", max header size " + maxHeaderSize + ", max body size " + maxBodySize
+                    + ", read time limit " + readTimeLimit + ", keep-alive time limit " + keepAliveTimeLimit);
+        }
+        this.ioMode = ioMode;
+        this.eventLoopThreads = eventLoopThreads;
+        this.framing = framing;
+        this.maxHeaderSize = maxHeaderSize;
+        this.maxBodySize = maxBodySize;
+        this.readTimeLimit = readTimeLimit;
+        this.keepAliveTimeLimit = keepAliveTimeLimit;
+    }
+
+    /**
+     * Returns default connection configuration.
+     *
+     * @return default connection configuration
+     */
+    public static ConnectionConfig getDefault() {
+        return defaultConfig;
+    }
+
+    /**
+     * Returns server front end implementation.
+     *
+     * @return server front end implementation
+     */
+    public IoMode getIoMode() {
+        return ioMode;
+    }
+
+    /**
+     * Returns number of event loop threads for {@code IoMode.NIO}.
+     *
+     * @return number of event loop threads for {@code IoMode.NIO}
+     */
+    public int getEventLoopThreads() {
+        return eventLoopThreads;
+    }
+
+    /**
+     * Returns way of finding request end for {@code IoMode.BLOCKING}.
+     *
+     * @return way of finding request end for {@code IoMode.BLOCKING}
+     */
+    public Framing getFraming() {
+        return framing;
+    }
+
+    /**
+     * Returns maximum size of request header in bytes.
+     *
+     * @return maximum size of request header in bytes
+     */
+    public int getMaxHeaderSize() {
+        return maxHeaderSize;
+    }
+
+    /**
+     * Returns maximum size of request body in bytes.
+     *
+     * @return maximum size of request body in bytes
+     */
+    public int getMaxBodySize() {
+        return maxBodySize;
+    }
+
+    /**
+     * Returns time limit in seconds for waiting of request data, 0 means no limit.
+     *
+     * @return time limit in seconds for waiting of request data, 0 means no limit
+     */
+    public long getReadTimeLimit() {
+        return readTimeLimit;
+    }
+
+    /**
+     * Returns time limit in seconds for waiting of next request on keep-alive connection, 0 means keep-alive
+     * connections are disabled.
+     *
+     * @return time limit in seconds for waiting of next request on keep-alive connection
+     */
+    public long getKeepAliveTimeLimit() {
+        return keepAliveTimeLimit;
+    }
+
+    /**
+     * Returns {@code true} if connection may be kept open after response for next requests. Requires
+     * {@code Framing.CONTENT_LENGTH} framing and blocking front end.
+     *
+     * @return {@code true} if connection may be kept open after response, {@code false} otherwise
+     */
+    public boolean isKeepAliveAllowed() {
+        return ioMode == IoMode.BLOCKING && framing == Framing.CONTENT_LENGTH && keepAliveTimeLimit > 0;
+    }
+
+    /**
+     * Returns String representation for logging.
+     *
+     * @return String representation for logging
+     */
+    @Override
+    public String toString() {
+        return "io=" + ioMode + ", eventLoops=" + eventLoopThreads + ", framing=" + framing
+                + ", maxHeader=" + maxHeaderSize + ", maxBody=" + maxBodySize + ", readTimeLimit=" + readTimeLimit + ", keepAliveTimeLimit=" + keepAliveTimeLimit;
+    }
+
+    /**
+     * Enumeration of ways to find request end.
+     */
+    public enum Framing {
+        /**
+         * Request with "charset" or "connection:keep-alive" header field ends after content-length bytes of
+         * body. Other requests are read until client shuts down its output, content-length of such clients
+         * may count characters instead of bytes.
+         */
+        CONTENT_LENGTH,
+        /**
+         * Request ends when client shuts down its output. Compatibility mode for clients sending wrong content-length.
+         */
+        SHUTDOWN;
+
+        /**
+         * Returns Framing instance with specified name (ignoring case and dashes).
+         *
+         * @param name framing name, for example "content-length" or "shutdown"
+         * @return Framing instance with specified name
+         * @throws IllegalArgumentException if there is no framing with such name
+         */
+        public static Framing lookFor(String name) throws IllegalArgumentException {
+            return valueOf(name.trim().toUpperCase().replace('-', '_'));
+        }
+    }
+
+    /**
+     * Enumeration of server front end implementations.
+     */
+    public enum IoMode {
+        /**
+         * Blocking sockets. Every connection holds a worker thread while request is read and response is written.
+         */
+        BLOCKING,
+        /**
+         * Non-blocking channels. Requests are read and responses are written on a few event loop threads,
+         * workers are used only for processing of fully read requests. Requests are framed the same way
+         * as by blocking front end, but connection is closed after response: keep-alive connections are
+         * not supported.
+         */
+        NIO;
+
+        /**
+         * Returns IoMode instance with specified name (ignoring case).
+         *
+         * @param name mode name, for example "nio"
+         * @return IoMode instance with specified name
+         * @throws IllegalArgumentException if there is no mode with such name
+         */
+        public static IoMode lookFor(String name) throws IllegalArgumentException {
+            return valueOf(name.trim().toUpperCase());
+        }
+    }
+}
@@ -0,0 +1,224 @@
+package rlcp.server.config;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import static rlcp.util.Constants.rlcpDefaultCheckUnitPoolSize;
+
+/**
+ * Class for RLCP-server request execution configuration storing. Unmodifiable.
+ */
+public class ExecutionConfig {
+
+    private static final ExecutionConfig defaultConfig = new ExecutionConfig(ThreadMode.PLATFORM, CheckMode.SEQUENTIAL, rlcpDefaultCheckUnitPoolSize, Isolation.THREAD,
+            BulkheadConfig.getDefault(), Collections.<String, BulkheadConfig>emptyMap());
+
+    private final ThreadMode threadMode;
+    private final CheckMode checkMode;
+    private final int checkUnitPoolSize;
+    private final Isolation isolation;
+    private final BulkheadConfig bulkheadConfig;
+    private final Map<String, BulkheadConfig> methodBulkheadConfigs;
+
+    /**
+     * Constructor for check units run in server process.
+     *
+     * @param threadMode        kind of threads requests, flows and check units are run on. Must not be null.
+     * @param checkMode         way check units of one request are run. Must not be null.
+     * @param checkUnitPoolSize number of threads in server-wide check unit pool for {@code CheckMode.PARALLEL}
+     * @throws IllegalArgumentException if threadMode or checkMode is null or checkUnitPoolSize is not positive
+     */
+    public ExecutionConfig(ThreadMode threadMode, CheckMode checkMode, int checkUnitPoolSize) throws IllegalArgumentException {
+        this(threadMode, checkMode, checkUnitPoolSize, Isolation.THREAD);
+    }
+
+    /**
+     * Constructor with default bulkheads.
+     *
+     * @param threadMode        kind of threads requests, flows and check units are run on. Must not be null.
+     * @param checkMode         way check units of one request are run. Must not be null.
+     * @param checkUnitPoolSize number of threads in server-wide check unit pool for {@code CheckMode.PARALLEL}
+     * @param isolation         where check processors are run. Must not be null.
+     * @throws IllegalArgumentException if any enumeration is null or checkUnitPoolSize is not positive
+     */
+    public ExecutionConfig(ThreadMode threadMode, CheckMode checkMode, int checkUnitPoolSize, Isolation isolation) throws IllegalArgumentException {
+        this(threadMode, checkMode, checkUnitPoolSize, isolation, BulkheadConfig.getDefault(), Collections.<String, BulkheadConfig>emptyMap());
+    }
+
+    /**
+     * Simple constructor.
+     *
+     * @param threadMode            kind of threads requests, flows and check units are run on. Must not be null.
+     * @param checkMode             way check units of one request are run. Must not be null.
+     * @param checkUnitPoolSize     number of threads in server-wide check unit pool for {@code CheckMode.PARALLEL}
+     * @param isolation             where check processors are run. Must not be null.
+     * @param bulkheadConfig        limits of simultaneous requests of one RLCP method. Must not be null.
+     * @param methodBulkheadConfigs limits of simultaneous requests of particular RLCP methods, by method
+     *                              names in lower case. Override bulkheadConfig. Must not be null.
+     * @throws IllegalArgumentException if any parameter is null or checkUnitPoolSize is not positive
+     */
+    public ExecutionConfig(ThreadMode threadMode, CheckMode checkMode, int checkUnitPoolSize, Isolation isolation,
+                           BulkheadConfig bulkheadConfig, Map<String, BulkheadConfig> methodBulkheadConfigs) throws IllegalArgumentException {
+        if (threadMode == null || checkMode == null || checkUnitPoolSize <= 0 || isolation == null
+                || bulkheadConfig == null || methodBulkheadConfigs == null || methodBulkheadConfigs.containsValue(null)) {
+            throw new IllegalArgumentException("Bad execution configuration: thread mode " + threadMode
+                    + ", check mode " + checkMode + ", check unit pool size " + checkUnitPoolSize
+                    + ", isolation " + isolation + ", bulkheads " + bulkheadConfig + " " + methodBulkheadConfigs);
+        }
+        this.threadMode = threadMode;
+        this.checkMode = checkMode;
+        this.checkUnitPoolSize = checkUnitPoolSize;
+        this.isolation = isolation;
+        this.bulkheadConfig = bulkheadConfig;
+        this.methodBulkheadConfigs = Collections.unmodifiableMap(new HashMap<>(methodBulkheadConfigs));
+    }
+
+    /**
+     * Returns default execution configuration.
+     *
+     * @return default execution configuration
+     */
+    public static ExecutionConfig getDefault() {
+        return defaultConfig;
+    }
+
+    /**
+     * Returns kind of threads requests, flows and check units are run on.
+     *
+     * @return kind of threads requests, flows and check units are run on
+     */
+    public ThreadMode getThreadMode() {
+        return threadMode;
+    }
+
+    /**
+     * Returns way check units of one request are run.
+     *
+     * @return way check units of one request are run
+     */
+    public CheckMode getCheckMode() {
+        return checkMode;
+    }
+
+    /**
+     * Returns number of threads in server-wide check unit pool for {@code CheckMode.PARALLEL}.
+     *
+     * @return number of threads in server-wide check unit pool
+     */
+    public int getCheckUnitPoolSize() {
+        return checkUnitPoolSize;
+    }
+
+    /**
+     * Returns where check processors are run.
+     *
+     * @return where check processors are run
+     */
+    public Isolation getIsolation() {
+        return isolation;
+    }
+
+    /**
+     * Returns limits of simultaneous requests of specified RLCP method.
+     *
+     * @param methodName RLCP method name, for example "check"
+     * @return limits of simultaneous requests of specified method
+     */
+    public BulkheadConfig getBulkheadConfig(String methodName) {
+        BulkheadConfig methodBulkheadConfig = methodBulkheadConfigs.get(methodName.toLowerCase());
+        return methodBulkheadConfig != null ? methodBulkheadConfig : bulkheadConfig;
+    }
+
+    /**
+     * Returns String representation for logging.
+     *
+     * @return String representation for logging
+     */
+    @Override
+    public String toString() {
+        return "threads=" + threadMode + ", checkUnits=" + checkMode + ", checkUnitPool=" + checkUnitPoolSize + ", isolation=" + isolation
+                + ", bulkheads=(" + bulkheadConfig + ") " + methodBulkheadConfigs;
+    }
+
+    /**
+     * Enumeration of thread kinds.
+     */
+    public enum ThreadMode {
+        /**
+         * Platform threads. Supported by any runtime.
+         */
+        PLATFORM,
+        /**
+         * Virtual threads. Require JDK 21+ runtime, platform threads are used on older ones.
+         */
+        VIRTUAL;
+
+        /**
+         * Returns ThreadMode instance with specified name (ignoring case).
+         *
+         * @param name mode name, for example "virtual"
+         * @return ThreadMode instance with specified name
+         * @throws IllegalArgumentException if there is no mode with such name
+         */
+        public static ThreadMode lookFor(String name) throws IllegalArgumentException {
+            return valueOf(name.trim().toUpperCase());
+        }
+    }
+
+    /**
+     * Enumeration of ways check units of one request are run.
+     */
+    public enum CheckMode {
+        /**
+         * Check units are run one after another, each in a new thread.
+         */
+        SEQUENTIAL,
+        /**
+         * Check units are run simultaneously in server-wide bounded pool. CheckProcessor
+         * instances shared between check units must be thread-safe: with
+         * {@code SingletonProcessorFactory} units of one request call {@code check} and
+         * {@code setPreCheckResult} on the same instance at once, so stateful processors
+         * should be given by pooled or thread-affine factory instead.
+         */
+        PARALLEL;
+
+        /**
+         * Returns CheckMode instance with specified name (ignoring case).
+         *
+         * @param name mode name, for example "parallel"
+         * @return CheckMode instance with specified name
+         * @throws IllegalArgumentException if there is no mode with such name
+         */
+        public static CheckMode lookFor(String name) throws IllegalArgumentException {
+            return valueOf(name.trim().toUpperCase());
+        }
+    }
+
+    /**
+     * Enumeration of places check processors are run in.
+     */
+    public enum Isolation {
+        /**
+         * Check processor is run in thread of server process. Check unit exceeded its time limit
+         * is interrupted; if it ignores interruption, its thread is quarantined until it stops.
+         */
+        THREAD,
+        /**
+         * Check processor is run in child JVM process that is killed when check unit exceeds its
+         * time limit. CheckProcessor instances must be serializable, others are run in threads.
+         */
+        PROCESS;
+
+        /**
+         * Returns Isolation instance with specified name (ignoring case).
+         *
+         * @param name isolation name, for example "process"
+         * @return Isolation instance with specified name
+         * @throws IllegalArgumentException if there is no isolation with such name
+         */
+        public static Isolation lookFor(String name) throws IllegalArgumentException {
+            return valueOf(name.trim().toUpperCase());
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package rlcp.server.config;
+
+import static rlcp.util.Constants.rlcpDefaultWorkerPoolCoreSize;
+import static rlcp.util.Constants.rlcpDefaultWorkerPoolDrainTimeLimitInSec;
+import static rlcp.util.Constants.rlcpDefaultWorkerPoolMaxSize;
+import static rlcp.util.Constants.rlcpDefaultWorkerPoolQueueSize;
+
+/**
+ * Class for RLCP-server worker pool configuration storing. Unmodifiable.
+ */
+public class WorkerPoolConfig {
+
+    private static final WorkerPoolConfig defaultConfig = new WorkerPoolConfig(
+            rlcpDefaultWorkerPoolCoreSize,
+            rlcpDefaultWorkerPoolMaxSize,
+            rlcpDefaultWorkerPoolQueueSize,
+            RejectionPolicy.REJECT,
+            rlcpDefaultWorkerPoolDrainTimeLimitInSec
+    );
+
+    private final int coreSize;
+    private final int maxSize;
+    private final int queueSize;
+    private final RejectionPolicy rejectionPolicy;
+    private final long drainTimeLimit;
+
+    /**
+     * Simple constructor.
+     *
+     * @param coreSize        number of worker threads kept alive when idle
+     * @param maxSize         maximum number of worker threads
+     * @param queueSize       number of accepted connections waiting for a free worker
+     * @param rejectionPolicy what to do with connection when all workers are busy and queue is full. Must not be null.
+     * @param drainTimeLimit  time limit in seconds for processing of queued connections on server stop
+     * @throws IllegalArgumentException if sizes are inconsistent or rejectionPolicy is null
+     */
+    public WorkerPoolConfig(int coreSize, int maxSize, int queueSize, RejectionPolicy rejectionPolicy, long drainTimeLimit) throws IllegalArgumentException {
+        if (coreSize < 0 || maxSize <= 0 || maxSize < coreSize || queueSize < 0 || rejectionPolicy == null) {
+            throw new IllegalArgumentException("Bad worker pool configuration: core size " + coreSize
+                    + ", max size " + maxSize + ", queue size " + queueSize + ", rejection policy " + rejectionPolicy);
+        }
+        this.coreSize = coreSize;
+        this.maxSize = maxSize;
+        this.queueSize = queueSize;
+        this.rejectionPolicy = rejectionPolicy;
+        this.drainTimeLimit = drainTimeLimit;
+    }
+
+    /**
+     * Returns default worker pool configuration.
+     *
+     * @return default worker pool configuration
+     */
+    public static WorkerPoolConfig getDefault() {
+        return defaultConfig;
+    }
+
+    /**
+     * Returns number of worker threads kept alive when idle.
+     *
+     * @return number of worker threads kept alive when idle
+     */
+    public int getCoreSize() {
+        return coreSize;
+    }
+
+    /**
+     * Returns maximum number of worker threads.
+     *
+     * @return maximum number of worker threads
+     */
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * Returns number of accepted connections waiting for a free worker.
+     *
+     * @return number of accepted connections waiting for a free worker
+     */
+    public int getQueueSize() {
+        return queueSize;
+    }
+
+    /**
+     * Returns policy for connections that can not be queued.
+     *
+     * @return policy for connections that can not be queued
+     */
+    public RejectionPolicy getRejectionPolicy() {
+        return rejectionPolicy;
+    }
+
+    /**
+     * Returns time limit in seconds for processing of queued connections on server stop.
+     *
+     * @return time limit in seconds for processing of queued connections on server stop
+     */
+    public long getDrainTimeLimit() {
+        return drainTimeLimit;
+    }
+
+    /**
+     * Returns String representation for logging.
+     *
+     * @return String representation for logging
+     */
+    @Override
+    public String toString() {
+        return "core=" + coreSize + ", max=" + maxSize + ", queue=" + queueSize
+                + ", rejection=" + rejectionPolicy + ", drain=" + drainTimeLimit;
+    }
+
+    /**
+     * Enumeration of policies for connections that can not be queued.
+     */
+    public enum RejectionPolicy {
+        /**
+         * Respond immediately with {@code RlcpCode.Unavailable} and close connection.
+         */
+        REJECT,
+        /**
+         * Process connection in accepting thread. Slows down accepting of new connections.
+         */
+        CALLER_RUNS;
+
+        /**
+         * Returns RejectionPolicy instance with specified name (ignoring case and dashes).
+         *
+         * @param name policy name, for example "reject" or "caller-runs"
+         * @return RejectionPolicy instance with specified name
+         * @throws IllegalArgumentException if there is no policy with such name
+         */
+        public static RejectionPolicy lookFor(String name) throws IllegalArgumentException {
+            return valueOf(name.trim().toUpperCase().replace('-', '_'));
+        }
+    }
+}
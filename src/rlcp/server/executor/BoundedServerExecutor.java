@@ -0,0 +1,145 @@
+package rlcp.server.executor;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import rlcp.server.config.ExecutionConfig;
+import rlcp.server.config.WorkerPoolConfig;
+import rlcp.server.logger.Logger;
+import rlcp.util.Util;
+
+/**
+ * ServerExecutor implementation backed by bounded thread pool. Pool sizes, queue depth
+ * and rejection policy are taken from {@code WorkerPoolConfig}.
+ * <p>
+ * Unlike plain {@code ThreadPoolExecutor}, that starts threads above core size only when its
+ * queue is full, pool starts new worker whenever all workers are busy and there are less than
+ * max size of them, and queues connections only then. Workers may be held by idle keep-alive
+ * connections, so queued connections would otherwise wait for them while the pool could grow.
+ *
+ * @see WorkerPoolConfig
+ */
+public class BoundedServerExecutor implements ServerExecutor {
+
+    private static final long keepAliveTimeInSec = 60;
+
+    private final WorkerPoolConfig config;
+    private final BlockingQueue<Runnable> queue;
+    private final ThreadPoolExecutor executor;
+
+    /**
+     * Simple constructor.
+     *
+     * @param config worker pool configuration. Must not be null.
+     * @throws IllegalArgumentException if config is null
+     */
+    public BoundedServerExecutor(WorkerPoolConfig config) throws IllegalArgumentException {
+        Util.checkNotNull("WorkerPoolConfig is null in BoundedServerExecutor constructor", config);
+        this.config = config;
+        WorkerQueue workerQueue = config.getQueueSize() == 0 ? null : new WorkerQueue(config.getQueueSize());
+        this.queue = workerQueue != null ? workerQueue : new SynchronousQueue<Runnable>();
+        this.executor = new ThreadPoolExecutor(
+                config.getCoreSize(),
+                config.getMaxSize(),
+                keepAliveTimeInSec, TimeUnit.SECONDS,
+                queue,
+                WorkerThreads.factory(ExecutionConfig.ThreadMode.PLATFORM, "rlcp-worker-"),
+                new ThreadPoolExecutor.AbortPolicy()
+        );
+        if (workerQueue != null) {
+            workerQueue.pool = executor;
+        }
+    }
+
+    /**
+     * Schedules task in pool. If pool is saturated, task is rejected or run in calling thread
+     * according to rejection policy.
+     *
+     * @param task connection processing task
+     * @return {@code true} if task was accepted for processing, {@code false} if it was rejected
+     */
+    @Override
+    public boolean tryExecute(Runnable task) {
+        return tryExecute(task, config.getRejectionPolicy() == WorkerPoolConfig.RejectionPolicy.CALLER_RUNS);
+    }
+
+    /**
+     * Schedules task in pool, rejecting it if pool is saturated.
+     *
+     * @param task connection processing task
+     * @return {@code true} if task was accepted for processing, {@code false} if it was rejected
+     */
+    @Override
+    public boolean tryExecuteInBackground(Runnable task) {
+        return tryExecute(task, false);
+    }
+
+    private boolean tryExecute(Runnable task, boolean callerRuns) {
+        try {
+            executor.execute(task);
+            return true;
+        } catch (RejectedExecutionException e) {
+            if (queue instanceof WorkerQueue && !executor.isShutdown() && ((WorkerQueue) queue).enqueue(task)) {
+                //pool has max size already, connection waits in queue
+                return true;
+            }
+            if (callerRuns && !executor.isShutdown()) {
+                task.run();
+                return true;
+            }
+            Logger.log("Worker pool is saturated: " + executor.getActiveCount() + " active, "
+                    + executor.getQueue().size() + " queued");
+            return false;
+        }
+    }
+
+    /**
+     * Stops accepting new connections, lets queued ones finish within drain time limit
+     * and interrupts the rest.
+     */
+    @Override
+    public void drain() {
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(config.getDrainTimeLimit(), TimeUnit.SECONDS)) {
+                Logger.log("Worker pool was not drained in " + config.getDrainTimeLimit() + " sec. Interrupting workers.");
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Bounded queue of worker pool, that refuses connection while pool may start new worker for it.
+     * Refused connection is queued by {@code enqueue()} once pool can not grow.
+     */
+    private static class WorkerQueue extends LinkedBlockingQueue<Runnable> {
+
+        private static final long serialVersionUID = 1L;
+
+        private transient volatile ThreadPoolExecutor pool;
+
+        private WorkerQueue(int capacity) {
+            super(capacity);
+        }
+
+        @Override
+        public boolean offer(Runnable task) {
+            ThreadPoolExecutor pool = this.pool;
+            if (pool != null && pool.getPoolSize() < pool.getMaximumPoolSize() && pool.getActiveCount() >= pool.getPoolSize()) {
+                return false;
+            }
+            return super.offer(task);
+        }
+
+        private boolean enqueue(Runnable task) {
+            return super.offer(task);
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package rlcp.server.executor;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.io.Serializable;
+
+import rlcp.check.ConditionForChecking;
+import rlcp.generate.GeneratingResult;
+import rlcp.server.processor.check.CheckProcessor;
+
+/**
+ * CheckProcessor that runs serializable CheckProcessor in child JVM process. Child process
+ * gets copy of the processor and check unit data through its standard input and is killed
+ * if thread waiting for it is interrupted, so check unit that never ends can not keep
+ * server CPU busy. Child JVM is started with java binary and class path of server JVM.
+ *
+ * @see rlcp.server.config.ExecutionConfig.Isolation#PROCESS
+ */
+public class ChildJvmCheckProcessor implements CheckProcessor {
+
+    private final CheckProcessor processor;
+
+    /**
+     * Simple constructor.
+     *
+     * @param processor processor to run in child process. Must be serializable, as well as
+     *                  everything it references.
+     * @throws IllegalArgumentException if processor is not serializable
+     */
+    public ChildJvmCheckProcessor(CheckProcessor processor) throws IllegalArgumentException {
+        if (!(processor instanceof Serializable)) {
+            throw new IllegalArgumentException("CheckProcessor " + processor + " is not serializable");
+        }
+        this.processor = processor;
+    }
+
+    /**
+     * Runs check in new child process and waits for its result.
+     *
+     * @param condition    condition for checking
+     * @param instructions serialized user answer
+     * @param preGenerated previously generated with Generate method call data
+     * @return check result of child process
+     * @throws IOException            if child process could not be run or failed
+     * @throws InterruptedException   if waiting thread is interrupted. Child process is killed then
+     * @throws ClassNotFoundException if child process result could not be read
+     */
+    @Override
+    public CheckingSingleConditionResult checkSingleCondition(ConditionForChecking condition, String instructions, GeneratingResult preGenerated) throws IOException, InterruptedException, ClassNotFoundException {
+        File resultFile = File.createTempFile("rlcp-check-unit-", ".result");
+        Process process = null;
+        try {
+            String javaBinary = System.getProperty("java.home") + File.separator + "bin" + File.separator + "java";
+            process = new ProcessBuilder(javaBinary, "-cp", System.getProperty("java.class.path"), ChildJvmCheckProcessor.class.getName())
+                    .redirectOutput(resultFile)
+                    .redirectError(ProcessBuilder.Redirect.INHERIT)
+                    .start();
+            try (ObjectOutputStream out = new ObjectOutputStream(process.getOutputStream())) {
+                out.writeObject(processor);
+                out.writeObject(condition);
+                out.writeObject(instructions);
+                out.writeObject(preGenerated);
+            }
+            int exitCode = process.waitFor();
+            if (exitCode != 0) {
+                throw new IOException("Check unit process exited with code " + exitCode);
+            }
+            try (ObjectInputStream in = new ObjectInputStream(new FileInputStream(resultFile))) {
+                return (CheckingSingleConditionResult) in.readObject();
+            }
+        } finally {
+            if (process != null) {
+                process.destroyForcibly();
+            }
+            resultFile.delete();
+        }
+    }
+
+    /**
+     * Entry point of child process. Reads processor and check unit data from standard input,
+     * runs check and writes its result to standard output. Anything check processor prints
+     * to standard output is redirected to standard error.
+     *
+     * @param args not used
+     */
+    public static void main(String[] args) {
+        OutputStream resultStream = System.out;
+        System.setOut(System.err);
+        try {
+            ObjectInputStream in = new ObjectInputStream(System.in);
+            CheckProcessor processor = (CheckProcessor) in.readObject();
+            ConditionForChecking condition = (ConditionForChecking) in.readObject();
+            String instructions = (String) in.readObject();
+            GeneratingResult preGenerated = (GeneratingResult) in.readObject();
+
+            CheckingSingleConditionResult result = processor.checkSingleCondition(condition, instructions, preGenerated);
+
+            ObjectOutputStream out = new ObjectOutputStream(resultStream);
+            out.writeObject(result);
+            out.flush();
+        } catch (Exception exc) {
+            exc.printStackTrace();
+            System.exit(1);
+        }
+        System.exit(0);
+    }
+}
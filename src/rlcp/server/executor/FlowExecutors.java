@@ -0,0 +1,146 @@
+package rlcp.server.executor;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import rlcp.server.config.BulkheadConfig;
+import rlcp.server.config.Config;
+import rlcp.server.config.ExecutionConfig;
+import rlcp.util.Util;
+
+/**
+ * Executors shared by request flows of one server: one pool per RLCP method (bulkhead),
+ * limited by method concurrency and queue size, and pool for parallel check units. Created when server starts
+ * and shut down when it stops. Thread-safe.
+ *
+ * @see rlcp.server.flow.RlcpRequestFlow
+ */
+public class FlowExecutors {
+
+    private static final FlowExecutors defaultExecutors = new FlowExecutors(ExecutionConfig.getDefault());
+
+    private final ExecutionConfig executionConfig;
+    private final ConcurrentMap<String, ThreadPoolExecutor> flowExecutors = new ConcurrentHashMap<>();
+    private final ThreadPoolExecutor checkUnitExecutor;
+    private final TaskSupervisor supervisor = new TaskSupervisor();
+    private volatile boolean shutdown = false;
+
+    /**
+     * Simple constructor. Check unit pool is created only for {@code ExecutionConfig.CheckMode.PARALLEL},
+     * method pools are created on first request of the method.
+     *
+     * @param executionConfig execution configuration. Must not be null.
+     * @throws IllegalArgumentException if executionConfig is null
+     */
+    public FlowExecutors(ExecutionConfig executionConfig) throws IllegalArgumentException {
+        Util.checkNotNull("ExecutionConfig is null in FlowExecutors constructor", executionConfig);
+        this.executionConfig = executionConfig;
+        if (executionConfig.getCheckMode() == ExecutionConfig.CheckMode.PARALLEL) {
+            checkUnitExecutor = new ThreadPoolExecutor(
+                    executionConfig.getCheckUnitPoolSize(),
+                    executionConfig.getCheckUnitPoolSize(),
+                    0, TimeUnit.SECONDS,
+                    new LinkedBlockingQueue<Runnable>(),
+                    WorkerThreads.factory(executionConfig.getThreadMode(), "rlcp-check-unit-")
+            );
+        } else {
+            checkUnitExecutor = null;
+        }
+    }
+
+    /**
+     * Returns executors for specified configuration.
+     *
+     * @param config server configuration. Must not be null.
+     * @return executors for specified configuration
+     * @throws IllegalArgumentException if config is null
+     */
+    public static FlowExecutors create(Config config) throws IllegalArgumentException {
+        Util.checkNotNull("Config is null in FlowExecutors.create", config);
+        return new FlowExecutors(config.getExecutionConfig());
+    }
+
+    /**
+     * Returns executors used by flows that are not run by a server. They have default
+     * execution configuration and are never shut down.
+     *
+     * @return executors used by flows that are not run by a server
+     */
+    public static FlowExecutors getDefault() {
+        return defaultExecutors;
+    }
+
+    /**
+     * Returns server-lifetime pool for request flows of specified RLCP method. Pool threads
+     * are started on demand up to method concurrency and stop after a minute of idleness;
+     * requests above the limit wait in pool queue. Pool throws {@code RejectedExecutionException}
+     * for requests that do not fit in its queue.
+     *
+     * @param methodName RLCP method name, for example "check"
+     * @return pool for request flows of specified method
+     */
+    public ThreadPoolExecutor getFlowExecutor(String methodName) {
+        String key = methodName.toLowerCase();
+        ThreadPoolExecutor executor = flowExecutors.get(key);
+        if (executor == null) {
+            executor = flowExecutors.computeIfAbsent(key, this::createFlowExecutor);
+            if (shutdown) {
+                executor.shutdownNow();
+            }
+        }
+        return executor;
+    }
+
+    /**
+     * Returns server-wide bounded pool for parallel check units.
+     *
+     * @return pool for parallel check units, or {@code null} if check units are run sequentially
+     */
+    public ThreadPoolExecutor getCheckUnitExecutor() {
+        return checkUnitExecutor;
+    }
+
+    /**
+     * Returns supervisor of flows and check units that ignored cancellation.
+     *
+     * @return supervisor of runaway tasks
+     */
+    public TaskSupervisor getSupervisor() {
+        return supervisor;
+    }
+
+    /**
+     * Interrupts running tasks and stops all executors.
+     */
+    public void shutdown() {
+        shutdown = true;
+        for (ThreadPoolExecutor executor : flowExecutors.values()) {
+            executor.shutdownNow();
+        }
+        if (checkUnitExecutor != null) {
+            checkUnitExecutor.shutdownNow();
+        }
+    }
+
+    private ThreadPoolExecutor createFlowExecutor(String methodName) {
+        BulkheadConfig bulkheadConfig = executionConfig.getBulkheadConfig(methodName);
+        BlockingQueue<Runnable> queue = bulkheadConfig.getQueueSize() > 0
+                ? new ArrayBlockingQueue<Runnable>(bulkheadConfig.getQueueSize())
+                : new SynchronousQueue<Runnable>();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(
+                bulkheadConfig.getConcurrency(),
+                bulkheadConfig.getConcurrency(),
+                60, TimeUnit.SECONDS,
+                queue,
+                WorkerThreads.factory(executionConfig.getThreadMode(), "rlcp-" + methodName + "-flow-")
+        );
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+}
@@ -0,0 +1,56 @@
+package rlcp.server.executor;
+
+import rlcp.server.config.Config;
+import rlcp.server.config.ExecutionConfig;
+
+/**
+ * Execution model for accepted connections processing. Implementations decide where
+ * {@code ServerThread} work runs and what happens when server is overloaded.
+ *
+ * @see rlcp.server.ServerThread
+ */
+public interface ServerExecutor {
+
+    /**
+     * Tries to schedule connection processing task.
+     *
+     * @param task connection processing task
+     * @return {@code true} if task was accepted for processing, {@code false} if it was rejected
+     * and caller is responsible for answering the client
+     */
+    boolean tryExecute(Runnable task);
+
+    /**
+     * Tries to schedule connection processing task without running it in calling thread, whatever
+     * rejection policy is. Used by callers that must not block, such as NIO event loops. Default
+     * implementation calls {@code tryExecute()}, implementations that may run task in calling
+     * thread override it.
+     *
+     * @param task connection processing task
+     * @return {@code true} if task was accepted for processing, {@code false} if it was rejected
+     * and caller is responsible for answering the client
+     */
+    default boolean tryExecuteInBackground(Runnable task) {
+        return tryExecute(task);
+    }
+
+    /**
+     * Stops accepting new tasks and waits until already accepted ones are finished
+     * or drain time limit is exceeded.
+     */
+    void drain();
+
+    /**
+     * Returns default ServerExecutor for specified configuration: virtual thread per connection
+     * for {@code ExecutionConfig.ThreadMode.VIRTUAL} on supporting runtime, bounded pool otherwise.
+     *
+     * @param config server configuration
+     * @return default ServerExecutor for specified configuration
+     */
+    static ServerExecutor create(Config config) {
+        if (config.getExecutionConfig().getThreadMode() == ExecutionConfig.ThreadMode.VIRTUAL && WorkerThreads.isVirtualSupported()) {
+            return new VirtualThreadServerExecutor(config.getWorkerPoolConfig());
+        }
+        return new BoundedServerExecutor(config.getWorkerPoolConfig());
+    }
+}
@@ -0,0 +1,163 @@
+package rlcp.server.executor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Task with time limit counted from its start. Remembers when it was started and stopped;
+ * if it is cancelled but its thread keeps running, the thread is quarantined by
+ * TaskSupervisor until the task stops.
+ *
+ * @param <V> type of task result
+ * @see TaskSupervisor
+ */
+public class SupervisedTask<V> extends FutureTask<V> {
+
+    private final CountDownLatch started = new CountDownLatch(1);
+    private volatile long startTime;
+    private volatile long stopTime;
+    private TaskSupervisor supervisor;
+    private ThreadPoolExecutor pool;
+    private boolean poolResized = false;
+    private boolean exited = false;
+    private final List<Runnable> stopActions = new ArrayList<>();
+
+    /**
+     * Simple constructor.
+     *
+     * @param callable task body
+     */
+    public SupervisedTask(Callable<V> callable) {
+        super(callable);
+    }
+
+    @Override
+    public void run() {
+        startTime = System.nanoTime();
+        started.countDown();
+        try {
+            super.run();
+        } finally {
+            exit();
+        }
+    }
+
+    @Override
+    protected void set(V result) {
+        stopTime = System.nanoTime();
+        super.set(result);
+    }
+
+    @Override
+    protected void setException(Throwable exc) {
+        stopTime = System.nanoTime();
+        super.setException(exc);
+    }
+
+    @Override
+    public boolean cancel(boolean mayInterruptIfRunning) {
+        long cancelTime = System.nanoTime();
+        boolean cancelled = super.cancel(mayInterruptIfRunning);
+        if (cancelled) {
+            stopTime = cancelTime;
+        }
+        return cancelled;
+    }
+
+    /**
+     * Cancels task interrupting its thread. If task was cancelled before it completed and its
+     * thread has not left it yet, the thread is quarantined by supervisor until task stops. Task
+     * that completed is not cancelled, though its thread may not have left it yet. Task that was
+     * not started is removed from the queue of pool.
+     *
+     * @param supervisor supervisor of runaway tasks. Must not be null.
+     * @param pool       pool that runs the task, or {@code null} if task has own thread
+     */
+    public synchronized void cancelAndQuarantine(TaskSupervisor supervisor, ThreadPoolExecutor pool) {
+        cancel(true);
+        if (isCancelled() && started.getCount() == 0 && !exited && this.supervisor == null) {
+            this.supervisor = supervisor;
+            this.pool = pool;
+            this.poolResized = supervisor.quarantine(pool);
+        } else if (started.getCount() > 0 && pool != null) {
+            pool.remove(this);
+        }
+    }
+
+    /**
+     * Waits until task is started.
+     *
+     * @throws InterruptedException if waiting thread is interrupted
+     */
+    public void awaitStart() throws InterruptedException {
+        started.await();
+    }
+
+    /**
+     * Waits until task is started, but no longer than timeout.
+     *
+     * @param timeout maximum time to wait
+     * @param unit    time unit of timeout. Must not be null.
+     * @return {@code true} if task is started, {@code false} if timeout elapsed before it
+     * @throws InterruptedException if waiting thread is interrupted
+     */
+    public boolean awaitStart(long timeout, TimeUnit unit) throws InterruptedException {
+        return started.await(timeout, unit);
+    }
+
+    /**
+     * Runs action once no thread runs the task: right away if task is not running, otherwise in
+     * task thread when it leaves the task. Cancelled task may still be running, if its thread
+     * ignores interruption.
+     *
+     * @param action action to run. Must not be null.
+     */
+    public void whenStopped(Runnable action) {
+        synchronized (this) {
+            if (started.getCount() == 0 && !exited) {
+                stopActions.add(action);
+                return;
+            }
+        }
+        action.run();
+    }
+
+    /**
+     * Returns {@code System.nanoTime()} of task start.
+     *
+     * @return {@code System.nanoTime()} of task start
+     */
+    public long getStartTime() {
+        return startTime;
+    }
+
+    /**
+     * Returns task duration in nanoseconds: up to now if task is still running,
+     * up to cancellation if it was cancelled, 0 if it was not started.
+     *
+     * @return task duration in nanoseconds
+     */
+    public long getElapsedTimeInNanos() {
+        if (started.getCount() > 0) {
+            return 0;
+        }
+        return Math.max(0, (isDone() ? stopTime : System.nanoTime()) - startTime);
+    }
+
+    private void exit() {
+        synchronized (this) {
+            exited = true;
+            if (supervisor != null) {
+                supervisor.release(pool, poolResized);
+            }
+        }
+        for (Runnable action : stopActions) {
+            action.run();
+        }
+    }
+}
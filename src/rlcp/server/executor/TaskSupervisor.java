@@ -0,0 +1,128 @@
+package rlcp.server.executor;
+
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import rlcp.server.logger.Logger;
+
+import static rlcp.util.Constants.rlcpDefaultMaxReplacedRunawayThreadsPerPool;
+
+/**
+ * Keeps track of runaway tasks: tasks that were cancelled after their time limit but whose
+ * threads are still running because they ignore interruption. Such threads are quarantined
+ * until they stop: pool threads are replaced, so that the pool keeps its working size, and
+ * all of them are counted. No more than {@code maxReplacedThreadsPerPool} threads of one pool
+ * are replaced at once, so that tasks stuck in endless loops do not grow the pool without
+ * limit; runaway threads above it keep taking the place of pool workers. Thread-safe.
+ *
+ * @see SupervisedTask
+ */
+public class TaskSupervisor {
+
+    private final AtomicInteger runawayTaskCount = new AtomicInteger();
+    private final Map<ThreadPoolExecutor, Integer> replacedThreadCounts = new WeakHashMap<>();
+    private final int maxReplacedThreadsPerPool;
+
+    /**
+     * Constructor with {@code Constants.rlcpDefaultMaxReplacedRunawayThreadsPerPool} replaced
+     * threads per pool at most.
+     */
+    public TaskSupervisor() {
+        this(rlcpDefaultMaxReplacedRunawayThreadsPerPool);
+    }
+
+    /**
+     * Simple constructor.
+     *
+     * @param maxReplacedThreadsPerPool maximum number of runaway threads of one pool, that are
+     *                                  replaced by new pool threads at once
+     * @throws IllegalArgumentException if maxReplacedThreadsPerPool is negative
+     */
+    public TaskSupervisor(int maxReplacedThreadsPerPool) throws IllegalArgumentException {
+        if (maxReplacedThreadsPerPool < 0) {
+            throw new IllegalArgumentException("Max replaced threads per pool should not be negative: " + maxReplacedThreadsPerPool);
+        }
+        this.maxReplacedThreadsPerPool = maxReplacedThreadsPerPool;
+    }
+
+    /**
+     * Returns number of cancelled tasks that are still running.
+     *
+     * @return number of cancelled tasks that are still running
+     */
+    public int getRunawayTaskCount() {
+        return runawayTaskCount.get();
+    }
+
+    /**
+     * Quarantines thread of cancelled task that is still running.
+     *
+     * @param pool pool that runs the task, or {@code null} if task has own thread
+     * @return {@code true} if the pool got a thread to replace the runaway one
+     */
+    boolean quarantine(ThreadPoolExecutor pool) {
+        int count = runawayTaskCount.incrementAndGet();
+        boolean resized = pool != null && replaceThread(pool);
+        Logger.log("Cancelled task is still running and is quarantined. Runaway tasks: " + count);
+        return resized;
+    }
+
+    /**
+     * Releases thread of quarantined task after task stopped.
+     *
+     * @param pool    pool that runs the task, or {@code null} if task has own thread
+     * @param resized {@code true} if the pool got a thread to replace the runaway one
+     */
+    void release(ThreadPoolExecutor pool, boolean resized) {
+        int count = runawayTaskCount.decrementAndGet();
+        if (pool != null && resized) {
+            synchronized (replacedThreadCounts) {
+                replacedThreadCounts.merge(pool, -1, (old, delta) -> old + delta == 0 ? null : old + delta);
+            }
+            resizePool(pool, -1);
+        }
+        Logger.log("Quarantined task stopped. Runaway tasks: " + count);
+    }
+
+    /**
+     * Returns number of runaway threads of the pool, that are replaced by new pool threads.
+     *
+     * @param pool pool that runs tasks
+     * @return number of runaway threads of the pool, that are replaced by new pool threads
+     */
+    public int getReplacedThreadCount(ThreadPoolExecutor pool) {
+        synchronized (replacedThreadCounts) {
+            return replacedThreadCounts.getOrDefault(pool, 0);
+        }
+    }
+
+    private boolean replaceThread(ThreadPoolExecutor pool) {
+        synchronized (replacedThreadCounts) {
+            int replaced = replacedThreadCounts.getOrDefault(pool, 0);
+            if (replaced >= maxReplacedThreadsPerPool) {
+                return false;
+            }
+            replacedThreadCounts.put(pool, replaced + 1);
+        }
+        resizePool(pool, 1);
+        return true;
+    }
+
+    private static void resizePool(ThreadPoolExecutor pool, int delta) {
+        synchronized (pool) {
+            if (pool.isShutdown()) {
+                return;
+            }
+            //maximum size should never be less than core size
+            if (delta > 0) {
+                pool.setMaximumPoolSize(pool.getMaximumPoolSize() + delta);
+                pool.setCorePoolSize(pool.getCorePoolSize() + delta);
+            } else {
+                pool.setCorePoolSize(pool.getCorePoolSize() + delta);
+                pool.setMaximumPoolSize(pool.getMaximumPoolSize() + delta);
+            }
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package rlcp.server.executor;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+import rlcp.server.config.ExecutionConfig;
+import rlcp.server.config.WorkerPoolConfig;
+import rlcp.server.logger.Logger;
+import rlcp.util.Util;
+
+/**
+ * ServerExecutor implementation starting a new virtual thread for every connection. Virtual
+ * threads are not pooled; number of connections processed at once is limited by sum of
+ * max size and queue size of {@code WorkerPoolConfig}.
+ *
+ * @see WorkerThreads
+ */
+public class VirtualThreadServerExecutor implements ServerExecutor {
+
+    private final WorkerPoolConfig config;
+    private final ThreadFactory threadFactory;
+    private final Semaphore permits;
+    private final int maxPermits;
+    private volatile boolean isShutdown = false;
+
+    /**
+     * Simple constructor.
+     *
+     * @param config worker pool configuration. Must not be null.
+     * @throws IllegalArgumentException if config is null
+     */
+    public VirtualThreadServerExecutor(WorkerPoolConfig config) throws IllegalArgumentException {
+        Util.checkNotNull("WorkerPoolConfig is null in VirtualThreadServerExecutor constructor", config);
+        this.config = config;
+        this.threadFactory = WorkerThreads.factory(ExecutionConfig.ThreadMode.VIRTUAL, "rlcp-worker-");
+        this.maxPermits = config.getMaxSize() + config.getQueueSize();
+        this.permits = new Semaphore(maxPermits);
+    }
+
+    /**
+     * Starts task in new thread if concurrency limit allows, otherwise rejects it or runs
+     * it in calling thread according to rejection policy.
+     *
+     * @param task connection processing task
+     * @return {@code true} if task was accepted for processing, {@code false} if it was rejected
+     */
+    @Override
+    public boolean tryExecute(Runnable task) {
+        return tryExecute(task, config.getRejectionPolicy() == WorkerPoolConfig.RejectionPolicy.CALLER_RUNS);
+    }
+
+    /**
+     * Starts task in new thread if concurrency limit allows, otherwise rejects it.
+     *
+     * @param task connection processing task
+     * @return {@code true} if task was accepted for processing, {@code false} if it was rejected
+     */
+    @Override
+    public boolean tryExecuteInBackground(Runnable task) {
+        return tryExecute(task, false);
+    }
+
+    private boolean tryExecute(Runnable task, boolean callerRuns) {
+        if (isShutdown) {
+            return false;
+        }
+        if (!permits.tryAcquire()) {
+            if (callerRuns) {
+                task.run();
+                return true;
+            }
+            Logger.log("Worker limit " + maxPermits + " is reached");
+            return false;
+        }
+        threadFactory.newThread(() -> {
+            try {
+                task.run();
+            } finally {
+                permits.release();
+            }
+        }).start();
+        return true;
+    }
+
+    /**
+     * Stops accepting new connections and waits within drain time limit until all running
+     * ones are finished.
+     */
+    @Override
+    public void drain() {
+        isShutdown = true;
+        try {
+            if (permits.tryAcquire(maxPermits, config.getDrainTimeLimit(), TimeUnit.SECONDS)) {
+                permits.release(maxPermits);
+            } else {
+                Logger.log("Workers were not drained in " + config.getDrainTimeLimit() + " sec.");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
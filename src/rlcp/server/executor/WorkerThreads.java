@@ -0,0 +1,140 @@
+package rlcp.server.executor;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import rlcp.server.config.ExecutionConfig.ThreadMode;
+import rlcp.server.logger.Logger;
+
+/**
+ * Provides thread factories for server workers. Virtual threads are looked up reflectively,
+ * so the library is still built for and run on Java 8. Actions registered by {@code onExit()} in
+ * worker thread are run when the worker retires, for example when idle pool thread times out.
+ */
+public class WorkerThreads {
+
+    private static final Method ofVirtualMethod;
+    private static final Method nameMethod;
+    private static final Method factoryMethod;
+    private static final boolean virtualSupported;
+    private static final ThreadLocal<List<Runnable>> exitActions = new ThreadLocal<>();
+
+    static {
+        Method ofVirtual = null;
+        Method name = null;
+        Method factory = null;
+        boolean supported = false;
+        try {
+            Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+            ofVirtual = Thread.class.getMethod("ofVirtual");
+            name = builderClass.getMethod("name", String.class, long.class);
+            factory = builderClass.getMethod("factory");
+            factory.invoke(ofVirtual.invoke(null));
+            supported = true;
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            //runtime older than JDK 21 or virtual threads are preview and not enabled
+        }
+        ofVirtualMethod = ofVirtual;
+        nameMethod = name;
+        factoryMethod = factory;
+        virtualSupported = supported;
+    }
+
+    private WorkerThreads() {
+    }
+
+    /**
+     * Returns {@code true} if runtime supports virtual threads, {@code false} otherwise.
+     *
+     * @return {@code true} if runtime supports virtual threads, {@code false} otherwise
+     */
+    public static boolean isVirtualSupported() {
+        return virtualSupported;
+    }
+
+    /**
+     * Returns factory of named threads of specified kind. Platform threads are daemons.
+     * If virtual threads are requested but not supported, platform threads are used.
+     *
+     * @param mode       kind of threads
+     * @param namePrefix prefix of thread names, thread number is appended to it
+     * @return factory of named threads of specified kind
+     */
+    public static ThreadFactory factory(ThreadMode mode, String namePrefix) {
+        if (mode == ThreadMode.VIRTUAL) {
+            if (virtualSupported) {
+                return virtualFactory(namePrefix);
+            }
+            Logger.log("Virtual threads are not supported by runtime " + System.getProperty("java.version") + ". Platform threads are used.");
+        }
+        return new PlatformThreadFactory(namePrefix);
+    }
+
+    /**
+     * Registers action to be run by current thread when it finishes, if it is worker created by
+     * factory of this class. Actions are run in the order they are registered.
+     *
+     * @param action action to run when current worker retires. Must not be null.
+     * @return {@code true} if action is registered, {@code false} if current thread is not such worker
+     */
+    public static boolean onExit(Runnable action) {
+        Objects.requireNonNull(action);
+        List<Runnable> actions = exitActions.get();
+        if (actions == null) {
+            return false;
+        }
+        actions.add(action);
+        return true;
+    }
+
+    private static void runWorker(Runnable runnable) {
+        List<Runnable> actions = new ArrayList<>();
+        exitActions.set(actions);
+        try {
+            runnable.run();
+        } finally {
+            for (int i = 0; i < actions.size(); i++) {
+                try {
+                    actions.get(i).run();
+                } catch (RuntimeException e) {
+                    Logger.log(e);
+                }
+            }
+            exitActions.remove();
+        }
+    }
+
+    private static ThreadFactory virtualFactory(String namePrefix) {
+        try {
+            Object builder = nameMethod.invoke(ofVirtualMethod.invoke(null), namePrefix, 1L);
+            ThreadFactory factory = (ThreadFactory) factoryMethod.invoke(builder);
+            return runnable -> factory.newThread(() -> runWorker(runnable));
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Error at creating virtual thread factory", e);
+        }
+    }
+
+    /**
+     * Thread factory producing named daemon platform threads.
+     */
+    private static class PlatformThreadFactory implements ThreadFactory {
+
+        private final String namePrefix;
+        private final AtomicInteger counter = new AtomicInteger();
+
+        PlatformThreadFactory(String namePrefix) {
+            this.namePrefix = namePrefix;
+        }
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(() -> runWorker(runnable), namePrefix + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -33,10 +33,15 @@ public class RlcpCalculateFlow extends RlcpRequestFlow {
             Logger.log(msg);
             return new RlcpCalculateResponseBody(new CalculatingResult(msg, msg));
         }
-        CalculatingResult calculatingResult = calculateProcessor.calculate(
-                calculateRequestBody.getCondition(),
-                calculateRequestBody.getInstructions(),
-                calculateRequestBody.getPreGenerated());
+        CalculatingResult calculatingResult;
+        try {
+            calculatingResult = calculateProcessor.calculate(
+                    calculateRequestBody.getCondition(),
+                    calculateRequestBody.getInstructions(),
+                    calculateRequestBody.getPreGenerated());
+        } finally {
+            processorFactoryContainer.releaseProcessor(CalculateProcessor.class, calculateProcessor);
+        }
         RlcpCalculateResponseBody responseBody = new RlcpCalculateResponseBody(calculatingResult);
         return responseBody;
     }
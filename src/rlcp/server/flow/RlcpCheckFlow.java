@@ -6,6 +6,14 @@ import rlcp.check.ConditionForChecking;
 import rlcp.check.RlcpCheckRequestBody;
 import rlcp.check.RlcpCheckResponseBody;
 import rlcp.generate.GeneratingResult;
+import rlcp.server.config.Config;
+import rlcp.server.config.ExecutionConfig;
+import rlcp.server.config.User;
+import rlcp.server.executor.ChildJvmCheckProcessor;
+import rlcp.server.executor.FlowExecutors;
+import rlcp.server.executor.SupervisedTask;
+import rlcp.server.executor.TaskSupervisor;
+import rlcp.server.executor.WorkerThreads;
 import rlcp.server.logger.Logger;
 import rlcp.server.processor.check.CheckProcessor;
 import rlcp.server.processor.check.CheckProcessor.CheckingSingleConditionResult;
@@ -15,62 +23,124 @@ import rlcp.server.processor.check.PreCheckProcessor.PreCheckResult;
 import rlcp.server.processor.check.PreCheckResultAware;
 import rlcp.server.processor.factory.ProcessorFactoryContainer;
 
+import java.io.Serializable;
 import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static rlcp.util.Constants.rlcpDefaultCheckUnitTimeLimitInSec;
+import static rlcp.util.Constants.rlcpDefaultRequestFlowTimeLimitInSec;
 
 /**
  * Class for processing RLCP Check method requests.
  */
 public class RlcpCheckFlow extends RlcpRequestFlow {
 
+    private static final Config defaultConfig = new Config(0, Collections.<User>emptyList(), rlcpDefaultRequestFlowTimeLimitInSec, rlcpDefaultCheckUnitTimeLimitInSec);
+
+    /**
+     * Processes request body with default config and {@code FlowExecutors.getDefault()}.
+     *
+     * @param processorFactoryContainer flow modules container
+     * @param body                      Rlcp request body instance
+     * @return body of RLCP response for Check method
+     * @see #processBody(ProcessorFactoryContainer, RlcpRequestBody, Config, FlowExecutors)
+     */
+    @Override
+    public RlcpCheckResponseBody processBody(ProcessorFactoryContainer processorFactoryContainer, RlcpRequestBody body) {
+        return processBody(processorFactoryContainer, body, defaultConfig, FlowExecutors.getDefault());
+    }
 
     /**
      * The container must to put an instances {@code PreCheckProcessor}, {@code CheckProcessor}, {@code PostCheckProcessor}.
      * At the beginning perform the actions announced in {@code PreCheckProcessor}.
      * Later perform {@code CheckProcessor}, where in front of each check unit perform the actions announced in {@see PreCheckResultAware}.
+     * Check units are run one by one, or all at once on server-wide pool if {@code ExecutionConfig.CheckMode.PARALLEL} is configured.
+     * Either way every check unit has its own time limit and results are in the order of conditions.
      * At the end perform the actions announced in {@code PostCheckProcessor}.
+     * Processors are given back to their factories when request is processed.
      * <p>
      * As a result, request body for checking will be processed and will be returned response body checking.
      *
      * @param processorFactoryContainer flow modules container
      * @param body                      Rlcp request body instance
-     * @return body of RLCP response for Calculate method
+     * @param config                    server config
+     * @param flowExecutors             executors shared by flows
+     * @return body of RLCP response for Check method
      * @see PreCheckProcessor
      * @see CheckProcessor
      * @see PreCheckResultAware
      * @see PostCheckProcessor
      */
     @Override
-    public RlcpCheckResponseBody processBody(ProcessorFactoryContainer processorFactoryContainer, RlcpRequestBody body) {
+    public RlcpCheckResponseBody processBody(ProcessorFactoryContainer processorFactoryContainer, RlcpRequestBody body, Config config, FlowExecutors flowExecutors) {
         RlcpCheckRequestBody requestBody = (RlcpCheckRequestBody) body;
 
-        PreCheckResult preCheckResult = performPreCheck(processorFactoryContainer, requestBody);
-
-        List<CheckingResult> checkResults = new ArrayList<>();
+        PreCheckProcessor preCheckProcessor = processorFactoryContainer.getPreCheckAlgorithm();
         List<CheckProcessor> checkProcessors = new ArrayList<>();
-        for (ConditionForChecking checkUnit : requestBody.getConditionsList()) {
-            CheckProcessor checkProcessor = processorFactoryContainer.getProcessor(CheckProcessor.class);
-            checkProcessors.add(checkProcessor);
+        List<CheckTask> checkTasks = new ArrayList<>();
+        try {
+            PreCheckResult preCheckResult = performPreCheck(preCheckProcessor, requestBody);
 
-            CheckingResult checkingResult;
-            if (checkProcessor == null) {
-                checkingResult = getEmptyCheckingResult(checkUnit);
+            List<CheckingResult> checkResults = new ArrayList<>();
+            if (flowExecutors.getCheckUnitExecutor() != null) {
+                checkResults = performParallelChecks(processorFactoryContainer, requestBody, preCheckProcessor, preCheckResult, checkProcessors, checkTasks, config, flowExecutors);
             } else {
-                checkingResult = performCheck(processorFactoryContainer, requestBody, preCheckResult, checkUnit, checkProcessor);
+                ThreadFactory checkThreadFactory = WorkerThreads.factory(config.getExecutionConfig().getThreadMode(), "rlcp-check-unit-");
+                for (ConditionForChecking checkUnit : requestBody.getConditionsList()) {
+                    CheckProcessor checkProcessor = processorFactoryContainer.getProcessor(CheckProcessor.class);
+                    checkProcessors.add(checkProcessor);
+
+                    CheckingResult checkingResult;
+                    if (checkProcessor == null) {
+                        checkTasks.add(null);
+                        checkingResult = getEmptyCheckingResult(checkUnit);
+                    } else {
+                        CheckTask checkTask = createCheckTask(requestBody, preCheckProcessor, preCheckResult, checkUnit, checkProcessor, config);
+                        checkTasks.add(checkTask);
+                        checkingResult = performCheck(checkTask, checkUnit, checkThreadFactory, config, flowExecutors.getSupervisor());
+                    }
+                    checkResults.add(checkingResult);
+                }
             }
-            checkResults.add(checkingResult);
-        }
 
-        checkResults = performPostCheck(processorFactoryContainer, requestBody, preCheckResult, checkResults, checkProcessors);
+            checkResults = performPostCheck(processorFactoryContainer, requestBody, preCheckResult, checkResults, checkProcessors);
 
-        RlcpCheckResponseBody responseBody = new RlcpCheckResponseBody(checkResults);
-        return responseBody;
+            RlcpCheckResponseBody responseBody = new RlcpCheckResponseBody(checkResults);
+            return responseBody;
+        } finally {
+            releaseProcessors(processorFactoryContainer, preCheckProcessor, checkProcessors, checkTasks);
+        }
+    }
 
+    /**
+     * Gives processors of request back to their factories. Check processor of check unit, that
+     * exceeded its time limit and is still running, is given back only when it stops, so that it
+     * is never used by two requests at once.
+     */
+    private static void releaseProcessors(ProcessorFactoryContainer processorFactoryContainer, PreCheckProcessor<?> preCheckProcessor, List<CheckProcessor> checkProcessors, List<CheckTask> checkTasks) {
+        processorFactoryContainer.releaseProcessor(PreCheckProcessor.class, preCheckProcessor);
+        for (int i = 0; i < checkProcessors.size(); i++) {
+            CheckProcessor checkProcessor = checkProcessors.get(i);
+            CheckTask checkTask = i < checkTasks.size() ? checkTasks.get(i) : null;
+            if (checkTask == null) {
+                processorFactoryContainer.releaseProcessor(CheckProcessor.class, checkProcessor);
+            } else {
+                checkTask.whenStopped(() -> processorFactoryContainer.releaseProcessor(CheckProcessor.class, checkProcessor));
+            }
+        }
     }
 
-    private CheckingResult getEmptyCheckingResult(ConditionForChecking checkUnit) {
+    private static CheckingResult getEmptyCheckingResult(ConditionForChecking checkUnit) {
         CheckingResult checkingResult;
         String msg = "No CheckProcessor found";
         Logger.log(msg);
@@ -83,22 +153,101 @@ public class RlcpCheckFlow extends RlcpRequestFlow {
         return checkingResult;
     }
 
-    private CheckingResult performCheck(ProcessorFactoryContainer processorFactoryContainer, RlcpCheckRequestBody requestBody, PreCheckResult preCheckResult, ConditionForChecking checkUnit, CheckProcessor checkProcessor) {
-        CheckingResult checkingResult;
-        PreCheckProcessor preCheckAlgorithm = processorFactoryContainer.getPreCheckAlgorithm();
-        if ((checkProcessor instanceof PreCheckResultAware) && (preCheckAlgorithm!= null)) {
+    private static CheckingResult getRejectedCheckingResult(ConditionForChecking checkUnit) {
+        return new CheckingResult(
+                checkUnit.getId(),
+                0,
+                convertResult(BigDecimal.ZERO),
+                "Check unit is rejected by check unit pool"
+        );
+    }
+
+    private static CheckingResult performCheck(CheckTask checkTask, ConditionForChecking checkUnit, ThreadFactory checkThreadFactory, Config config, TaskSupervisor supervisor) {
+        Thread checkThread = checkThreadFactory.newThread(checkTask);
+        checkThread.setPriority(Thread.currentThread().getPriority() - 1);
+        checkThread.start();
+
+        CheckingSingleConditionResult cscResult = awaitCheckTaskResult(checkTask, getCheckUnitTimeLimit(checkUnit, config), supervisor, null);
+        return toCheckingResult(checkUnit, checkTask.getElapsedTimeInNanos(), cscResult);
+    }
+
+    /**
+     * Submits all check units to server-wide pool at once, then collects results in the order of
+     * conditions. Processors are obtained and given PreCheckResult in the flow thread, so
+     * factories and PreCheckResultAware processors are used the same way as in sequential mode.
+     * Time limit of every check unit is counted from the moment it starts running; units not
+     * finished within it are interrupted and, if they ignore interruption, quarantined.
+     */
+    private static List<CheckingResult> performParallelChecks(ProcessorFactoryContainer processorFactoryContainer, RlcpCheckRequestBody requestBody, PreCheckProcessor<?> preCheckProcessor, PreCheckResult<?> preCheckResult, List<CheckProcessor> checkProcessors, List<CheckTask> checkTasks, Config config, FlowExecutors flowExecutors) {
+        ThreadPoolExecutor checkUnitExecutor = flowExecutors.getCheckUnitExecutor();
+        List<ConditionForChecking> checkUnits = requestBody.getConditionsList();
+        CheckingResult[] checkResults = new CheckingResult[checkUnits.size()];
+        try {
+            for (int i = 0; i < checkUnits.size(); i++) {
+                ConditionForChecking checkUnit = checkUnits.get(i);
+                CheckProcessor checkProcessor = processorFactoryContainer.getProcessor(CheckProcessor.class);
+                checkProcessors.add(checkProcessor);
+                CheckTask checkTask = null;
+                if (checkProcessor == null) {
+                    checkResults[i] = getEmptyCheckingResult(checkUnit);
+                } else {
+                    checkTask = createCheckTask(requestBody, preCheckProcessor, preCheckResult, checkUnit, checkProcessor, config);
+                    try {
+                        checkUnitExecutor.execute(checkTask);
+                    } catch (RejectedExecutionException e) {
+                        Logger.log(e);
+                        checkTask = null;
+                        checkResults[i] = getRejectedCheckingResult(checkUnit);
+                    }
+                }
+                checkTasks.add(checkTask);
+            }
+
+            for (int i = 0; i < checkUnits.size(); i++) {
+                ConditionForChecking checkUnit = checkUnits.get(i);
+                CheckTask checkTask = checkTasks.get(i);
+                if (checkTask != null) {
+                    CheckingSingleConditionResult cscResult = awaitCheckTaskResult(checkTask, getCheckUnitTimeLimit(checkUnit, config), flowExecutors.getSupervisor(), checkUnitExecutor);
+                    checkResults[i] = toCheckingResult(checkUnit, checkTask.getElapsedTimeInNanos(), cscResult);
+                }
+            }
+            return new ArrayList<>(Arrays.asList(checkResults));
+        } finally {
+            for (CheckTask checkTask : checkTasks) {
+                if (checkTask != null) {
+                    checkTask.cancelAndQuarantine(flowExecutors.getSupervisor(), checkUnitExecutor);
+                }
+            }
+        }
+    }
+
+    private static CheckTask createCheckTask(RlcpCheckRequestBody requestBody, PreCheckProcessor<?> preCheckProcessor, PreCheckResult<?> preCheckResult, ConditionForChecking checkUnit, CheckProcessor checkProcessor, Config config) {
+        if ((checkProcessor instanceof PreCheckResultAware) && (preCheckProcessor != null)) {
             ((PreCheckResultAware) checkProcessor).setPreCheckResult(preCheckResult);
         }
+        if (config.getExecutionConfig().getIsolation() == ExecutionConfig.Isolation.PROCESS) {
+            if (checkProcessor instanceof Serializable) {
+                checkProcessor = new ChildJvmCheckProcessor(checkProcessor);
+            } else {
+                Logger.log("CheckProcessor " + checkProcessor.getClass().getName() + " is not serializable and is run in server process");
+            }
+        }
 
-        CheckThread checkThread = new CheckThread(checkProcessor,
+        return new CheckTask(checkProcessor,
                 checkUnit,
                 requestBody.getInstructions(),
                 requestBody.getPreGenerated()
         );
+    }
 
-        long checkUnitTimeLimit = checkUnit.getTime() > 0 ? checkUnit.getTime() : super.config.getCheckUnitTimeLimit();
-        long elapsedTime = tryToRunCheckThreadAndGetElapsedTime(checkThread, checkUnitTimeLimit);
-        CheckingSingleConditionResult cscResult = checkThread.getResult();
+    private static long getCheckUnitTimeLimit(ConditionForChecking checkUnit, Config config) {
+        return checkUnit.getTime() > 0 ? checkUnit.getTime() : config.getCheckUnitTimeLimit();
+    }
+
+    private static CheckingResult toCheckingResult(ConditionForChecking checkUnit, long elapsedTimeInNanos, CheckingSingleConditionResult cscResult) {
+        if (cscResult == null) {
+            cscResult = new CheckingSingleConditionResult(BigDecimal.ZERO, "Time limit exceeded");
+        }
         String result;
         try {
             result = checkAndConvertResult(cscResult.getResult());
@@ -107,8 +256,7 @@ public class RlcpCheckFlow extends RlcpRequestFlow {
             Logger.log(e);
         }
         int id = checkUnit.getId();
-        checkingResult = new CheckingResult(id, elapsedTime, result, cscResult.getComment());
-        return checkingResult;
+        return new CheckingResult(id, result, cscResult.getComment(), elapsedTimeInNanos);
     }
 
     private static List<CheckingResult> performPostCheck(ProcessorFactoryContainer processorFactoryContainer, RlcpCheckRequestBody requestBody, PreCheckResult preCheckResult, List<CheckingResult> checkResults, List<CheckProcessor> checkProcessors) {
@@ -120,14 +268,15 @@ public class RlcpCheckFlow extends RlcpRequestFlow {
                 checkResults = getCheckingResultsIfTheyAreValidOrGetDefault(requestBody, checkResults, checkingResultsCopy);
             } catch (Exception e) {
                 Logger.log(e);
+            } finally {
+                processorFactoryContainer.releaseProcessor(PostCheckProcessor.class, postCheckProcessor);
             }
         }
         return checkResults;
     }
 
-    private static PreCheckResult performPreCheck(ProcessorFactoryContainer processorFactoryContainer, RlcpCheckRequestBody requestBody) {
+    private static PreCheckResult performPreCheck(PreCheckProcessor preCheckAlgorithm, RlcpCheckRequestBody requestBody) {
         PreCheckResult preCheckResult = null;
-        PreCheckProcessor preCheckAlgorithm = processorFactoryContainer.getPreCheckAlgorithm();
         if (preCheckAlgorithm != null) {
             try {
                 preCheckResult = preCheckAlgorithm.preCheck(
@@ -161,26 +310,35 @@ public class RlcpCheckFlow extends RlcpRequestFlow {
         return checkResults;
     }
 
-    private static long tryToRunCheckThreadAndGetElapsedTime(CheckThread thread, long timeLimit) {
-        long elapsedTime = 0;
+    /**
+     * Waits until task is started, then waits for its result no longer than time limit counted
+     * from its start. Task not started within time limit, because pool is busy with other
+     * units, is not finished in time either. Task not finished in time is cancelled, its thread
+     * is interrupted and quarantined if it keeps running. Interruption of the flow thread stops
+     * waiting for this and all remaining tasks.
+     *
+     * @return check result or {@code null} if check is not finished in time
+     */
+    private static CheckingSingleConditionResult awaitCheckTaskResult(CheckTask task, long timeLimit, TaskSupervisor supervisor, ThreadPoolExecutor pool) {
         try {
-            elapsedTime = runThreadTaskAndGetElapsedTime(thread, timeLimit);
+            long timeLimitInNanos = TimeUnit.SECONDS.toNanos(timeLimit);
+            if (!task.awaitStart(timeLimitInNanos, TimeUnit.NANOSECONDS)) {
+                return null;
+            }
+            long remainingTime = timeLimitInNanos - (System.nanoTime() - task.getStartTime());
+            return task.get(remainingTime, TimeUnit.NANOSECONDS);
+        } catch (TimeoutException | CancellationException exc) {
+            return null;
+        } catch (ExecutionException exc) {
+            Logger.log(exc);
+            return new CheckingSingleConditionResult(BigDecimal.ZERO, "Exception while checking");
         } catch (InterruptedException exc) {
             Logger.log(exc);
+            Thread.currentThread().interrupt();
+            return null;
+        } finally {
+            task.cancelAndQuarantine(supervisor, pool);
         }
-        return elapsedTime;
-    }
-
-    private static long runThreadTaskAndGetElapsedTime(CheckThread thread, long timeLimit) throws InterruptedException {
-        thread.setPriority(Thread.currentThread().getPriority() - 1);
-        thread.start();
-        long startTime = System.currentTimeMillis();
-        while ((System.currentTimeMillis() - startTime) < timeLimit * 1000 && !thread.isStopped()) {
-            Thread.sleep(50);
-        }
-        long endTime = System.currentTimeMillis();
-        thread.interrupt();
-        return endTime - startTime;
     }
 
     private static String checkAndConvertResult(BigDecimal number) {
@@ -200,16 +358,10 @@ public class RlcpCheckFlow extends RlcpRequestFlow {
     }
 
     /**
-     * Class for single check unit processing.
+     * Class for single check unit processing. It is run in separate platform or virtual thread,
+     * or on server-wide check unit pool.
      */
-    private static class CheckThread extends Thread {
-
-        private CheckProcessor processor;
-        private ConditionForChecking conditionForChecking;
-        private String instructions;
-        private GeneratingResult generatingResult;
-        private CheckingSingleConditionResult result;
-        private boolean isStopped = false;
+    private static class CheckTask extends SupervisedTask<CheckingSingleConditionResult> {
 
         /**
          * simple constructor.
@@ -219,35 +371,14 @@ public class RlcpCheckFlow extends RlcpRequestFlow {
          * @param instructions         serialized user anwer
          * @param generatingResult     data from previous Generate method call
          */
-        public CheckThread(CheckProcessor checkLogic, ConditionForChecking conditionForChecking, String instructions, GeneratingResult generatingResult) {
-            this.processor = checkLogic;
-            this.conditionForChecking = conditionForChecking;
-            this.instructions = instructions;
-            this.generatingResult = generatingResult;
-        }
-
-        @Override
-        public void run() {
-            try {
-                result = processor.checkSingleCondition(conditionForChecking, instructions, generatingResult);
-            } catch (Exception exc) {
-                result = new CheckingSingleConditionResult(BigDecimal.ZERO, "Exception while checking");
-            }
-            isStopped = true;
-        }
-
-
-        public CheckingSingleConditionResult getResult() {
-            return result;
-        }
-
-        /**
-         * Returns {@code true} if check is finished, {@code false} - otherwise.
-         *
-         * @return {@code true} if check is finished, {@code false} - otherwise.
-         */
-        public boolean isStopped() {
-            return isStopped;
+        public CheckTask(CheckProcessor checkLogic, ConditionForChecking conditionForChecking, String instructions, GeneratingResult generatingResult) {
+            super(() -> {
+                try {
+                    return checkLogic.checkSingleCondition(conditionForChecking, instructions, generatingResult);
+                } catch (Exception exc) {
+                    return new CheckingSingleConditionResult(BigDecimal.ZERO, "Exception while checking");
+                }
+            });
         }
     }
 }
@@ -1,11 +1,26 @@
 package rlcp.server.flow;
 
+import rlcp.RlcpRequest;
 import rlcp.RlcpRequestBody;
+import rlcp.RlcpResponse;
 import rlcp.RlcpResponseBody;
 import rlcp.echo.RlcpEchoResponseBody;
+import rlcp.server.config.Config;
+import rlcp.server.executor.FlowExecutors;
 import rlcp.server.processor.factory.ProcessorFactoryContainer;
 
+/**
+ * Flow of ECHO requests. ECHO is used to check server availability, so it is processed
+ * inline on calling thread, bypassing method pools and their limits.
+ */
 public class RlcpEchoFlow extends RlcpRequestFlow {
+
+    @Override
+    public RlcpResponse processRequest(RlcpRequest rlcpRequest, ProcessorFactoryContainer processorFactoryContainer, Config config, FlowExecutors flowExecutors) {
+        RlcpResponseBody responseBody = processBody(processorFactoryContainer, rlcpRequest.getBody());
+        return responseBody.getMethod().buildResponse(responseBody);
+    }
+
     @Override
     public RlcpResponseBody processBody(ProcessorFactoryContainer processorFactoryContainer, RlcpRequestBody body) {
         return new RlcpEchoResponseBody();
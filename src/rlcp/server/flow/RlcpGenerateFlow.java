@@ -32,7 +32,12 @@ public class RlcpGenerateFlow extends RlcpRequestFlow {
         }
 
         RlcpGenerateRequestBody requestBody = (RlcpGenerateRequestBody) body;
-        GeneratingResult result = generateProcessor.generate(requestBody.getCondition());
+        GeneratingResult result;
+        try {
+            result = generateProcessor.generate(requestBody.getCondition());
+        } finally {
+            container.releaseProcessor(GenerateProcessor.class, generateProcessor);
+        }
         RlcpGenerateResponseBody responseBody = new RlcpGenerateResponseBody(result);
         return responseBody;
     }
@@ -7,17 +7,18 @@ import rlcp.RlcpResponseBody;
 import rlcp.check.RlcpCheckResponseBody;
 import rlcp.exception.RlcpException;
 import rlcp.server.config.Config;
+import rlcp.server.executor.FlowExecutors;
+import rlcp.server.executor.SupervisedTask;
 import rlcp.server.processor.factory.ProcessorFactoryContainer;
 
 import java.util.concurrent.*;
 
 /**
- * Class for processing RLCP-method requests.
+ * Class for processing RLCP-method requests. Flows are stateless: configuration and executors
+ * are passed with every request, so one flow instance serves all requests of its method.
  */
 public abstract class RlcpRequestFlow {
 
-    protected Config config;
-
     /**
      * Processes RLCP request using specified RequestProcessLogic from LogicContainer.
      *
@@ -27,20 +28,37 @@ public abstract class RlcpRequestFlow {
      * @return Rlcp response
      */
     public RlcpResponse processRequest(RlcpRequest rlcpRequest, ProcessorFactoryContainer processorFactoryContainer, Config config) {
-        this.config = config;
+        return processRequest(rlcpRequest, processorFactoryContainer, config, null);
+    }
 
-        ExecutorService executor = Executors.newSingleThreadExecutor();
-        Future<RlcpResponseBody> future = executor.submit(new ProcessRequestBodyTask(rlcpRequest, processorFactoryContainer));
+    /**
+     * Processes RLCP request using specified RequestProcessLogic from LogicContainer and executors
+     * shared by flows of the server. Request body is processed on pool of request method within
+     * request flow time limit, that includes waiting for a free pool thread.
+     *
+     * @param rlcpRequest               Rlcp request
+     * @param processorFactoryContainer container of RequestProcessLogic instances
+     * @param config                    server config
+     * @param flowExecutors             executors shared by flows, or {@code null} for {@code FlowExecutors.getDefault()}
+     * @return Rlcp response
+     * @throws RejectedExecutionException if pool of request method is saturated
+     */
+    public RlcpResponse processRequest(RlcpRequest rlcpRequest, ProcessorFactoryContainer processorFactoryContainer, Config config, FlowExecutors flowExecutors) {
+        if (flowExecutors == null) {
+            flowExecutors = FlowExecutors.getDefault();
+        }
+        ThreadPoolExecutor executor = flowExecutors.getFlowExecutor(rlcpRequest.getMethod().getName());
+        SupervisedTask<RlcpResponseBody> future = new SupervisedTask<>(
+                new ProcessRequestBodyTask(rlcpRequest, processorFactoryContainer, config, flowExecutors));
 
+        executor.execute(future);
         try {
             RlcpResponseBody responseBody = future.get(config.getRequestFlowTimeLimit(), TimeUnit.SECONDS);
             return responseBody.getMethod().buildResponse(responseBody);
         } catch (TimeoutException | ExecutionException | InterruptedException e) {
-            future.cancel(true);
+            future.cancelAndQuarantine(flowExecutors.getSupervisor(), executor);
             e.printStackTrace();
             throw new RlcpException("Failed to process request");
-        } finally {
-            executor.shutdownNow();
         }
     }
 //
@@ -60,19 +78,38 @@ public abstract class RlcpRequestFlow {
      */
     public abstract RlcpResponseBody processBody(ProcessorFactoryContainer processorFactoryContainer, RlcpRequestBody body);
 
+    /**
+     * Processes RlcpRequestBody with specified RequestProcessLogic, server config and executors.
+     * Returns body of RlcpResponse. Flows that do not depend on config and executors should
+     * implement {@code processBody(processorFactoryContainer, body)} only.
+     *
+     * @param processorFactoryContainer flow modules container
+     * @param body                      Rlcp request body instance
+     * @param config                    server config
+     * @param flowExecutors             executors shared by flows
+     * @return body of RlcpResponse
+     */
+    public RlcpResponseBody processBody(ProcessorFactoryContainer processorFactoryContainer, RlcpRequestBody body, Config config, FlowExecutors flowExecutors) {
+        return processBody(processorFactoryContainer, body);
+    }
+
     private class ProcessRequestBodyTask implements Callable<RlcpResponseBody> {
         private final RlcpRequest rlcpRequest;
         private final ProcessorFactoryContainer processorFactoryContainer;
+        private final Config config;
+        private final FlowExecutors flowExecutors;
 
-        public ProcessRequestBodyTask(RlcpRequest rlcpRequest, ProcessorFactoryContainer processorFactoryContainer) {
+        public ProcessRequestBodyTask(RlcpRequest rlcpRequest, ProcessorFactoryContainer processorFactoryContainer, Config config, FlowExecutors flowExecutors) {
             this.rlcpRequest = rlcpRequest;
             this.processorFactoryContainer = processorFactoryContainer;
+            this.config = config;
+            this.flowExecutors = flowExecutors;
         }
 
         @Override
         public RlcpResponseBody call() throws Exception {
             RlcpRequestBody requestBody = rlcpRequest.getBody();
-            RlcpResponseBody responseBody = processBody(processorFactoryContainer, requestBody);
+            RlcpResponseBody responseBody = processBody(processorFactoryContainer, requestBody, config, flowExecutors);
             return responseBody;
         }
     }
@@ -0,0 +1,177 @@
+package rlcp.server.nio;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+
+import rlcp.server.config.ConnectionConfig;
+import rlcp.server.logger.Logger;
+
+/**
+ * Single-threaded selector loop serving reading and writing of many connections.
+ * All channel operations happen in loop thread; other threads pass work to it with
+ * {@code execute(Runnable)}. If read time limit is set, loop wakes up at least once a second
+ * and closes connections idle longer than the limit.
+ */
+class EventLoop implements Runnable {
+
+    private static final int readBufferSize = 16 * 1024;
+    private static final long idleCheckIntervalInMillis = 1000;
+
+    private final NioServer server;
+    private final ConnectionConfig connectionConfig;
+    private final long idleTimeLimitInNanos;
+    private long nextIdleCheckTime;
+    private final Selector selector;
+    private final Thread thread;
+    private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+    private final ByteBuffer readBuffer = ByteBuffer.allocate(readBufferSize);
+    private volatile boolean isRunning = true;
+
+    /**
+     * Simple constructor.
+     *
+     * @param server           server dispatching read requests
+     * @param connectionConfig connection handling configuration
+     * @param threadName       name of loop thread
+     * @throws IOException if selector can not be opened
+     */
+    EventLoop(NioServer server, ConnectionConfig connectionConfig, String threadName) throws IOException {
+        this.server = server;
+        this.connectionConfig = connectionConfig;
+        this.idleTimeLimitInNanos = TimeUnit.SECONDS.toNanos(connectionConfig.getReadTimeLimit());
+        this.selector = Selector.open();
+        this.thread = new Thread(this, threadName);
+        this.thread.setDaemon(true);
+    }
+
+    void start() {
+        thread.start();
+    }
+
+    /**
+     * Registers accepted channel for reading.
+     *
+     * @param channel accepted channel
+     */
+    void register(SocketChannel channel) {
+        execute(() -> {
+            try {
+                channel.configureBlocking(false);
+                SelectionKey key = channel.register(selector, SelectionKey.OP_READ);
+                key.attach(new NioConnection(this, server, channel, key, connectionConfig));
+                Logger.log("Request...");
+            } catch (IOException e) {
+                Logger.log(e);
+                closeQuietly(channel);
+            }
+        });
+    }
+
+    /**
+     * Runs task in loop thread.
+     *
+     * @param task task to run
+     */
+    void execute(Runnable task) {
+        tasks.add(task);
+        selector.wakeup();
+    }
+
+    /**
+     * Stops loop after already scheduled tasks are run and closes all its connections.
+     */
+    void shutdown() {
+        execute(() -> isRunning = false);
+    }
+
+    @Override
+    public void run() {
+        try {
+            nextIdleCheckTime = System.nanoTime();
+            while (isRunning) {
+                if (idleTimeLimitInNanos > 0) {
+                    selector.select(idleCheckIntervalInMillis);
+                } else {
+                    selector.select();
+                }
+                runTasks();
+                processSelectedKeys();
+                closeIdleConnections();
+            }
+        } catch (IOException e) {
+            Logger.log(e);
+        } finally {
+            closeAll();
+        }
+    }
+
+    private void runTasks() {
+        Runnable task;
+        while ((task = tasks.poll()) != null) {
+            task.run();
+        }
+    }
+
+    private void processSelectedKeys() {
+        Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+        while (keys.hasNext()) {
+            SelectionKey key = keys.next();
+            keys.remove();
+            NioConnection connection = (NioConnection) key.attachment();
+            try {
+                if (key.isValid() && key.isReadable()) {
+                    connection.onReadable(readBuffer);
+                }
+                if (key.isValid() && key.isWritable()) {
+                    connection.onWritable();
+                }
+            } catch (IOException e) {
+                Logger.log(e);
+                connection.close();
+            }
+        }
+    }
+
+    private void closeIdleConnections() {
+        if (idleTimeLimitInNanos == 0) {
+            return;
+        }
+        long now = System.nanoTime();
+        if (now - nextIdleCheckTime < 0) {
+            return;
+        }
+        nextIdleCheckTime = now + TimeUnit.MILLISECONDS.toNanos(idleCheckIntervalInMillis);
+        for (SelectionKey key : selector.keys()) {
+            NioConnection connection = (NioConnection) key.attachment();
+            if (connection != null && connection.isIdle(now, idleTimeLimitInNanos)) {
+                Logger.log("Connection is idle longer than " + connectionConfig.getReadTimeLimit() + " s, closing");
+                connection.close();
+            }
+        }
+    }
+
+    private void closeAll() {
+        for (SelectionKey key : selector.keys()) {
+            closeQuietly(key.channel());
+        }
+        try {
+            selector.close();
+        } catch (IOException e) {
+            Logger.log(e);
+        }
+    }
+
+    static void closeQuietly(java.nio.channels.Channel channel) {
+        try {
+            channel.close();
+        } catch (IOException ex) {
+        }
+    }
+}
@@ -0,0 +1,200 @@
+package rlcp.server.nio;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
+import java.util.Arrays;
+
+import rlcp.exception.BadRlcpHeaderException;
+import rlcp.server.config.ConnectionConfig;
+import rlcp.server.logger.Logger;
+import rlcp.util.Constants;
+import rlcp.util.RlcpFrameReader;
+import rlcp.util.Util;
+
+/**
+ * State of single non-blocking connection: request bytes read so far and response bytes
+ * left to write. Request is framed and its header and body are limited in size as by blocking
+ * front end, and time of last reading or writing is kept, so that event loop closes idle
+ * connections. Connection serves single request: it is closed after response.
+ * Accessed from its event loop thread only.
+ */
+class NioConnection {
+
+    private final EventLoop eventLoop;
+    private final NioServer server;
+    private final SocketChannel channel;
+    private final SelectionKey key;
+    private final ByteArrayOutputStream input = new ByteArrayOutputStream();
+    private final boolean contentLengthFraming;
+    private final int maxHeaderSize;
+    private final int maxBodySize;
+    private ByteBuffer output;
+    private long lastActivityTime = System.nanoTime();
+    //state of header end search
+    private int received = 0;
+    private int lineStart = 0;
+    private byte lastByte = 0;
+    private int headerSize = -1;
+    private int bodyLength = -1;
+
+    /**
+     * Simple constructor.
+     *
+     * @param eventLoop loop serving this connection
+     * @param server    server dispatching read requests
+     * @param channel   connection channel
+     * @param key       channel registration key
+     * @param config    connection handling configuration
+     */
+    NioConnection(EventLoop eventLoop, NioServer server, SocketChannel channel, SelectionKey key, ConnectionConfig config) {
+        this.eventLoop = eventLoop;
+        this.server = server;
+        this.channel = channel;
+        this.key = key;
+        this.contentLengthFraming = config.getFraming() == ConnectionConfig.Framing.CONTENT_LENGTH;
+        this.maxHeaderSize = config.getMaxHeaderSize();
+        this.maxBodySize = config.getMaxBodySize();
+    }
+
+    /**
+     * Reads available bytes. Request is complete when content-length bytes of body are read, if
+     * header shows that client counts content-length in bytes and {@code Framing.CONTENT_LENGTH}
+     * is configured, or when client shuts down its output otherwise. If request header or body
+     * exceeds its limit or header is malformed, reading stops and request is dispatched as
+     * failed input.
+     *
+     * @param readBuffer loop-wide heap buffer for reading
+     * @throws IOException if an I/O error occurs
+     */
+    void onReadable(ByteBuffer readBuffer) throws IOException {
+        int read;
+        while ((read = channel.read(readBuffer)) > 0) {
+            lastActivityTime = System.nanoTime();
+            input.write(readBuffer.array(), 0, readBuffer.position());
+            boolean headerComplete = headerSize >= 0;
+            String limitError = checkLimits(readBuffer.array(), readBuffer.position());
+            readBuffer.clear();
+            if (limitError == null && !headerComplete && headerSize >= 0) {
+                limitError = parseFraming();
+            }
+            if (limitError != null) {
+                Logger.log(limitError);
+                key.interestOps(0);
+                server.dispatch(this, null);
+                return;
+            }
+            if (bodyLength >= 0 && received - headerSize >= bodyLength) {
+                key.interestOps(0);
+                server.dispatch(this, Arrays.copyOf(input.toByteArray(), headerSize + bodyLength));
+                return;
+            }
+        }
+        if (read < 0) {
+            key.interestOps(0);
+            server.dispatch(this, input.toByteArray());
+        }
+    }
+
+    /**
+     * Writes pending response bytes and closes connection when all of them are written.
+     *
+     * @throws IOException if an I/O error occurs
+     */
+    void onWritable() throws IOException {
+        if (channel.write(output) > 0) {
+            lastActivityTime = System.nanoTime();
+        }
+        if (!output.hasRemaining()) {
+            close();
+        }
+    }
+
+    /**
+     * Returns {@code true} if connection is reading request or writing response, and has not
+     * read or written anything for longer than time limit. Request being processed by worker
+     * is never idle.
+     *
+     * @param now                 {@code System.nanoTime()} of the check
+     * @param idleTimeLimitInNanos idle time limit in nanoseconds
+     * @return {@code true} if connection is idle longer than time limit
+     */
+    boolean isIdle(long now, long idleTimeLimitInNanos) {
+        return key.isValid() && key.interestOps() != 0 && now - lastActivityTime > idleTimeLimitInNanos;
+    }
+
+    /**
+     * Schedules response writing. Response is written right away if socket buffer allows,
+     * the rest is written when channel becomes writable. May be called from any thread.
+     *
+     * @param response response bytes
+     */
+    void write(byte[] response) {
+        eventLoop.execute(() -> {
+            if (!key.isValid()) {
+                return;
+            }
+            output = ByteBuffer.wrap(response);
+            lastActivityTime = System.nanoTime();
+            try {
+                onWritable();
+                if (output.hasRemaining()) {
+                    key.interestOps(SelectionKey.OP_WRITE);
+                }
+            } catch (IOException e) {
+                close();
+            }
+        });
+    }
+
+    /**
+     * Continues search of header end over just read bytes, the way {@code RlcpFrameReader} finds
+     * it, and checks header and body sizes.
+     *
+     * @return error message if header or body exceeds its limit, otherwise {@code null}
+     */
+    private String checkLimits(byte[] chunk, int length) {
+        for (int i = 0; i < length && headerSize < 0; i++) {
+            byte b = chunk[i];
+            int index = received + i;
+            if (b == '\n') {
+                int lineLength = index - lineStart;
+                if (lineLength == 0 || (lineLength == 1 && lastByte == '\r')) {
+                    headerSize = index + 1;
+                }
+                lineStart = index + 1;
+            }
+            lastByte = b;
+        }
+        received += length;
+        if (headerSize < 0) {
+            return received > maxHeaderSize ? "Header exceeds limit " + maxHeaderSize + " bytes" : null;
+        }
+        return received - headerSize > maxBodySize ? "Body exceeds limit " + maxBodySize + " bytes" : null;
+    }
+
+    /**
+     * Finds body length of just completed header, the way {@code RlcpFrameReader} does.
+     *
+     * @return error message if header is malformed or body exceeds its limit, otherwise {@code null}
+     */
+    private String parseFraming() {
+        if (!contentLengthFraming) {
+            return null;
+        }
+        String header = Util.decode(ByteBuffer.wrap(input.toByteArray(), 0, headerSize), Constants.rlcpDefaultCharset);
+        try {
+            bodyLength = RlcpFrameReader.getFramedBodyLength(header);
+        } catch (BadRlcpHeaderException e) {
+            return e.getMessage();
+        }
+        return bodyLength > maxBodySize ? "content-length " + bodyLength + " exceeds limit " + maxBodySize : null;
+    }
+
+    void close() {
+        key.cancel();
+        EventLoop.closeQuietly(channel);
+    }
+}
@@ -0,0 +1,180 @@
+package rlcp.server.nio;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+
+import rlcp.RlcpCode;
+import rlcp.RlcpResponse;
+import rlcp.exception.BadRlcpHeaderException;
+import rlcp.server.RequestHandler;
+import rlcp.server.config.Config;
+import rlcp.server.executor.ServerExecutor;
+import rlcp.server.logger.Logger;
+import rlcp.server.processor.factory.ProcessorFactoryContainer;
+import rlcp.util.Constants;
+import rlcp.util.Util;
+
+/**
+ * Non-blocking RLCP-server front end. Connections are accepted in the calling thread and
+ * distributed among a few event loops, which read requests and write responses. Only
+ * fully read requests are passed to {@code ServerExecutor} workers for processing, so
+ * slow or idle clients do not hold worker threads.
+ *
+ * @see EventLoop
+ * @see rlcp.server.config.ConnectionConfig.IoMode#NIO
+ */
+public class NioServer implements Runnable {
+
+    private final Config config;
+    private final RequestHandler requestHandler;
+    private final ServerExecutor executor;
+    private final EventLoop[] eventLoops;
+    private volatile boolean isRunning = false;
+    private ServerSocketChannel serverChannel;
+
+    /**
+     * Simple constructor. All params must not be null.
+     *
+     * @param config                    configuration
+     * @param processorFactoryContainer flow modules container
+     * @param executor                  workers for request processing
+     * @throws IllegalArgumentException if any parameter is null
+     */
+    public NioServer(Config config, ProcessorFactoryContainer processorFactoryContainer, ServerExecutor executor) throws IllegalArgumentException {
+        this(config, new RequestHandler(config, processorFactoryContainer), executor);
+    }
+
+    /**
+     * Constructor with request handler shared by server. All params must not be null.
+     *
+     * @param config         configuration
+     * @param requestHandler handler of fully read requests
+     * @param executor       workers for request processing
+     * @throws IllegalArgumentException if any parameter is null
+     */
+    public NioServer(Config config, RequestHandler requestHandler, ServerExecutor executor) throws IllegalArgumentException {
+        Util.checkNotNull("Config, requestHandler or executor is null in NioServer constructor", config, requestHandler, executor);
+        this.config = config;
+        this.requestHandler = requestHandler;
+        this.executor = executor;
+        this.eventLoops = new EventLoop[config.getConnectionConfig().getEventLoopThreads()];
+    }
+
+    /**
+     * Starts event loops and accepts connections until {@code stop()} is called. Event loops keep
+     * running after return, so that requests already passed to workers are answered; owner of
+     * executor drains it and then calls {@code close()}.
+     */
+    @Override
+    public void run() {
+        isRunning = true;
+        try {
+            for (int i = 0; i < eventLoops.length; i++) {
+                eventLoops[i] = new EventLoop(this, config.getConnectionConfig(), "rlcp-event-loop-" + (i + 1));
+                eventLoops[i].start();
+            }
+            serverChannel = ServerSocketChannel.open();
+            serverChannel.bind(new InetSocketAddress(config.getPort()));
+            long accepted = 0;
+            while (isRunning) {
+                SocketChannel channel = serverChannel.accept();
+                eventLoops[(int) (accepted++ % eventLoops.length)].register(channel);
+            }
+        } catch (IOException e) {
+            if (isRunning) {
+                Logger.log(e);
+            }
+        } finally {
+            stop();
+        }
+    }
+
+    /**
+     * Stops accepting connections. Requests already passed to workers are still processed and
+     * answered until {@code close()} is called.
+     */
+    public void stop() {
+        isRunning = false;
+        if (serverChannel != null) {
+            try {
+                serverChannel.close();
+            } catch (IOException e) {
+                Logger.log("Error closing server channel: " + e);
+            }
+        }
+    }
+
+    /**
+     * Closes event loops with all their connections. Should be called after executor is drained
+     * and {@code run()} returned.
+     */
+    public void close() {
+        for (EventLoop eventLoop : eventLoops) {
+            if (eventLoop != null) {
+                eventLoop.shutdown();
+            }
+        }
+    }
+
+    /**
+     * Passes fully read request to worker. ECHO requests are cheap and are processed right on
+     * event loop, so they are answered even if worker pool is saturated. Other requests never
+     * run on event loop, even with {@code RejectionPolicy.CALLER_RUNS}: if worker pool rejects
+     * request, client is answered with {@code RlcpCode.Unavailable} right from event loop.
+     * Failed input is answered right from event loop too.
+     *
+     * @param connection connection request was read from
+     * @param input      raw request bytes, or {@code null} if request could not be read
+     */
+    void dispatch(NioConnection connection, byte[] input) {
+        String serverInput = input == null ? null : decode(input);
+        if (serverInput == null) {
+            respond(connection, requestHandler.handle(null));
+            return;
+        }
+        if (RequestHandler.isFastLaneRequest(serverInput)) {
+            Logger.log("Fast lane input was read");
+            respond(connection, requestHandler.handle(serverInput));
+            return;
+        }
+        boolean accepted = executor.tryExecuteInBackground(() -> {
+            Logger.log("Input was read");
+            Logger.log(Util.nativeLineSeparator + serverInput);
+            respond(connection, requestHandler.handle(serverInput));
+        });
+        if (!accepted) {
+            respond(connection, RequestHandler.createErrorResponse(RlcpCode.Unavailable, "server is overloaded"));
+        }
+    }
+
+    /**
+     * Decodes raw request bytes in charset named by request header, UTF-8 by default.
+     *
+     * @return decoded request, or {@code null} if its charset is not supported
+     */
+    private static String decode(byte[] input) {
+        try {
+            return Util.decodeMessage(ByteBuffer.wrap(input), Constants.rlcpDefaultCharset);
+        } catch (BadRlcpHeaderException e) {
+            Logger.log(e);
+            return null;
+        }
+    }
+
+    private void respond(NioConnection connection, RlcpResponse response) {
+        Logger.log("Output sending...");
+        Logger.log(Util.nativeLineSeparator + response);
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try {
+            response.writeTo(output);
+        } catch (IOException e) {
+            //writing to memory never fails
+            throw new IllegalStateException(e);
+        }
+        connection.write(output.toByteArray());
+    }
+}
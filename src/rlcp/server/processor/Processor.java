@@ -1,7 +1,33 @@
 package rlcp.server.processor;
 
 /**
- * General interface for RLCP methods processing flow modules
+ * General interface for RLCP methods processing flow modules. Lifecycle callbacks are optional:
+ * they are called by factories that keep instances for reuse, such as
+ * {@code PooledProcessorFactory}, and do nothing by default.
  */
 public interface Processor {
+
+    /**
+     * Prepares new instance before its first use, for example loads reference data.
+     *
+     * @throws Exception if instance can not be used
+     */
+    default void init() throws Exception {
+    }
+
+    /**
+     * Clears state left by request, before instance is used by another one.
+     *
+     * @throws Exception if instance can not be reused, it is closed then
+     */
+    default void reset() throws Exception {
+    }
+
+    /**
+     * Releases resources of instance that is not used anymore.
+     *
+     * @throws Exception if an error occurs
+     */
+    default void close() throws Exception {
+    }
 }
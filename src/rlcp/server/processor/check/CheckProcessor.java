@@ -4,6 +4,7 @@ import rlcp.generate.GeneratingResult;
 import rlcp.check.ConditionForChecking;
 import rlcp.server.processor.Processor;
 
+import java.io.Serializable;
 import java.math.BigDecimal;
 
 /**
@@ -32,7 +33,9 @@ public interface CheckProcessor extends Processor {
     /**
      * Class for Check result
      */
-    class CheckingSingleConditionResult {
+    class CheckingSingleConditionResult implements Serializable {
+        private static final long serialVersionUID = 1L;
+
         private BigDecimal result;
         private String comment;
 
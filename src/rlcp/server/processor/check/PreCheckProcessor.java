@@ -4,6 +4,7 @@ import rlcp.generate.GeneratingResult;
 import rlcp.check.ConditionForChecking;
 import rlcp.server.processor.Processor;
 
+import java.io.Serializable;
 import java.util.List;
 
 /**
@@ -30,7 +31,8 @@ public interface PreCheckProcessor<T> extends Processor {
      *
      * @param <T> result of checking
      */
-    public static class PreCheckResult<T> {
+    public static class PreCheckResult<T> implements Serializable {
+        private static final long serialVersionUID = 1L;
 
         T value;
 
@@ -2,48 +2,123 @@ package rlcp.server.processor.factory;
 
 import rlcp.server.processor.Processor;
 
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
 import java.lang.reflect.Modifier;
-import java.util.Arrays;
+import java.util.function.Supplier;
 
 /**
  * Default constructor ProcessorFactory. It is used for putting of flow modules container.
+ * <p>
+ * Constructor without parameters is looked up once and bound by {@code LambdaMetafactory} into
+ * {@code Supplier}, so creating instance costs as much as plain {@code new}: there are no access
+ * checks per call. Classes that generated supplier can not access, such as non-public classes or
+ * classes of class loaders not visible from this library, are created by method handle.
  *
  * @param <T> interface for RLCP methods processing flow modules
  */
 public class DefaultConstructorProcessorFactory<T extends Processor> implements ProcessorFactory<T> {
 
     private Class<? extends T> clazz;
+    private final Supplier<? extends T> constructor;
 
     /**
      * Simple constructor.
      *
      * @param clazz class name, implementing the interface {@code Processor}
+     * @throws IllegalArgumentException if class is abstract or has no public constructor without parameters
      * @see Processor
      */
-    public DefaultConstructorProcessorFactory(Class<? extends T> clazz) {
-
-        boolean hasDefaultConstructor = Arrays.stream(clazz.getConstructors()).anyMatch(
-                c ->
-                        c.getParameterTypes().length == 0
-                                && Modifier.isPublic(c.getModifiers())
-        );
-        if (!hasDefaultConstructor) {
+    public DefaultConstructorProcessorFactory(Class<? extends T> clazz) throws IllegalArgumentException {
+        Constructor<? extends T> defaultConstructor;
+        try {
+            defaultConstructor = clazz.getConstructor();
+        } catch (NoSuchMethodException e) {
             throw new IllegalArgumentException("Class " + clazz + "has no constructor without parameters;");
         }
+        if (Modifier.isAbstract(clazz.getModifiers())) {
+            throw new IllegalArgumentException("Class " + clazz + " is abstract");
+        }
         this.clazz = clazz;
+        this.constructor = bind(defaultConstructor);
     }
 
     /**
      * Every time will return new instance of the RLCP methods processing flow modules
      *
      * @return new instance of the RLCP methods processing flow modules
+     * @throws IllegalStateException if constructor throws checked exception, it is the cause then.
+     *                               Unchecked exceptions and errors of constructor are thrown as is.
      */
     @Override
     public T getInstance() {
         try {
-            return clazz.newInstance();
-        } catch (InstantiationException | IllegalAccessException e) {
-            throw new IllegalStateException("Error at creating " + clazz + " instance");
+            return constructor.get();
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Exception e) {
+            //generated supplier calls constructor directly, so checked exceptions the constructor
+            //declares pass through get() although Supplier does not declare them
+            throw creationError(e);
+        }
+    }
+
+    private IllegalStateException creationError(Throwable cause) {
+        return new IllegalStateException("Error at creating " + clazz + " instance", cause);
+    }
+
+    private Supplier<? extends T> bind(Constructor<? extends T> defaultConstructor) throws IllegalArgumentException {
+        MethodHandles.Lookup lookup = MethodHandles.lookup();
+        if (isAccessibleFromLibrary()) {
+            try {
+                CallSite site = LambdaMetafactory.metafactory(lookup,
+                        "get",
+                        MethodType.methodType(Supplier.class),
+                        MethodType.methodType(Object.class),
+                        lookup.unreflectConstructor(defaultConstructor),
+                        MethodType.methodType(clazz));
+                //get() of generated class returns result of clazz constructor, so it is always of type T
+                @SuppressWarnings("unchecked")
+                Supplier<? extends T> supplier = (Supplier<? extends T>) site.getTarget().invokeExact();
+                return supplier;
+            } catch (Throwable e) {
+                //method handle is used then
+            }
+        }
+        MethodHandle handle;
+        try {
+            defaultConstructor.setAccessible(true);
+            handle = lookup.unreflectConstructor(defaultConstructor).asType(MethodType.methodType(Processor.class));
+        } catch (IllegalAccessException | RuntimeException e) {
+            throw new IllegalArgumentException("Constructor of " + clazz + " is not accessible", e);
+        }
+        return () -> {
+            try {
+                return clazz.cast((Processor) handle.invokeExact());
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable e) {
+                throw creationError(e);
+            }
+        };
+    }
+
+    /**
+     * Returns {@code true} if class is public and is loaded by class loader of this library or
+     * its parent, so that class generated by {@code LambdaMetafactory} can link to it.
+     */
+    private boolean isAccessibleFromLibrary() {
+        if (!Modifier.isPublic(clazz.getModifiers())) {
+            return false;
+        }
+        try {
+            return Class.forName(clazz.getName(), false, DefaultConstructorProcessorFactory.class.getClassLoader()) == clazz;
+        } catch (ClassNotFoundException | LinkageError e) {
+            return false;
         }
     }
 }
@@ -0,0 +1,239 @@
+package rlcp.server.processor.factory;
+
+import rlcp.server.logger.Logger;
+import rlcp.server.processor.Processor;
+
+import java.io.Closeable;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+
+/**
+ * Pooled ProcessorFactory. It is used for putting of flow modules container, when processor is
+ * expensive to create but is not thread-safe: every request flow borrows instance by
+ * {@code getInstance()} and gives it back by {@code release()}, so one instance is never used
+ * by two requests at once.
+ * <p>
+ * Instances are created by another factory and prepared by {@code Processor.init()}. Released
+ * instance is cleared by {@code Processor.reset()} and kept idle for reuse, most recently used
+ * first; if reset fails or there are {@code maxIdle} idle instances already, it is closed by
+ * {@code Processor.close()}. Idle instance is checked by validator before it is borrowed, and
+ * instances idle longer than idle time limit are closed, but no less than {@code minIdle} are
+ * kept. If there is no idle instance new one is created, so borrowing never waits.
+ * <p>
+ * Thread-safe.
+ *
+ * @param <T> interface for RLCP methods processing flow modules
+ * @see ProcessorPoolConfig
+ */
+public class PooledProcessorFactory<T extends Processor> implements ProcessorFactory<T>, Closeable {
+
+    private final ProcessorFactory<? extends T> factory;
+    private final ProcessorPoolConfig config;
+    private final Predicate<? super T> validator;
+    private final Deque<IdleInstance<T>> idleInstances = new ArrayDeque<>();
+    private final AtomicLong createdCount = new AtomicLong();
+    private boolean closed = false;
+
+    /**
+     * Constructor for instances created by default constructor of class, with default pool
+     * configuration and without validation.
+     *
+     * @param clazz class name, implementing the interface {@code Processor}
+     * @throws IllegalArgumentException if class has no public constructor without parameters
+     */
+    public PooledProcessorFactory(Class<? extends T> clazz) throws IllegalArgumentException {
+        this(new DefaultConstructorProcessorFactory<T>(clazz), ProcessorPoolConfig.getDefault(), null);
+    }
+
+    /**
+     * Simple constructor. Creates {@code minIdle} instances right away.
+     *
+     * @param factory   factory of new instances, for example {@code DefaultConstructorProcessorFactory}. Must not be null.
+     * @param config    pool configuration. Must not be null.
+     * @param validator test of idle instance before it is borrowed, instance that fails it is closed;
+     *                  {@code null} if idle instances are always valid
+     */
+    public PooledProcessorFactory(ProcessorFactory<? extends T> factory, ProcessorPoolConfig config, Predicate<? super T> validator) {
+        this.factory = Objects.requireNonNull(factory);
+        this.config = Objects.requireNonNull(config);
+        this.validator = validator;
+        for (int i = 0; i < config.getMinIdle(); i++) {
+            T instance = create();
+            if (instance != null) {
+                offerIdleInstance(instance);
+            }
+        }
+    }
+
+    /**
+     * Borrows valid idle instance, or creates new one. Instance should be given back by
+     * {@code release()}.
+     *
+     * @return instance of the RLCP methods processing flow modules, or {@code null} if new
+     * instance can not be created or initialized
+     */
+    @Override
+    public T getInstance() {
+        T instance;
+        while ((instance = pollIdleInstance()) != null) {
+            if (isValid(instance)) {
+                return instance;
+            }
+            close(instance);
+        }
+        return create();
+    }
+
+    /**
+     * Resets instance and keeps it idle for reuse, or closes it if it can not be reset, pool is
+     * full or closed.
+     *
+     * @param instance instance returned by {@code getInstance()} of this factory
+     */
+    @Override
+    public void release(T instance) {
+        if (instance == null) {
+            return;
+        }
+        try {
+            instance.reset();
+        } catch (Exception e) {
+            Logger.log(e);
+            close(instance);
+            return;
+        }
+        if (!offerIdleInstance(instance)) {
+            close(instance);
+        }
+    }
+
+    /**
+     * Closes instances idle longer than idle time limit, keeping no less than {@code minIdle}
+     * idle instances. It is also done whenever instance is borrowed.
+     */
+    public void evictIdleInstances() {
+        for (T instance : pollExpiredInstances()) {
+            close(instance);
+        }
+    }
+
+    /**
+     * Closes all idle instances. Borrowed instances are closed when released.
+     */
+    @Override
+    public void close() {
+        List<T> instances = new ArrayList<>();
+        synchronized (this) {
+            closed = true;
+            for (IdleInstance<T> idleInstance : idleInstances) {
+                instances.add(idleInstance.instance);
+            }
+            idleInstances.clear();
+        }
+        for (T instance : instances) {
+            close(instance);
+        }
+    }
+
+    /**
+     * Returns number of idle instances.
+     *
+     * @return number of idle instances
+     */
+    public synchronized int getIdleCount() {
+        return idleInstances.size();
+    }
+
+    /**
+     * Returns number of instances created by the pool.
+     *
+     * @return number of instances created by the pool
+     */
+    public long getCreatedCount() {
+        return createdCount.get();
+    }
+
+    private T create() {
+        T instance = factory.getInstance();
+        if (instance == null) {
+            return null;
+        }
+        createdCount.incrementAndGet();
+        try {
+            instance.init();
+            return instance;
+        } catch (Exception e) {
+            Logger.log(e);
+            close(instance);
+            return null;
+        }
+    }
+
+    private boolean isValid(T instance) {
+        try {
+            return validator == null || validator.test(instance);
+        } catch (RuntimeException e) {
+            Logger.log(e);
+            return false;
+        }
+    }
+
+    private static void close(Processor instance) {
+        try {
+            instance.close();
+        } catch (Exception e) {
+            Logger.log(e);
+        }
+    }
+
+    private T pollIdleInstance() {
+        evictIdleInstances();
+        synchronized (this) {
+            IdleInstance<T> idleInstance = idleInstances.pollFirst();
+            return idleInstance == null ? null : idleInstance.instance;
+        }
+    }
+
+    private synchronized boolean offerIdleInstance(T instance) {
+        if (closed || idleInstances.size() >= config.getMaxIdle()) {
+            return false;
+        }
+        idleInstances.offerFirst(new IdleInstance<>(instance));
+        return true;
+    }
+
+    /**
+     * Removes instances idle longer than idle time limit. Least recently used instances are at
+     * the end of the deque.
+     */
+    private synchronized List<T> pollExpiredInstances() {
+        List<T> expired = new ArrayList<>();
+        if (config.getIdleTimeLimit() == 0) {
+            return expired;
+        }
+        long idleTimeLimit = TimeUnit.MILLISECONDS.toNanos(config.getIdleTimeLimit());
+        long now = System.nanoTime();
+        while (idleInstances.size() > config.getMinIdle() && now - idleInstances.peekLast().idleSince >= idleTimeLimit) {
+            expired.add(idleInstances.pollLast().instance);
+        }
+        return expired;
+    }
+
+    /**
+     * Idle instance with the time it was released.
+     */
+    private static class IdleInstance<T> {
+        private final T instance;
+        private final long idleSince = System.nanoTime();
+
+        private IdleInstance(T instance) {
+            this.instance = instance;
+        }
+    }
+}
@@ -12,4 +12,13 @@ public interface ProcessorFactory<T extends Processor> {
      * @return process instance
      */
     T getInstance();
+
+    /**
+     * Gives back instance returned by {@code getInstance()}, when request flow does not use it
+     * anymore. Factories that keep instances for reuse take it back, others do nothing.
+     *
+     * @param instance instance returned by {@code getInstance()} of this factory
+     */
+    default void release(T instance) {
+    }
 }
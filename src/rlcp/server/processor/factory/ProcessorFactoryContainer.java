@@ -1,7 +1,7 @@
 package rlcp.server.processor.factory;
 
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import rlcp.calculate.CalculatingResult;
 import rlcp.exception.NotImplementedMethodException;
@@ -14,11 +14,13 @@ import rlcp.server.processor.check.PreCheckProcessor;
 import rlcp.server.processor.generate.GenerateProcessor;
 
 /**
- * Class for flow modules container.
+ * Class for flow modules container. Factories may be replaced while server is running, for
+ * example by {@code ScriptFileWatcher}; request flows work with {@code snapshot()} of container,
+ * so that the whole request is processed by the same factories.
  */
 public class ProcessorFactoryContainer {
 
-    private Map<Class<? extends Processor>, ProcessorFactory<? extends Processor>> storage = new HashMap<>();
+    private Map<Class<? extends Processor>, ProcessorFactory<? extends Processor>> storage = new ConcurrentHashMap<>();
 
     /**
      * Simple constructor with null initial values.
@@ -150,13 +152,47 @@ public class ProcessorFactoryContainer {
     }
 
     /**
-     * Sets RequestProcessProcessor instance for specified key.
+     * Gives back instance returned by {@code getProcessor()} to its factory, when request flow does
+     * not use it anymore.
+     *
+     * @param key      name class
+     * @param instance instance returned by {@code getProcessor(key)}, may be {@code null}
+     * @param <T>
+     * @see ProcessorFactory#release(Processor)
+     */
+    @SuppressWarnings("unchecked")
+    public <T extends Processor> void releaseProcessor(Class<T> key, T instance) {
+        ProcessorFactory<T> factory = (ProcessorFactory<T>) storage.get(key);
+        if (factory != null && instance != null) {
+            factory.release(instance);
+        }
+    }
+
+    /**
+     * Sets RequestProcessProcessor instance for specified key. Replaces factory set before, if any;
+     * requests that are already processed keep using the replaced one.
      *
      * @param clazz   specified key (name interface for RLCP methods processing flow modules).
-     * @param factory RequestProcessProcessor instance
+     * @param factory RequestProcessProcessor instance, or {@code null} to remove factory for the key
+     */
+    public <T extends Processor> void putProcessorFactory(Class<T> clazz, ProcessorFactory<T> factory) {
+        if (factory == null) {
+            storage.remove(clazz);
+        } else {
+            storage.put(clazz, factory);
+        }
+    }
+
+    /**
+     * Returns container with the factories that are set at the moment. Further changes of this
+     * container do not affect the snapshot.
+     *
+     * @return container with the factories that are set at the moment
      */
-    private <T extends Processor> void putProcessorFactory(Class<T> clazz, ProcessorFactory<T> factory) {
-        storage.put(clazz, factory);
+    public ProcessorFactoryContainer snapshot() {
+        ProcessorFactoryContainer snapshot = new ProcessorFactoryContainer();
+        snapshot.storage.putAll(storage);
+        return snapshot;
     }
 
 
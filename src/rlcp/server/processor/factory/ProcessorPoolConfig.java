@@ -0,0 +1,87 @@
+package rlcp.server.processor.factory;
+
+import static rlcp.util.Constants.rlcpDefaultProcessorPoolIdleTimeLimitInMillis;
+import static rlcp.util.Constants.rlcpDefaultProcessorPoolMaxIdle;
+import static rlcp.util.Constants.rlcpDefaultProcessorPoolMinIdle;
+
+/**
+ * Class for {@code PooledProcessorFactory} configuration storing. Unmodifiable.
+ *
+ * @see PooledProcessorFactory
+ */
+public class ProcessorPoolConfig {
+
+    private static final ProcessorPoolConfig defaultConfig = new ProcessorPoolConfig(
+            rlcpDefaultProcessorPoolMinIdle,
+            rlcpDefaultProcessorPoolMaxIdle,
+            rlcpDefaultProcessorPoolIdleTimeLimitInMillis
+    );
+
+    private final int minIdle;
+    private final int maxIdle;
+    private final long idleTimeLimit;
+
+    /**
+     * Simple constructor.
+     *
+     * @param minIdle       number of instances created with the pool and kept idle however long they are not used
+     * @param maxIdle       maximum number of idle instances, instances released to full pool are closed
+     * @param idleTimeLimit time limit in milliseconds, after which idle instance above minIdle is closed, 0 for no limit
+     * @throws IllegalArgumentException if numbers are negative or inconsistent
+     */
+    public ProcessorPoolConfig(int minIdle, int maxIdle, long idleTimeLimit) throws IllegalArgumentException {
+        if (minIdle < 0 || maxIdle <= 0 || maxIdle < minIdle || idleTimeLimit < 0) {
+            throw new IllegalArgumentException("Bad processor pool configuration: min idle " + minIdle
+                    + ", max idle " + maxIdle + ", idle time limit " + idleTimeLimit);
+        }
+        this.minIdle = minIdle;
+        this.maxIdle = maxIdle;
+        this.idleTimeLimit = idleTimeLimit;
+    }
+
+    /**
+     * Returns default processor pool configuration.
+     *
+     * @return default processor pool configuration
+     */
+    public static ProcessorPoolConfig getDefault() {
+        return defaultConfig;
+    }
+
+    /**
+     * Returns number of instances created with the pool and kept idle however long they are not used.
+     *
+     * @return number of instances kept idle however long they are not used
+     */
+    public int getMinIdle() {
+        return minIdle;
+    }
+
+    /**
+     * Returns maximum number of idle instances.
+     *
+     * @return maximum number of idle instances
+     */
+    public int getMaxIdle() {
+        return maxIdle;
+    }
+
+    /**
+     * Returns time limit in milliseconds, after which idle instance above minIdle is closed.
+     *
+     * @return idle time limit in milliseconds, 0 for no limit
+     */
+    public long getIdleTimeLimit() {
+        return idleTimeLimit;
+    }
+
+    /**
+     * Returns String representation for logging.
+     *
+     * @return String representation for logging
+     */
+    @Override
+    public String toString() {
+        return "minIdle=" + minIdle + ", maxIdle=" + maxIdle + ", idleTimeLimit=" + idleTimeLimit;
+    }
+}
@@ -1,17 +1,48 @@
 package rlcp.server.processor.factory;
 
+import rlcp.server.logger.Logger;
 import rlcp.server.processor.Processor;
 
+import javax.script.Bindings;
+import javax.script.Compilable;
+import javax.script.CompiledScript;
 import javax.script.Invocable;
+import javax.script.ScriptContext;
 import javax.script.ScriptEngine;
 import javax.script.ScriptEngineManager;
 import javax.script.ScriptException;
+import javax.script.SimpleScriptContext;
 import java.io.File;
 import java.io.IOException;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static rlcp.util.Constants.rlcpDefaultScriptEnginePoolSize;
 
 /**
  *  JS constructor ProcessorFactory. It is used for putting of flow modules container
+ * <p>
+ * Script file is read and compiled once, and compiled again only after modification time of
+ * the file changes. Every evaluation of compiled script in its own global scope makes a script
+ * instance, isolated from the others. Warmed instances are kept in a bounded pool: processor
+ * returned by {@code getInstance()} is bound to an instance checked out of the pool, so that all
+ * calls of one request flow run on the same instance, and {@code release()} resets the instance
+ * by {@code Processor.reset()} and puts it back. If pool is empty new instance is evaluated, and
+ * if pool is full released instance is dropped, so request flows never wait for each other.
+ * Engines that can not compile scripts get a new engine per instance, evaluating the source read
+ * once.
+ * <p>
+ * Factory returned by {@code compile()} keeps the version of script it was created with, see
+ * {@code ScriptFileWatcher} for reloading of such factories.
+ * <p>
+ * Thread-safe.
  *
  * @param <T> interface for RLCP methods processing flow modules
  */
@@ -19,38 +50,352 @@ public class ScriptEngineFactory<T extends Processor> implements ProcessorFactor
     private String engineName;
     private File file;
     private Class<T> clazz;
+    private final boolean reloadOnChange;
+    private final BlockingQueue<ScriptInstance<T>> pool;
+    private volatile Script script;
+    private final AtomicLong hitCount = new AtomicLong();
+    private final AtomicLong missCount = new AtomicLong();
+    private final AtomicLong compileCount = new AtomicLong();
+    private final AtomicLong compileTimeInNanos = new AtomicLong();
 
     /**
-     * Simple constructor.
+     * Simple constructor. Pool keeps up to {@code Constants.rlcpDefaultScriptEnginePoolSize} instances.
      *
      * @param engineName name js-engine. For example, "nashorn"
      * @param file file with js-code
      * @param clazz class name, implementing the interface {@code Processor}
      */
     public ScriptEngineFactory(String engineName, File file, Class<T> clazz) {
+        this(engineName, file, clazz, rlcpDefaultScriptEnginePoolSize);
+    }
+
+    /**
+     * Simple constructor.
+     *
+     * @param engineName name js-engine. For example, "nashorn"
+     * @param file       file with js-code
+     * @param clazz      interface, extending the interface {@code Processor}
+     * @param poolSize   maximum number of idle script instances kept for reuse
+     * @throws IllegalArgumentException if clazz is not an interface or pool size is not positive
+     */
+    public ScriptEngineFactory(String engineName, File file, Class<T> clazz, int poolSize) throws IllegalArgumentException {
+        this(engineName, file, clazz, poolSize, true);
+    }
+
+    private ScriptEngineFactory(String engineName, File file, Class<T> clazz, int poolSize, boolean reloadOnChange) throws IllegalArgumentException {
+        if (!clazz.isInterface()) {
+            throw new IllegalArgumentException(clazz + " is not an interface");
+        }
+        if (poolSize < 1) {
+            throw new IllegalArgumentException("Pool size should be positive: " + poolSize);
+        }
         this.engineName = engineName;
         this.file = file;
         this.clazz = clazz;
+        this.reloadOnChange = reloadOnChange;
+        this.pool = new ArrayBlockingQueue<>(poolSize);
     }
 
-    private Invocable buildEngine(){
-        ScriptEngine engine = new ScriptEngineManager().getEngineByName(engineName);
+    /**
+     * Returns factory of script compiled right now. Factory is never recompiled, even if file
+     * changes. The first script instance is evaluated right away, so that script that does not
+     * implement the interface is rejected.
+     *
+     * @param engineName name js-engine. For example, "nashorn"
+     * @param file       file with js-code
+     * @param clazz      interface, extending the interface {@code Processor}
+     * @param poolSize   maximum number of idle script instances kept for reuse
+     * @param <T>        interface for RLCP methods processing flow modules
+     * @return factory of script compiled right now
+     * @throws ScriptException          if script can not be compiled or evaluated, or does not implement the interface
+     * @throws IOException              if file can not be read
+     * @throws IllegalArgumentException if clazz is not an interface or pool size is not positive
+     */
+    public static <T extends Processor> ScriptEngineFactory<T> compile(String engineName, File file, Class<T> clazz, int poolSize) throws ScriptException, IOException, IllegalArgumentException {
+        ScriptEngineFactory<T> factory = new ScriptEngineFactory<>(engineName, file, clazz, poolSize, false);
+        factory.script = factory.compile(file.lastModified());
+        factory.pool.offer(factory.script.newInstance(clazz));
+        return factory;
+    }
+
+    /**
+     * Returns processor bound to script instance checked out of the pool until it is given back by
+     * {@code release()}. Script is compiled, if it was not yet or file was modified.
+     *
+     * @return instance of the RLCP methods processing flow modules, or {@code null} if script can
+     * not be compiled or does not implement the interface
+     */
+    @Override
+    public T getInstance() {
+        ScriptInstance<T> instance = checkOut();
+        if (instance == null) {
+            return null;
+        }
+        return clazz.cast(Proxy.newProxyInstance(clazz.getClassLoader(), new Class<?>[]{clazz}, new BoundInvocationHandler(instance)));
+    }
+
+    /**
+     * Resets script instance, that processor is bound to, and puts it back to the pool. Processor
+     * can not be used after it is released.
+     *
+     * @param instance processor returned by {@code getInstance()} of this factory
+     */
+    @Override
+    public void release(T instance) {
+        if (instance == null || !Proxy.isProxyClass(instance.getClass())) {
+            return;
+        }
+        InvocationHandler handler = Proxy.getInvocationHandler(instance);
+        if (!(handler instanceof ScriptEngineFactory.BoundInvocationHandler)) {
+            return;
+        }
+        //handler of this factory is bound to instance of T
+        @SuppressWarnings("unchecked")
+        BoundInvocationHandler boundHandler = (BoundInvocationHandler) handler;
+        if (boundHandler.getFactory() != this) {
+            return;
+        }
+        ScriptInstance<T> scriptInstance = boundHandler.unbind();
+        if (scriptInstance == null) {
+            return;
+        }
         try {
-            engine.eval(Files.newBufferedReader(file.toPath()));
+            scriptInstance.processor.reset();
+        } catch (Exception e) {
+            Logger.log(e);
+            return;
+        }
+        checkIn(scriptInstance);
+    }
 
+    /**
+     * Returns new script instance evaluated in its own global scope, that is neither pooled nor
+     * shared. Unlike processor returned by {@code getInstance()}, it keeps the version of script
+     * it was evaluated with and must not be used by two threads at once. It is a factory of
+     * instances for {@code ThreadAffineProcessorFactory}: {@code scriptEngineFactory::newInstance}.
+     *
+     * @return new script instance, or {@code null} if script can not be compiled or does not
+     * implement the interface
+     */
+    public T newInstance() {
+        try {
+            return getScript().newInstance(clazz).processor;
         } catch (ScriptException | IOException e) {
-            e.printStackTrace();
+            Logger.log(e);
+            return null;
         }
-        return (Invocable) engine;
     }
 
     /**
-     * Every time will return new engined of the RLCP methods processing flow modules
+     * Returns number of processors bound to instance taken from the pool.
      *
-     * @return instance of the RLCP methods processing flow modules
+     * @return number of processors bound to instance taken from the pool
      */
-    @Override
-    public T getInstance() {
-        return buildEngine().getInterface(clazz);
+    public long getHitCount() {
+        return hitCount.get();
+    }
+
+    /**
+     * Returns number of processors, for which new script instance was evaluated.
+     *
+     * @return number of processors, for which new script instance was evaluated
+     */
+    public long getMissCount() {
+        return missCount.get();
+    }
+
+    /**
+     * Returns number of times script file was read and compiled.
+     *
+     * @return number of times script file was read and compiled
+     */
+    public long getCompileCount() {
+        return compileCount.get();
+    }
+
+    /**
+     * Returns total time spent reading and compiling script file, in nanoseconds.
+     *
+     * @return total time spent reading and compiling script file, in nanoseconds
+     */
+    public long getCompileTimeInNanos() {
+        return compileTimeInNanos.get();
+    }
+
+    /**
+     * Takes idle instance of current script from the pool, or evaluates new one.
+     *
+     * @return script instance, or {@code null} if script can not be compiled or does not implement the interface
+     */
+    private ScriptInstance<T> checkOut() {
+        Script current;
+        try {
+            current = getScript();
+        } catch (ScriptException | IOException e) {
+            Logger.log(e);
+            return null;
+        }
+        ScriptInstance<T> instance;
+        while ((instance = pool.poll()) != null) {
+            if (instance.script == current) {
+                hitCount.incrementAndGet();
+                return instance;
+            }
+        }
+        missCount.incrementAndGet();
+        try {
+            return current.newInstance(clazz);
+        } catch (ScriptException e) {
+            Logger.log(e);
+            return null;
+        }
+    }
+
+    private void checkIn(ScriptInstance<T> instance) {
+        if (instance.script == script) {
+            pool.offer(instance);
+        }
+    }
+
+    /**
+     * Returns compiled script, compiling it if file was modified since last compilation.
+     */
+    private Script getScript() throws ScriptException, IOException {
+        Script current = script;
+        if (!reloadOnChange && current != null) {
+            return current;
+        }
+        long lastModified = file.lastModified();
+        if (current != null && current.lastModified == lastModified) {
+            return current;
+        }
+        synchronized (this) {
+            current = script;
+            if (current == null || current.lastModified != lastModified) {
+                current = compile(lastModified);
+                script = current;
+                pool.clear();
+            }
+            return current;
+        }
+    }
+
+    private Script compile(long lastModified) throws ScriptException, IOException {
+        long start = System.nanoTime();
+        ScriptEngine engine = new ScriptEngineManager().getEngineByName(engineName);
+        if (engine == null) {
+            throw new ScriptException("No script engine " + engineName);
+        }
+        String source = new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8);
+        CompiledScript compiled = engine instanceof Compilable ? ((Compilable) engine).compile(source) : null;
+        compileCount.incrementAndGet();
+        compileTimeInNanos.addAndGet(System.nanoTime() - start);
+        return new Script(engine, source, compiled, lastModified);
+    }
+
+    /**
+     * Compiled version of script file.
+     */
+    private static class Script {
+        private final ScriptEngine engine;
+        private final String source;
+        private final CompiledScript compiled;
+        private final long lastModified;
+
+        private Script(ScriptEngine engine, String source, CompiledScript compiled, long lastModified) {
+            this.engine = engine;
+            this.source = source;
+            this.compiled = compiled;
+            this.lastModified = lastModified;
+        }
+
+        /**
+         * Evaluates script in new global scope and returns it as implementation of the interface.
+         */
+        private <T> ScriptInstance<T> newInstance(Class<T> clazz) throws ScriptException {
+            T processor;
+            if (compiled != null) {
+                Bindings global = engine.createBindings();
+                ScriptContext context = new SimpleScriptContext();
+                context.setBindings(global, ScriptContext.ENGINE_SCOPE);
+                compiled.eval(context);
+                processor = ((Invocable) engine).getInterface(global, clazz);
+            } else {
+                ScriptEngine instanceEngine = engine.getFactory().getScriptEngine();
+                instanceEngine.eval(source);
+                processor = ((Invocable) instanceEngine).getInterface(clazz);
+            }
+            if (processor == null) {
+                throw new ScriptException("Script does not implement " + clazz.getName());
+            }
+            return new ScriptInstance<>(this, processor);
+        }
+    }
+
+    /**
+     * Evaluated script, that implements the interface.
+     */
+    private static class ScriptInstance<T> {
+        private final Script script;
+        private final T processor;
+
+        private ScriptInstance(Script script, T processor) {
+            this.script = script;
+            this.processor = processor;
+        }
+    }
+
+    /**
+     * Runs every interface method call on script instance checked out of the pool, until it is
+     * released.
+     */
+    private class BoundInvocationHandler implements InvocationHandler {
+        private ScriptInstance<T> instance;
+
+        private BoundInvocationHandler(ScriptInstance<T> instance) {
+            this.instance = instance;
+        }
+
+        private ScriptEngineFactory<T> getFactory() {
+            return ScriptEngineFactory.this;
+        }
+
+        /**
+         * Takes script instance away from processor.
+         *
+         * @return script instance, or {@code null} if it was taken already
+         */
+        private synchronized ScriptInstance<T> unbind() {
+            ScriptInstance<T> unbound = instance;
+            instance = null;
+            return unbound;
+        }
+
+        private synchronized ScriptInstance<T> getInstance() {
+            return instance;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            if (method.getDeclaringClass() == Object.class) {
+                switch (method.getName()) {
+                    case "equals":
+                        return proxy == args[0];
+                    case "hashCode":
+                        return System.identityHashCode(proxy);
+                    default:
+                        return "Script " + file + " as " + clazz.getName();
+                }
+            }
+            ScriptInstance<T> bound = getInstance();
+            if (bound == null) {
+                throw new IllegalStateException("Script " + file + " processor is released");
+            }
+            try {
+                return method.invoke(bound.processor, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
     }
 }
@@ -0,0 +1,164 @@
+package rlcp.server.processor.factory;
+
+import rlcp.server.logger.Logger;
+import rlcp.server.processor.Processor;
+
+import javax.script.ScriptException;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import static rlcp.util.Constants.rlcpDefaultScriptEnginePoolSize;
+import static rlcp.util.Constants.rlcpDefaultScriptReloadDelayInMillis;
+
+/**
+ * Keeps JS processors of container up to date with their script files. Every watched script is
+ * compiled by {@code ScriptEngineFactory.compile()} and put to container. Directories of scripts
+ * are watched by {@code WatchService} in background thread: when script file is created or
+ * modified, it is compiled again, and if it still implements the interface, new factory replaces
+ * the old one in container. Script that fails to compile is logged and old factory is kept.
+ * <p>
+ * Requests work with snapshot of container, so requests that are already processed finish with
+ * the old version of script and new requests get the new one. Changes are collected until files
+ * stay unchanged for {@code Constants.rlcpDefaultScriptReloadDelayInMillis}, so that file that is
+ * still being written is not compiled.
+ * <p>
+ * Thread-safe.
+ *
+ * @see ProcessorFactoryContainer#snapshot()
+ */
+public class ScriptFileWatcher implements Closeable {
+
+    private final ProcessorFactoryContainer container;
+    private final WatchService watchService;
+    private final Map<Path, WatchedScript<?>> scripts = new ConcurrentHashMap<>();
+    private final Thread thread;
+
+    /**
+     * Simple constructor. Starts background thread watching script files.
+     *
+     * @param container flow modules container to put factories to
+     * @throws IOException if file system does not support watching
+     */
+    public ScriptFileWatcher(ProcessorFactoryContainer container) throws IOException {
+        this.container = container;
+        this.watchService = FileSystems.getDefault().newWatchService();
+        this.thread = new Thread(this::watch, "rlcp-script-watcher");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Compiles script, puts its factory to container and reloads it whenever file changes.
+     *
+     * @param engineName name js-engine. For example, "nashorn"
+     * @param file       file with js-code
+     * @param clazz      interface, extending the interface {@code Processor}
+     * @param <T>        interface for RLCP methods processing flow modules
+     * @throws ScriptException if script can not be compiled or does not implement the interface
+     * @throws IOException     if file can not be read or its directory can not be watched
+     */
+    public <T extends Processor> void watch(String engineName, File file, Class<T> clazz) throws ScriptException, IOException {
+        Path path = file.toPath().toAbsolutePath().normalize();
+        WatchedScript<T> script = new WatchedScript<>(engineName, path, clazz);
+        container.putProcessorFactory(clazz, script.compile());
+        path.getParent().register(watchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+        scripts.put(path, script);
+    }
+
+    /**
+     * Stops watching. Factories put to container stay there.
+     *
+     * @throws IOException if an I/O error occurs
+     */
+    @Override
+    public void close() throws IOException {
+        watchService.close();
+    }
+
+    private void watch() {
+        try {
+            while (true) {
+                Set<Path> changed = new LinkedHashSet<>();
+                WatchKey key = watchService.take();
+                while (key != null) {
+                    collectChanges(key, changed);
+                    key = watchService.poll(rlcpDefaultScriptReloadDelayInMillis, TimeUnit.MILLISECONDS);
+                }
+                for (Path path : changed) {
+                    reload(scripts.get(path));
+                }
+            }
+        } catch (ClosedWatchServiceException | InterruptedException e) {
+            Logger.log("Script watcher stopped");
+        }
+    }
+
+    private void collectChanges(WatchKey key, Set<Path> changed) {
+        Path directory = (Path) key.watchable();
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                changed.addAll(scriptsIn(directory));
+            } else {
+                Path path = directory.resolve((Path) event.context());
+                if (scripts.containsKey(path)) {
+                    changed.add(path);
+                }
+            }
+        }
+        key.reset();
+    }
+
+    private List<Path> scriptsIn(Path directory) {
+        List<Path> paths = new ArrayList<>();
+        for (Path path : scripts.keySet()) {
+            if (path.getParent().equals(directory)) {
+                paths.add(path);
+            }
+        }
+        return paths;
+    }
+
+    private <T extends Processor> void reload(WatchedScript<T> script) {
+        try {
+            container.putProcessorFactory(script.clazz, script.compile());
+            Logger.log("Script " + script.path + " is reloaded");
+        } catch (ScriptException | IOException | RuntimeException e) {
+            Logger.log("Script " + script.path + " is not reloaded, previous version is used");
+            Logger.log(e);
+        }
+    }
+
+    /**
+     * Script file with the interface it implements.
+     */
+    private static class WatchedScript<T extends Processor> {
+        private final String engineName;
+        private final Path path;
+        private final Class<T> clazz;
+
+        private WatchedScript(String engineName, Path path, Class<T> clazz) {
+            this.engineName = engineName;
+            this.path = path;
+            this.clazz = clazz;
+        }
+
+        private ScriptEngineFactory<T> compile() throws ScriptException, IOException {
+            return ScriptEngineFactory.compile(engineName, path.toFile(), clazz, rlcpDefaultScriptEnginePoolSize);
+        }
+    }
+}
@@ -0,0 +1,257 @@
+package rlcp.server.processor.factory;
+
+import rlcp.server.executor.WorkerThreads;
+import rlcp.server.logger.Logger;
+import rlcp.server.processor.Processor;
+
+import java.io.Closeable;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static rlcp.util.Constants.rlcpDefaultProcessorMaxIdlePerThread;
+
+/**
+ * Thread-affine ProcessorFactory. It is used for putting of flow modules container, when
+ * processor is not thread-safe: every thread has its own idle instances, created lazily on its
+ * first {@code getInstance()}, and instance given back by {@code release()} is kept by the
+ * releasing thread, so instances are reused without contention between threads and are never
+ * used by two requests at once. Request flows release processors in the thread that got them,
+ * so in the long run every flow worker keeps as many instances as its requests use at once:
+ * one for Generate and Calculate, one per check unit for Check.
+ * <p>
+ * Instances are created by another factory and prepared by {@code Processor.init()}, released
+ * instance is cleared by {@code Processor.reset()}. When worker thread created by
+ * {@code WorkerThreads} retires, its idle instances are closed by {@code Processor.close()};
+ * instances of other threads are closed once the thread is found dead by
+ * {@code evictRetiredThreads()}, which is also done whenever new thread gets its first instance.
+ * Instances are reused only by pooled platform threads: virtual thread runs one task, and its
+ * instances are closed right after it.
+ * <p>
+ * JS processors of {@code ScriptEngineFactory} may be made thread-affine too, using
+ * {@code scriptEngineFactory::newInstance} as factory of new instances.
+ * <p>
+ * Thread-safe.
+ *
+ * @param <T> interface for RLCP methods processing flow modules
+ * @see WorkerThreads#onExit(Runnable)
+ */
+public class ThreadAffineProcessorFactory<T extends Processor> implements ProcessorFactory<T>, Closeable {
+
+    private final ProcessorFactory<? extends T> factory;
+    private final int maxIdlePerThread;
+    private final ThreadLocal<ThreadInstances<T>> currentThreadInstances = new ThreadLocal<>();
+    private final Map<Thread, ThreadInstances<T>> threadInstances = new ConcurrentHashMap<>();
+    private final AtomicLong createdCount = new AtomicLong();
+    private volatile boolean closed = false;
+
+    /**
+     * Constructor for instances created by default constructor of class. Every thread keeps up to
+     * {@code Constants.rlcpDefaultProcessorMaxIdlePerThread} idle instances.
+     *
+     * @param clazz class name, implementing the interface {@code Processor}
+     * @throws IllegalArgumentException if class has no public constructor without parameters
+     */
+    public ThreadAffineProcessorFactory(Class<? extends T> clazz) throws IllegalArgumentException {
+        this(new DefaultConstructorProcessorFactory<T>(clazz));
+    }
+
+    /**
+     * Simple constructor. Every thread keeps up to
+     * {@code Constants.rlcpDefaultProcessorMaxIdlePerThread} idle instances.
+     *
+     * @param factory factory of new instances, for example {@code DefaultConstructorProcessorFactory}. Must not be null.
+     */
+    public ThreadAffineProcessorFactory(ProcessorFactory<? extends T> factory) {
+        this(factory, rlcpDefaultProcessorMaxIdlePerThread);
+    }
+
+    /**
+     * Simple constructor.
+     *
+     * @param factory          factory of new instances, for example {@code DefaultConstructorProcessorFactory}. Must not be null.
+     * @param maxIdlePerThread maximum number of idle instances of one thread, instances released above it are closed
+     * @throws IllegalArgumentException if maxIdlePerThread is not positive
+     */
+    public ThreadAffineProcessorFactory(ProcessorFactory<? extends T> factory, int maxIdlePerThread) throws IllegalArgumentException {
+        if (maxIdlePerThread <= 0) {
+            throw new IllegalArgumentException("Max idle instances per thread should be positive: " + maxIdlePerThread);
+        }
+        this.factory = Objects.requireNonNull(factory);
+        this.maxIdlePerThread = maxIdlePerThread;
+    }
+
+    /**
+     * Returns idle instance of current thread, or creates new one. Instance should be given back by
+     * {@code release()} in the same thread.
+     *
+     * @return instance of the RLCP methods processing flow modules, or {@code null} if new
+     * instance can not be created or initialized
+     */
+    @Override
+    public T getInstance() {
+        T instance = getCurrentThreadInstances().poll();
+        return instance != null ? instance : create();
+    }
+
+    /**
+     * Resets instance and keeps it idle for current thread, or closes it if it can not be reset,
+     * current thread keeps enough instances or factory is closed.
+     *
+     * @param instance instance returned by {@code getInstance()} of this factory
+     */
+    @Override
+    public void release(T instance) {
+        if (instance == null) {
+            return;
+        }
+        try {
+            instance.reset();
+        } catch (Exception e) {
+            Logger.log(e);
+            close(instance);
+            return;
+        }
+        if (closed || !getCurrentThreadInstances().offer(instance, maxIdlePerThread)) {
+            close(instance);
+        }
+    }
+
+    /**
+     * Closes idle instances of threads that are not alive. Workers created by
+     * {@code WorkerThreads} close their instances themselves when they retire.
+     */
+    public void evictRetiredThreads() {
+        Iterator<ThreadInstances<T>> iterator = threadInstances.values().iterator();
+        while (iterator.hasNext()) {
+            ThreadInstances<T> instances = iterator.next();
+            if (!instances.thread.isAlive()) {
+                iterator.remove();
+                closeAll(instances.clear());
+            }
+        }
+    }
+
+    /**
+     * Closes idle instances of all threads. Instances in use are closed when released.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        for (ThreadInstances<T> instances : threadInstances.values()) {
+            closeAll(instances.clear());
+        }
+        threadInstances.clear();
+    }
+
+    /**
+     * Returns number of threads, that have got instances and are not retired.
+     *
+     * @return number of threads, that have got instances and are not retired
+     */
+    public int getThreadCount() {
+        return threadInstances.size();
+    }
+
+    /**
+     * Returns number of instances created by the factory.
+     *
+     * @return number of instances created by the factory
+     */
+    public long getCreatedCount() {
+        return createdCount.get();
+    }
+
+    private ThreadInstances<T> getCurrentThreadInstances() {
+        ThreadInstances<T> instances = currentThreadInstances.get();
+        if (instances == null || instances.retired) {
+            Thread thread = Thread.currentThread();
+            ThreadInstances<T> newInstances = new ThreadInstances<>(thread);
+            currentThreadInstances.set(newInstances);
+            threadInstances.put(thread, newInstances);
+            if (!WorkerThreads.onExit(() -> retire(newInstances))) {
+                evictRetiredThreads();
+            }
+            instances = newInstances;
+        }
+        return instances;
+    }
+
+    private void retire(ThreadInstances<T> instances) {
+        threadInstances.remove(instances.thread, instances);
+        currentThreadInstances.remove();
+        closeAll(instances.clear());
+    }
+
+    private T create() {
+        T instance = factory.getInstance();
+        if (instance == null) {
+            return null;
+        }
+        createdCount.incrementAndGet();
+        try {
+            instance.init();
+            return instance;
+        } catch (Exception e) {
+            Logger.log(e);
+            close(instance);
+            return null;
+        }
+    }
+
+    private void closeAll(List<T> instances) {
+        for (T instance : instances) {
+            close(instance);
+        }
+    }
+
+    private static void close(Processor instance) {
+        try {
+            instance.close();
+        } catch (Exception e) {
+            Logger.log(e);
+        }
+    }
+
+    /**
+     * Idle instances of one thread. They are used by that thread only, lock is taken by other
+     * threads only to close them, so it is never contended in normal work.
+     */
+    private static class ThreadInstances<T> {
+        private final Thread thread;
+        private final Deque<T> idle = new ArrayDeque<>();
+        private volatile boolean retired = false;
+
+        private ThreadInstances(Thread thread) {
+            this.thread = thread;
+        }
+
+        private synchronized T poll() {
+            return idle.pollFirst();
+        }
+
+        private synchronized boolean offer(T instance, int maxIdle) {
+            if (retired || idle.size() >= maxIdle) {
+                return false;
+            }
+            idle.offerFirst(instance);
+            return true;
+        }
+
+        /**
+         * Marks instances as retired and takes all of them away.
+         */
+        private synchronized List<T> clear() {
+            retired = true;
+            List<T> instances = new ArrayList<>(idle);
+            idle.clear();
+            return instances;
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package rlcp.util;
+
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * Reader of a range of character sequence. Unlike {@code StringReader} over a substring, range
+ * is read right from the source, so part of raw message can be parsed without copying it.
+ * <p>
+ * Not thread-safe.
+ */
+public class CharSequenceReader extends Reader {
+
+    private CharSequence source;
+    private final int end;
+    private int next;
+    private int mark;
+
+    /**
+     * Simple constructor.
+     *
+     * @param source characters to read
+     * @param start  index of the first character to read
+     * @param end    index following the last character to read
+     * @throws IndexOutOfBoundsException if range is out of source bounds
+     */
+    public CharSequenceReader(CharSequence source, int start, int end) throws IndexOutOfBoundsException {
+        if (start < 0 || start > end || end > source.length()) {
+            throw new IndexOutOfBoundsException("Range [" + start + ", " + end + ") of " + source.length() + " characters");
+        }
+        this.source = source;
+        this.end = end;
+        this.next = start;
+        this.mark = start;
+    }
+
+    @Override
+    public int read() throws IOException {
+        ensureOpen();
+        return next < end ? source.charAt(next++) : -1;
+    }
+
+    @Override
+    public int read(char[] buffer, int offset, int length) throws IOException {
+        ensureOpen();
+        if (offset < 0 || length < 0 || offset + length > buffer.length) {
+            throw new IndexOutOfBoundsException();
+        }
+        if (length == 0) {
+            return 0;
+        }
+        if (next >= end) {
+            return -1;
+        }
+        int count = Math.min(length, end - next);
+        if (source instanceof String) {
+            ((String) source).getChars(next, next + count, buffer, offset);
+        } else {
+            for (int i = 0; i < count; i++) {
+                buffer[offset + i] = source.charAt(next + i);
+            }
+        }
+        next += count;
+        return count;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+        ensureOpen();
+        long count = Math.max(0, Math.min(n, end - next));
+        next += count;
+        return count;
+    }
+
+    @Override
+    public boolean ready() throws IOException {
+        ensureOpen();
+        return true;
+    }
+
+    @Override
+    public boolean markSupported() {
+        return true;
+    }
+
+    @Override
+    public void mark(int readAheadLimit) throws IOException {
+        ensureOpen();
+        mark = next;
+    }
+
+    @Override
+    public void reset() throws IOException {
+        ensureOpen();
+        next = mark;
+    }
+
+    @Override
+    public void close() {
+        source = null;
+    }
+
+    private void ensureOpen() throws IOException {
+        if (source == null) {
+            throw new IOException("Reader is closed");
+        }
+    }
+}
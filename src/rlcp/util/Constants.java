@@ -1,5 +1,8 @@
 package rlcp.util;
 
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+
 /**
  * Class for xml mapping and xPath expressions constants.
  *
@@ -42,4 +45,38 @@ public class Constants {
 
     public static final long rlcpDefaultCheckUnitTimeLimitInSec = 10;
     public static final long rlcpDefaultRequestFlowTimeLimitInSec = 20;
+    public static final int rlcpDefaultWorkerPoolCoreSize = 8;
+    public static final int rlcpDefaultWorkerPoolMaxSize = 64;
+    public static final int rlcpDefaultWorkerPoolQueueSize = 128;
+    public static final long rlcpDefaultWorkerPoolDrainTimeLimitInSec = rlcpDefaultRequestFlowTimeLimitInSec;
+    public static final int rlcpDefaultEventLoopThreads = 2;
+    public static final int rlcpDefaultFlowConcurrency = rlcpDefaultWorkerPoolMaxSize;
+    public static final int rlcpDefaultFlowQueueSize = rlcpDefaultWorkerPoolQueueSize;
+    public static final int rlcpDefaultFastLaneThreads = 2;
+    public static final int rlcpDefaultCheckUnitPoolSize = Runtime.getRuntime().availableProcessors();
+    public static final int rlcpDefaultMaxHeaderSize = 8 * 1024;
+    public static final int rlcpDefaultMaxBodySize = 16 * 1024 * 1024;
+    public static final long rlcpDefaultReadTimeLimitInSec = 30;
+    public static final long rlcpDefaultKeepAliveTimeLimitInSec = 15;
+    public static final int rlcpDefaultPipelineDepth = 8;
+    public static final int rlcpDefaultClientMaxConnections = 8;
+    public static final long rlcpDefaultClientIdleTimeLimitInMillis = 10 * 1000;
+    public static final long rlcpDefaultClientHealthCheckIdleTimeInMillis = 1000;
+    public static final int rlcpDefaultClientConnectTimeLimitInMillis = 5 * 1000;
+    public static final int rlcpDefaultClientReadTimeLimitInMillis = 0;
+    public static final long rlcpDefaultClientDnsCacheTimeLimitInMillis = 60 * 1000;
+    public static final Charset rlcpDefaultCharset = StandardCharsets.UTF_8;
+    public static final int rlcpDefaultScriptEnginePoolSize = 8;
+    public static final long rlcpDefaultScriptReloadDelayInMillis = 200;
+    public static final int rlcpDefaultProcessorPoolMinIdle = 0;
+    public static final int rlcpDefaultProcessorPoolMaxIdle = 8;
+    public static final long rlcpDefaultProcessorPoolIdleTimeLimitInMillis = 5 * 60 * 1000;
+    public static final int rlcpDefaultProcessorMaxIdlePerThread = 8;
+    public static final int rlcpDefaultMaxReplacedRunawayThreadsPerPool = 16;
+
+    public static final String URL_HEADER_FIELD = "url";
+    public static final String CONTENT_LENGTH_HEADER_FIELD = "content-length";
+    public static final String CONNECTION_HEADER_FIELD = "connection";
+    public static final String KEEP_ALIVE = "keep-alive";
+    public static final String CHARSET_HEADER_FIELD = "charset";
 }
@@ -1,28 +1,148 @@
 package rlcp.util;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.StringReader;
 import java.io.StringWriter;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.parsers.SAXParserFactory;
 
 import org.dom4j.Document;
 import org.dom4j.DocumentException;
+import org.dom4j.DocumentHelper;
 import org.dom4j.Element;
 import org.dom4j.Node;
+import org.dom4j.XPath;
 import org.dom4j.io.OutputFormat;
 import org.dom4j.io.SAXReader;
 import org.dom4j.io.XMLWriter;
+import org.xml.sax.EntityResolver;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.SAXParseException;
+import org.xml.sax.XMLReader;
+import org.xml.sax.helpers.DefaultHandler;
 import rlcp.generate.GeneratingResult;
 
 /**
  * Provides some useful methods for dom4j
+ * <p>
+ * XPath expressions are compiled once and cached, so they are expected to be constants like
+ * {@code Constants.xPath_*}. XML is parsed by readers kept per thread. External DTDs are never
+ * fetched over network: Request.dtd and Response.dtd are read from copies bundled with library,
+ * see {@link DtdMode}.
  *
  * @author Eugene Efimchick
  */
 public class DomHelper {
 
+    /**
+     * Modes of external DTD resolution. In all modes DTDs are never fetched over network.
+     */
+    public enum DtdMode {
+        /**
+         * All external DTDs are read as empty.
+         */
+        OFF,
+        /**
+         * Request.dtd and Response.dtd are read from bundled copies, other external DTDs are
+         * read as empty. Used by default.
+         */
+        LOCAL,
+        /**
+         * DTDs are resolved as in {@code LOCAL} mode, and documents that declare document type
+         * are validated against it. Invalid documents are rejected.
+         */
+        VALIDATING
+    }
+
+    private static final String validationFeature = "http://xml.org/sax/features/validation";
+    private static final String dynamicValidationFeature = "http://apache.org/xml/features/validation/dynamic";
+    private static final String[] localDtdNames = {"Request.dtd", "Response.dtd"};
+    private static final Map<String, byte[]> localDtds = loadLocalDtds();
+    private static final ConcurrentMap<String, XPath> xPaths = new ConcurrentHashMap<>();
+    private static final ThreadLocal<Map<DtdMode, SAXReader>> saxReaders = ThreadLocal.withInitial(() -> new EnumMap<>(DtdMode.class));
+    private static final ThreadLocal<Map<DtdMode, XMLReader>> xmlReaders = ThreadLocal.withInitial(() -> new EnumMap<>(DtdMode.class));
+    private static final SAXParserFactory parserFactory = createParserFactory();
+    private static volatile DtdMode dtdMode = DtdMode.LOCAL;
+
     private DomHelper() {
     }
 
+    /**
+     * Returns mode of external DTD resolution.
+     *
+     * @return mode of external DTD resolution
+     */
+    public static DtdMode getDtdMode() {
+        return dtdMode;
+    }
+
+    /**
+     * Sets mode of external DTD resolution for all threads.
+     *
+     * @param mode mode of external DTD resolution
+     * @throws NullPointerException if mode is null
+     */
+    public static void setDtdMode(DtdMode mode) {
+        dtdMode = Objects.requireNonNull(mode);
+    }
+
+    /**
+     * Returns compiled XPath expression. Expression is compiled on first request and reused
+     * by all threads.
+     *
+     * @param xpath xpath expression
+     * @return compiled XPath expression
+     * @throws org.dom4j.InvalidXPathException if expression is invalid
+     */
+    public static XPath getXPath(String xpath) {
+        XPath compiled = xPaths.get(xpath);
+        if (compiled == null) {
+            compiled = DocumentHelper.createXPath(xpath);
+            //fixed namespace context, otherwise dom4j replaces it on every evaluation
+            compiled.setNamespaceURIs(Collections.emptyMap());
+            XPath existing = xPaths.putIfAbsent(xpath, compiled);
+            if (existing != null) {
+                compiled = existing;
+            }
+        }
+        return compiled;
+    }
+
+    /**
+     * Selects single node by cached xpath expression.
+     *
+     * @param node  context node
+     * @param xpath xpath expression
+     * @return first selected node or {@code null} if there is no such node
+     */
+    public static Node selectSingleNode(Node node, String xpath) {
+        return getXPath(xpath).selectSingleNode(node);
+    }
+
+    /**
+     * Selects nodes by cached xpath expression.
+     *
+     * @param node  context node
+     * @param xpath xpath expression
+     * @return selected nodes
+     */
+    @SuppressWarnings("unchecked")
+    public static List<Node> selectNodes(Node node, String xpath) {
+        return getXPath(xpath).selectNodes(node);
+    }
+
     /**
      * Safe method for get text from node by xpath expression.
      *
@@ -32,7 +152,7 @@ public class DomHelper {
      */
     public static String getTextFromNodeByXpath(Node node, String xpath) {
         try {
-            return node.selectSingleNode(xpath).getText();
+            return selectSingleNode(node, xpath).getText();
         } catch (RuntimeException re) {
             return null;
         }
@@ -47,7 +167,7 @@ public class DomHelper {
      */
     public static int getIntFromNodeByXpath(Node node, String xpath) {
         try {
-            return Integer.parseInt(node.selectSingleNode(xpath).getText());
+            return Integer.parseInt(selectSingleNode(node, xpath).getText());
         } catch (RuntimeException re) {
             return -1;
         }
@@ -61,7 +181,129 @@ public class DomHelper {
      * @throws DocumentException if string contains a invalid XML document
      */
     public static Document toXml(String source) throws DocumentException {
-        return new SAXReader().read(new StringReader(source));
+        return getSAXReader().read(new StringReader(source));
+    }
+
+    /**
+     * Safe method for get XML document from range of characters. Range is read in place, without
+     * copying it to a separate string.
+     *
+     * @param source characters containing XML document
+     * @param start  index of the first character of document
+     * @param end    index following the last character of document
+     * @return XML document
+     * @throws DocumentException if range contains a invalid XML document
+     */
+    public static Document toXml(CharSequence source, int start, int end) throws DocumentException {
+        return getSAXReader().read(new CharSequenceReader(source, start, end));
+    }
+
+    /**
+     * Safe method for get XML document from stream.
+     *
+     * @param source stream of XML document
+     * @return XML document
+     * @throws DocumentException if stream contains a invalid XML document
+     */
+    public static Document toXml(InputStream source) throws DocumentException {
+        return getSAXReader().read(source);
+    }
+
+    /**
+     * Returns namespace aware SAX reader of current thread, configured for current DTD mode.
+     * Reader is reused by further calls in the same thread, so caller should set all handlers
+     * it needs before parsing. In {@code VALIDATING} mode validity errors are reported to error
+     * handler, which should throw them.
+     *
+     * @return SAX reader of current thread
+     * @throws SAXException if reader can not be created
+     */
+    public static XMLReader getXMLReader() throws SAXException {
+        DtdMode mode = dtdMode;
+        Map<DtdMode, XMLReader> readers = xmlReaders.get();
+        XMLReader reader = readers.get(mode);
+        if (reader == null) {
+            reader = createXMLReader(mode);
+            readers.put(mode, reader);
+        }
+        return reader;
+    }
+
+    private static SAXReader getSAXReader() throws DocumentException {
+        DtdMode mode = dtdMode;
+        Map<DtdMode, SAXReader> readers = saxReaders.get();
+        SAXReader reader = readers.get(mode);
+        if (reader == null) {
+            try {
+                reader = new SAXReader(createXMLReader(mode));
+            } catch (SAXException ex) {
+                throw new DocumentException(ex);
+            }
+            reader.setValidation(mode == DtdMode.VALIDATING);
+            reader.setEntityResolver(createEntityResolver(mode));
+            reader.setErrorHandler(new DefaultHandler() {
+                @Override
+                public void error(SAXParseException ex) throws SAXException {
+                    throw ex;
+                }
+            });
+            readers.put(mode, reader);
+        }
+        return reader;
+    }
+
+    private static XMLReader createXMLReader(DtdMode mode) throws SAXException {
+        XMLReader reader;
+        try {
+            reader = parserFactory.newSAXParser().getXMLReader();
+        } catch (ParserConfigurationException ex) {
+            throw new SAXException(ex);
+        }
+        reader.setEntityResolver(createEntityResolver(mode));
+        if (mode == DtdMode.VALIDATING) {
+            reader.setFeature(validationFeature, true);
+            //documents without document type declaration, like configuration files, are not validated
+            reader.setFeature(dynamicValidationFeature, true);
+        }
+        return reader;
+    }
+
+    private static EntityResolver createEntityResolver(DtdMode mode) {
+        return (publicId, systemId) -> {
+            byte[] dtd = mode == DtdMode.OFF || systemId == null ? null
+                    : localDtds.get(systemId.substring(systemId.lastIndexOf('/') + 1));
+            InputSource source = new InputSource(new ByteArrayInputStream(dtd == null ? new byte[0] : dtd));
+            source.setSystemId(systemId);
+            return source;
+        };
+    }
+
+    private static Map<String, byte[]> loadLocalDtds() {
+        Map<String, byte[]> dtds = new HashMap<>();
+        for (String name : localDtdNames) {
+            try (InputStream in = DomHelper.class.getResourceAsStream("dtd/" + name)) {
+                if (in == null) {
+                    continue;
+                }
+                ByteArrayOutputStream out = new ByteArrayOutputStream();
+                byte[] buffer = new byte[1024];
+                int read;
+                while ((read = in.read(buffer)) >= 0) {
+                    out.write(buffer, 0, read);
+                }
+                dtds.put(name, out.toByteArray());
+            } catch (IOException ex) {
+                //bundled DTD is unreadable, it is read as empty one
+            }
+        }
+        return dtds;
+    }
+
+    private static SAXParserFactory createParserFactory() {
+        SAXParserFactory factory = SAXParserFactory.newInstance();
+        factory.setNamespaceAware(true);
+        factory.setValidating(false);
+        return factory;
     }
 
     /**
@@ -0,0 +1,212 @@
+package rlcp.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+
+import rlcp.exception.BadRlcpBodyException;
+import rlcp.exception.BadRlcpHeaderException;
+
+/**
+ * Reader of content-length framed RLCP requests and responses. Header is read up to the
+ * first empty line. If header has "charset" or "connection:keep-alive" field, exactly
+ * content-length bytes of body are read, so reader does not depend on peer shutting down its
+ * output. Data is read from stream in bulk, bytes following the frame are kept for next
+ * {@code readFrame()} call.
+ * <p>
+ * Peers that send neither field are not aware of byte framing: they count content-length in
+ * characters, not in bytes, and shut down their output after the frame. Body of such frame is
+ * read until end of stream. Body without content-length field is read until end of stream too.
+ * If stream ends before content-length bytes are read, the read part of body is returned.
+ * <p>
+ * Frame is decoded with charset named by its "charset" header field, or with charset of reader
+ * if there is no such field. Decoding is done in bulk right from the read buffer.
+ * <p>
+ * Not thread-safe.
+ */
+public class RlcpFrameReader {
+
+    private static final int initialBufferSize = 8 * 1024;
+
+    private final InputStream in;
+    private final Charset charset;
+    private final int maxHeaderSize;
+    private final int maxBodySize;
+    private Charset frameCharset;
+    private byte[] buffer = new byte[initialBufferSize];
+    private int position = 0;
+    private int limit = 0;
+    private boolean endOfStream = false;
+
+    /**
+     * Simple constructor.
+     *
+     * @param in            stream to read frames from. Must not be null.
+     * @param charset       charset of frames without "charset" header field. Must not be null.
+     * @param maxHeaderSize maximum size of header in bytes
+     * @param maxBodySize   maximum size of body in bytes
+     * @throws IllegalArgumentException if stream or charset is null
+     */
+    public RlcpFrameReader(InputStream in, Charset charset, int maxHeaderSize, int maxBodySize) throws IllegalArgumentException {
+        Util.checkNotNull("Stream or charset is null in RlcpFrameReader constructor", in, charset);
+        this.in = in;
+        this.charset = charset;
+        this.maxHeaderSize = maxHeaderSize;
+        this.maxBodySize = maxBodySize;
+    }
+
+    /**
+     * Reads next frame. Line separators before header (for example, left from previous
+     * frame) are skipped.
+     *
+     * @return raw frame: header, empty line and body; or {@code null} if stream ended before next frame
+     * @throws IOException            if an I/O error occurs, including read timeout
+     * @throws BadRlcpHeaderException if header is too large, has bad content-length or unsupported charset
+     * @throws BadRlcpBodyException   if body is too large
+     */
+    public String readFrame() throws IOException, BadRlcpHeaderException, BadRlcpBodyException {
+        if (!hasNextFrame()) {
+            return null;
+        }
+        String header = readHeader();
+        int bodyLength = getFramedBodyLength(header);
+        if (bodyLength > maxBodySize) {
+            throw new BadRlcpBodyException("content-length " + bodyLength + " exceeds limit " + maxBodySize);
+        }
+        String body = bodyLength < 0 ? readBody(maxBodySize, true) : readBody(bodyLength, false);
+        return header + body;
+    }
+
+    /**
+     * Waits for beginning of next frame, skipping line separators before it. Blocks until
+     * frame data is available or stream ends.
+     *
+     * @return {@code true} if there is next frame, {@code false} if stream ended
+     * @throws IOException if an I/O error occurs, including read timeout
+     */
+    public boolean hasNextFrame() throws IOException {
+        while (true) {
+            while (position < limit && (buffer[position] == '\r' || buffer[position] == '\n')) {
+                position++;
+            }
+            if (position < limit) {
+                return true;
+            }
+            if (!fill()) {
+                return false;
+            }
+        }
+    }
+
+    private String readHeader() throws IOException, BadRlcpHeaderException {
+        int scanned = position;
+        int lineStart = position;
+        while (true) {
+            for (; scanned < limit; scanned++) {
+                if (buffer[scanned] == '\n') {
+                    int lineLength = scanned - lineStart;
+                    boolean emptyLine = lineLength == 0 || (lineLength == 1 && buffer[lineStart] == '\r');
+                    if (emptyLine) {
+                        return takeHeader(scanned + 1);
+                    }
+                    lineStart = scanned + 1;
+                }
+            }
+            if (scanned - position > maxHeaderSize) {
+                throw new BadRlcpHeaderException("Header exceeds limit " + maxHeaderSize + " bytes");
+            }
+            int headerStart = position;
+            if (!fill()) {
+                return takeHeader(limit);
+            }
+            scanned -= headerStart - position;
+            lineStart -= headerStart - position;
+        }
+    }
+
+    private String takeHeader(int end) throws BadRlcpHeaderException {
+        if (end - position > maxHeaderSize) {
+            throw new BadRlcpHeaderException("Header exceeds limit " + maxHeaderSize + " bytes");
+        }
+        ByteBuffer headerBytes = ByteBuffer.wrap(buffer, position, end - position);
+        String header = Util.decode(headerBytes.duplicate(), charset);
+        frameCharset = Util.parseCharsetHeaderField(header, charset);
+        if (!frameCharset.equals(charset)) {
+            header = Util.decode(headerBytes, frameCharset);
+        }
+        position = end;
+        return header;
+    }
+
+    /**
+     * Returns length of body in bytes for frame with specified header, if header shows that peer
+     * counts content-length in bytes: has "charset" or "connection:keep-alive" field.
+     *
+     * @param header frame header
+     * @return content-length of body, or -1 if there is no content-length field or peer does not
+     * count it in bytes, so that body ends with end of stream
+     * @throws BadRlcpHeaderException if content-length is not a number
+     */
+    public static int getFramedBodyLength(String header) throws BadRlcpHeaderException {
+        int contentLength = -1;
+        boolean bytesCounted = false;
+        RlcpHeaderTokenizer tokenizer = new RlcpHeaderTokenizer(header);
+        while (tokenizer.nextLine()) {
+            if (contentLength < 0 && tokenizer.isField(Constants.CONTENT_LENGTH_HEADER_FIELD)) {
+                try {
+                    contentLength = tokenizer.intValue();
+                } catch (NumberFormatException ex) {
+                    throw new BadRlcpHeaderException("content-length is not a number in " + header, ex);
+                }
+            } else if (tokenizer.isField(Constants.CHARSET_HEADER_FIELD)) {
+                bytesCounted = true;
+            } else if (tokenizer.isField(Constants.CONNECTION_HEADER_FIELD)
+                    && tokenizer.trimmedValue().equalsIgnoreCase(Constants.KEEP_ALIVE)) {
+                bytesCounted = true;
+            }
+        }
+        return bytesCounted ? contentLength : -1;
+    }
+
+    private String readBody(int length, boolean untilEndOfStream) throws IOException, BadRlcpBodyException {
+        while ((untilEndOfStream ? limit - position <= length : limit - position < length) && fill()) {
+        }
+        if (limit - position > length && untilEndOfStream) {
+            throw new BadRlcpBodyException("Body exceeds limit " + length + " bytes");
+        }
+        int bodyLength = Math.min(length, limit - position);
+        String body = Util.decode(ByteBuffer.wrap(buffer, position, bodyLength), frameCharset);
+        position += bodyLength;
+        return body;
+    }
+
+    /**
+     * Reads next portion of bytes to buffer, moving unread bytes to its beginning and growing it
+     * if necessary.
+     *
+     * @return {@code false} if stream ended, {@code true} otherwise
+     */
+    private boolean fill() throws IOException {
+        if (endOfStream) {
+            return false;
+        }
+        if (position > 0) {
+            System.arraycopy(buffer, position, buffer, 0, limit - position);
+            limit -= position;
+            position = 0;
+        }
+        if (limit == buffer.length) {
+            byte[] grown = new byte[buffer.length * 2];
+            System.arraycopy(buffer, 0, grown, 0, limit);
+            buffer = grown;
+        }
+        int read = in.read(buffer, limit, buffer.length - limit);
+        if (read < 0) {
+            endOfStream = true;
+            return false;
+        }
+        limit += read;
+        return true;
+    }
+}
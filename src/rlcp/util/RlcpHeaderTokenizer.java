@@ -0,0 +1,286 @@
+package rlcp.util;
+
+/**
+ * Single-pass tokenizer of RLCP header. Works on characters of header in place: lines and
+ * header fields are kept as offsets into source, names are compared ignoring case without
+ * copying, so the only strings created are the values requested by caller.
+ * <p>
+ * Lines are separated by "\n", trailing "\r" of line is ignored. Field is a line containing ":",
+ * its name is the part before the first ":" without surrounding whitespace, its value is the rest
+ * of line.
+ * <p>
+ * Not thread-safe.
+ */
+public class RlcpHeaderTokenizer {
+
+    private static final String[] knownFieldNames = {
+            Constants.URL_HEADER_FIELD,
+            Constants.CONTENT_LENGTH_HEADER_FIELD,
+            Constants.CONNECTION_HEADER_FIELD,
+            Constants.CHARSET_HEADER_FIELD
+    };
+
+    private final CharSequence source;
+    private final int end;
+    private int next;
+    private int lineStart;
+    private int lineEnd;
+    private int nameStart;
+    private int nameEnd;
+    private int valueStart;
+
+    /**
+     * Simple constructor.
+     *
+     * @param source characters containing header
+     * @param start  index of the first character of header
+     * @param end    index following the last character of header
+     */
+    public RlcpHeaderTokenizer(CharSequence source, int start, int end) {
+        this.source = source;
+        this.next = start;
+        this.end = end;
+    }
+
+    /**
+     * Simple constructor.
+     *
+     * @param source header
+     */
+    public RlcpHeaderTokenizer(CharSequence source) {
+        this(source, 0, source.length());
+    }
+
+    /**
+     * Moves to the next line of header.
+     *
+     * @return {@code true} if there is next line, {@code false} if header is over
+     */
+    public boolean nextLine() {
+        if (next >= end) {
+            return false;
+        }
+        lineStart = next;
+        int i = lineStart;
+        while (i < end && source.charAt(i) != '\n') {
+            i++;
+        }
+        next = i + 1;
+        lineEnd = i > lineStart && source.charAt(i - 1) == '\r' ? i - 1 : i;
+
+        valueStart = -1;
+        for (int j = lineStart; j < lineEnd; j++) {
+            if (source.charAt(j) == ':') {
+                valueStart = j + 1;
+                break;
+            }
+        }
+        if (valueStart >= 0) {
+            nameStart = skipWhitespace(lineStart, valueStart - 1);
+            nameEnd = valueStart - 1;
+            while (nameEnd > nameStart && isWhitespace(source.charAt(nameEnd - 1))) {
+                nameEnd--;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns {@code true} if current line is a header field, {@code false} otherwise.
+     *
+     * @return {@code true} if current line is a header field, {@code false} otherwise
+     */
+    public boolean isField() {
+        return valueStart >= 0;
+    }
+
+    /**
+     * Returns {@code true} if current line is a header field with specified name, ignoring case.
+     *
+     * @param name header field name
+     * @return {@code true} if current line is a header field with specified name, ignoring case
+     */
+    public boolean isField(String name) {
+        return isField() && regionEqualsIgnoreCase(nameStart, nameEnd, name);
+    }
+
+    /**
+     * Returns {@code true} if current line without trailing "\r" equals to specified string, ignoring case.
+     *
+     * @param string string to compare line with
+     * @return {@code true} if current line equals to specified string, ignoring case
+     */
+    public boolean lineEqualsIgnoreCase(String string) {
+        return regionEqualsIgnoreCase(lineStart, lineEnd, string);
+    }
+
+    /**
+     * Returns current line without trailing "\r".
+     *
+     * @return current line without trailing "\r"
+     */
+    public String line() {
+        return substring(lineStart, lineEnd);
+    }
+
+    /**
+     * Returns index of the first occurrence of character in current line, or -1.
+     *
+     * @param c character to look for
+     * @return index of character relative to line start, or -1 if there is no such character
+     */
+    public int indexInLine(char c) {
+        for (int i = lineStart; i < lineEnd; i++) {
+            if (source.charAt(i) == c) {
+                return i - lineStart;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns part of current line from specified index up to line end.
+     *
+     * @param beginIndex index relative to line start
+     * @return part of current line from specified index up to line end
+     */
+    public String lineFrom(int beginIndex) {
+        return substring(lineStart + beginIndex, lineEnd);
+    }
+
+    /**
+     * Returns part of current line up to specified index.
+     *
+     * @param endIndex index relative to line start
+     * @return part of current line up to specified index
+     */
+    public String lineTo(int endIndex) {
+        return substring(lineStart, lineStart + endIndex);
+    }
+
+    /**
+     * Returns name of current header field. Well-known names are returned as constants.
+     *
+     * @return name of current header field
+     */
+    public String name() {
+        for (String knownName : knownFieldNames) {
+            if (regionEquals(nameStart, nameEnd, knownName)) {
+                return knownName;
+            }
+        }
+        return substring(nameStart, nameEnd);
+    }
+
+    /**
+     * Returns {@code true} if current header field has non-empty value, {@code false} otherwise.
+     *
+     * @return {@code true} if current header field has non-empty value, {@code false} otherwise
+     */
+    public boolean hasValue() {
+        return valueStart < lineEnd;
+    }
+
+    /**
+     * Returns value of current header field as is.
+     *
+     * @return value of current header field
+     */
+    public String value() {
+        return substring(valueStart, lineEnd);
+    }
+
+    /**
+     * Returns value of current header field without surrounding whitespace.
+     *
+     * @return value of current header field without surrounding whitespace
+     */
+    public String trimmedValue() {
+        int start = skipWhitespace(valueStart, lineEnd);
+        int stop = lineEnd;
+        while (stop > start && isWhitespace(source.charAt(stop - 1))) {
+            stop--;
+        }
+        return substring(start, stop);
+    }
+
+    /**
+     * Returns value of current header field as decimal integer. Surrounding whitespace is ignored.
+     *
+     * @return value of current header field as integer
+     * @throws NumberFormatException if value is not a decimal integer
+     */
+    public int intValue() throws NumberFormatException {
+        int i = skipWhitespace(valueStart, lineEnd);
+        int stop = lineEnd;
+        while (stop > i && isWhitespace(source.charAt(stop - 1))) {
+            stop--;
+        }
+        boolean negative = false;
+        if (i < stop && (source.charAt(i) == '-' || source.charAt(i) == '+')) {
+            negative = source.charAt(i) == '-';
+            i++;
+        }
+        if (i == stop) {
+            throw new NumberFormatException("Empty number in header field " + line());
+        }
+        //accumulated negatively, like Integer.parseInt does, to reach Integer.MIN_VALUE
+        long result = 0;
+        for (; i < stop; i++) {
+            int digit = source.charAt(i) - '0';
+            if (digit < 0 || digit > 9) {
+                throw new NumberFormatException("Not a number in header field " + line());
+            }
+            result = result * 10 - digit;
+            if (result < Integer.MIN_VALUE) {
+                throw new NumberFormatException("Number out of range in header field " + line());
+            }
+        }
+        if (!negative && result == Integer.MIN_VALUE) {
+            throw new NumberFormatException("Number out of range in header field " + line());
+        }
+        return (int) (negative ? result : -result);
+    }
+
+    private int skipWhitespace(int from, int to) {
+        while (from < to && isWhitespace(source.charAt(from))) {
+            from++;
+        }
+        return from;
+    }
+
+    private boolean regionEquals(int start, int stop, String string) {
+        if (stop - start != string.length()) {
+            return false;
+        }
+        for (int i = 0; i < string.length(); i++) {
+            if (source.charAt(start + i) != string.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean regionEqualsIgnoreCase(int start, int stop, String string) {
+        if (stop - start != string.length()) {
+            return false;
+        }
+        for (int i = 0; i < string.length(); i++) {
+            char c1 = source.charAt(start + i);
+            char c2 = string.charAt(i);
+            if (c1 != c2 && Character.toUpperCase(c1) != Character.toUpperCase(c2)
+                    && Character.toLowerCase(c1) != Character.toLowerCase(c2)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private String substring(int start, int stop) {
+        return source.subSequence(start, stop).toString();
+    }
+
+    private static boolean isWhitespace(char c) {
+        return c == ' ' || c == '\t';
+    }
+}
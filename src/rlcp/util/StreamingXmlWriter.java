@@ -0,0 +1,200 @@
+package rlcp.util;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * Writer of XML documents straight to character stream, without building document tree.
+ * Pretty mode produces the same output as dom4j {@code XMLWriter} with
+ * {@code OutputFormat.createPrettyPrint()} for documents of elements, attributes and comments;
+ * compact mode writes no indentation and line breaks inside root element.
+ * <p>
+ * Not thread-safe.
+ */
+public class StreamingXmlWriter {
+
+    private static final String lineSeparator = "\n";
+    private static final String indent = "  ";
+
+    private final Writer writer;
+    private final boolean compact;
+    private final Deque<String> openElements = new ArrayDeque<>();
+    private boolean startTagOpen = false;
+
+    /**
+     * Simple constructor.
+     *
+     * @param writer  stream to write document to. Must not be null.
+     * @param compact {@code true} for compact mode, {@code false} for pretty mode
+     */
+    public StreamingXmlWriter(Writer writer, boolean compact) {
+        this.writer = writer;
+        this.compact = compact;
+    }
+
+    /**
+     * Writes XML declaration of UTF-8 encoded document.
+     *
+     * @throws IOException if an I/O error occurs
+     */
+    public void writeDeclaration() throws IOException {
+        writer.write("<?xml version=\"1.0\" encoding=\"UTF-8\"?>");
+        writer.write(lineSeparator);
+    }
+
+    /**
+     * Writes document type declaration with system identifier.
+     *
+     * @param name     root element name
+     * @param systemId DTD system identifier
+     * @throws IOException if an I/O error occurs
+     */
+    public void writeDocType(String name, String systemId) throws IOException {
+        writer.write("<!DOCTYPE ");
+        writer.write(name);
+        writer.write(" SYSTEM \"");
+        writer.write(systemId);
+        writer.write("\">");
+        writer.write(lineSeparator);
+    }
+
+    /**
+     * Writes start tag of element. Attributes may be added until element content is written.
+     *
+     * @param name element name
+     * @return this writer
+     * @throws IOException if an I/O error occurs
+     */
+    public StreamingXmlWriter startElement(String name) throws IOException {
+        closeStartTag();
+        writeIndent();
+        writer.write('<');
+        writer.write(name);
+        openElements.push(name);
+        startTagOpen = true;
+        return this;
+    }
+
+    /**
+     * Writes attribute of element which start tag is just written. Attribute with {@code null}
+     * value is omitted.
+     *
+     * @param name  attribute name
+     * @param value attribute value
+     * @return this writer
+     * @throws IOException if an I/O error occurs
+     */
+    public StreamingXmlWriter attribute(String name, String value) throws IOException {
+        if (value == null) {
+            return this;
+        }
+        writer.write(' ');
+        writer.write(name);
+        writer.write("=\"");
+        writeEscapedAttribute(value);
+        writer.write('"');
+        return this;
+    }
+
+    /**
+     * Writes comment as content of current element. Comment text is written as is.
+     *
+     * @param text comment text
+     * @return this writer
+     * @throws IOException if an I/O error occurs
+     */
+    public StreamingXmlWriter comment(String text) throws IOException {
+        closeStartTag();
+        writeIndent();
+        writer.write("<!--");
+        writer.write(String.valueOf(text));
+        writer.write("-->");
+        return this;
+    }
+
+    /**
+     * Writes end tag of current element, or closes its start tag if element is empty.
+     *
+     * @return this writer
+     * @throws IOException if an I/O error occurs
+     */
+    public StreamingXmlWriter endElement() throws IOException {
+        String name = openElements.pop();
+        if (startTagOpen) {
+            writer.write("/>");
+            startTagOpen = false;
+        } else {
+            writeIndent();
+            writer.write("</");
+            writer.write(name);
+            writer.write('>');
+        }
+        return this;
+    }
+
+    /**
+     * Finishes document and flushes underlying stream.
+     *
+     * @throws IOException if an I/O error occurs
+     */
+    public void endDocument() throws IOException {
+        if (!compact) {
+            writer.write(lineSeparator);
+        }
+        writer.flush();
+    }
+
+    private void closeStartTag() throws IOException {
+        if (startTagOpen) {
+            writer.write('>');
+            startTagOpen = false;
+        }
+    }
+
+    private void writeIndent() throws IOException {
+        if (compact) {
+            return;
+        }
+        writer.write(lineSeparator);
+        for (int i = 0; i < openElements.size(); i++) {
+            writer.write(indent);
+        }
+    }
+
+    private void writeEscapedAttribute(String value) throws IOException {
+        int written = 0;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            String entity;
+            switch (c) {
+                case '<':
+                    entity = "&lt;";
+                    break;
+                case '>':
+                    entity = "&gt;";
+                    break;
+                case '"':
+                    entity = "&quot;";
+                    break;
+                case '&':
+                    entity = "&amp;";
+                    break;
+                case '\t':
+                case '\n':
+                case '\r':
+                    entity = null;
+                    break;
+                default:
+                    entity = c < 32 ? "&#" + (int) c + ";" : null;
+            }
+            if (entity != null) {
+                writer.write(value, written, i - written);
+                writer.write(entity);
+                written = i + 1;
+            }
+        }
+        writer.write(value, written, value.length() - written);
+    }
+}
@@ -2,6 +2,10 @@ package rlcp.util;
 
 import java.io.*;
 import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.Charset;
+import java.nio.charset.CodingErrorAction;
 
 import rlcp.RlcpUrl;
 import rlcp.exception.BadRlcpHeaderException;
@@ -204,27 +208,168 @@ public class Util {
     }
 
     /**
-     * Read data stream from socket and return them
+     * Returns index of the first character of body in raw {@code RlcpRequest} or {@code RlcpResponse},
+     * that is index following the first empty line, or length of message if there is no empty line.
+     * Empty lines right after the first one are skipped as well. Header is the part of message
+     * before this index, body is the rest of message as is.
+     *
+     * @param message raw {@code RlcpRequest} or {@code RlcpResponse} representation
+     * @return index of the first character of body
+     */
+    public static int findBodyStart(CharSequence message) {
+        int length = message.length();
+        int lineStart = 0;
+        for (int i = 0; i < length; i++) {
+            if (message.charAt(i) == '\n') {
+                int lineLength = i - lineStart;
+                if (lineLength == 0 || (lineLength == 1 && message.charAt(lineStart) == '\r')) {
+                    return skipEmptyLines(message, i + 1);
+                }
+                lineStart = i + 1;
+            }
+        }
+        return length;
+    }
+
+    private static int skipEmptyLines(CharSequence message, int from) {
+        int bodyStart = from;
+        for (int i = from; i < message.length(); i++) {
+            char c = message.charAt(i);
+            if (c == '\n') {
+                bodyStart = i + 1;
+            } else if (c != '\r') {
+                break;
+            }
+        }
+        return bodyStart;
+    }
+
+    /**
+     * Returns {@code true} if range of characters is empty or contains only whitespace.
+     *
+     * @param source characters
+     * @param start  index of the first character of range
+     * @param end    index following the last character of range
+     * @return {@code true} if range of characters is empty or contains only whitespace
+     */
+    public static boolean isBlank(CharSequence source, int start, int end) {
+        for (int i = start; i < end; i++) {
+            if (source.charAt(i) > ' ') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Read data stream from socket until peer shuts down its output and return them decoded
+     * by {@code decodeMessage()} with default RLCP charset
      *
      * @param socket socket
      * @return string data from socket
-     * @throws IOException
+     * @throws IOException            if an I/O error occurs
+     * @throws BadRlcpHeaderException if charset named by header is not supported
+     * @see RlcpFrameReader
      */
-    public static String readSocketInputUntilInputShutdown(Socket socket) throws IOException {
+    public static String readSocketInputUntilInputShutdown(Socket socket) throws IOException, BadRlcpHeaderException {
         ByteArrayOutputStream baos = new ByteArrayOutputStream();
-        int nextByte;
+        byte[] buffer = new byte[8 * 1024];
+        int read;
 
         InputStream socketIS = socket.getInputStream();
         while (!socket.isInputShutdown()) {
-            nextByte = socketIS.read();
-            if (nextByte >= 0) {
-                baos.write(nextByte);
+            read = socketIS.read(buffer);
+            if (read >= 0) {
+                baos.write(buffer, 0, read);
             } else {
                 break;
             }
         }
 
-        return baos.toString();
+        return decodeMessage(ByteBuffer.wrap(baos.toByteArray()), Constants.rlcpDefaultCharset);
+    }
+
+    /**
+     * Decodes raw RLCP-request or RLCP-response. Header and body are decoded with charset named by
+     * "charset" header field, or with specified default charset if there is no such field.
+     *
+     * @param bytes          raw message bytes, from position to limit
+     * @param defaultCharset charset of messages without "charset" header field
+     * @return decoded message
+     * @throws BadRlcpHeaderException if charset named by header is not supported
+     */
+    public static String decodeMessage(ByteBuffer bytes, Charset defaultCharset) throws BadRlcpHeaderException {
+        ByteBuffer header = bytes.duplicate();
+        header.limit(findHeaderEnd(bytes));
+        ByteBuffer body = bytes.duplicate();
+        body.position(header.limit());
+
+        String headerString = decode(header.duplicate(), defaultCharset);
+        Charset charset = parseCharsetHeaderField(headerString, defaultCharset);
+        if (!charset.equals(defaultCharset)) {
+            headerString = decode(header, charset);
+        }
+        return headerString + decode(body, charset);
+    }
+
+    /**
+     * Decodes bytes in bulk. Malformed and unmappable input is replaced, like {@code String} constructors do.
+     *
+     * @param bytes   bytes to decode, from position to limit
+     * @param charset charset of bytes
+     * @return decoded string
+     */
+    public static String decode(ByteBuffer bytes, Charset charset) {
+        try {
+            return charset.newDecoder()
+                    .onMalformedInput(CodingErrorAction.REPLACE)
+                    .onUnmappableCharacter(CodingErrorAction.REPLACE)
+                    .decode(bytes)
+                    .toString();
+        } catch (CharacterCodingException ex) {
+            //never thrown when errors are replaced
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    /**
+     * Reads value "charset" of a header
+     *
+     * @param headerString   full RLCP-header
+     * @param defaultCharset charset to return if there is no "charset" header field
+     * @return charset named by header field, or default charset
+     * @throws BadRlcpHeaderException if charset is not supported
+     */
+    public static Charset parseCharsetHeaderField(String headerString, Charset defaultCharset) throws BadRlcpHeaderException {
+        RlcpHeaderTokenizer tokenizer = new RlcpHeaderTokenizer(headerString);
+        while (tokenizer.nextLine()) {
+            if (tokenizer.isField(Constants.CHARSET_HEADER_FIELD)) {
+                String name = tokenizer.trimmedValue();
+                try {
+                    return Charset.forName(name);
+                } catch (IllegalArgumentException ex) {
+                    throw new BadRlcpHeaderException("Unsupported charset " + name + " in " + headerString, ex);
+                }
+            }
+        }
+        return defaultCharset;
+    }
+
+    /**
+     * Returns position following the empty line that ends header, or limit if there is no such line.
+     */
+    private static int findHeaderEnd(ByteBuffer bytes) {
+        int lineStart = bytes.position();
+        for (int i = bytes.position(); i < bytes.limit(); i++) {
+            if (bytes.get(i) == '\n') {
+                int lineLength = i - lineStart;
+                if (lineLength == 0 || (lineLength == 1 && bytes.get(lineStart) == '\r')) {
+                    return i + 1;
+                }
+                lineStart = i + 1;
+            }
+        }
+        return bytes.limit();
     }
 
     /**
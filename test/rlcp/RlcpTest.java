@@ -1,7 +1,11 @@
 package rlcp;
 
+import org.junit.AfterClass;
+import org.junit.Before;
 import org.junit.BeforeClass;
 import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
 import rlcp.calculate.RlcpCalculateRequest;
 import rlcp.calculate.RlcpCalculateRequestBody;
 import rlcp.calculate.RlcpCalculateResponse;
@@ -14,11 +18,18 @@ import rlcp.exception.RlcpException;
 import rlcp.generate.*;
 import rlcp.method.RlcpMethod;
 
+import java.util.Arrays;
+import java.util.Collection;
+
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 import static rlcp.method.RlcpMethod.*;
 
+@RunWith(Parameterized.class)
 public class RlcpTest {
+    private final Rlcp.RequestParser requestParser;
+
     private static String rlcpCalculateRequest;
     private static String rlcpCalculateRequestBody;
 
@@ -37,6 +48,25 @@ public class RlcpTest {
     private static String rlcpGenerateResponse;
     private static String rlcpGenerateResponseBody;
 
+    public RlcpTest(Rlcp.RequestParser requestParser) {
+        this.requestParser = requestParser;
+    }
+
+    @Parameterized.Parameters(name = "{0}")
+    public static Collection<Rlcp.RequestParser> requestParsers() {
+        return Arrays.asList(Rlcp.RequestParser.values());
+    }
+
+    @Before
+    public void setRequestParser() {
+        Rlcp.setRequestParser(requestParser);
+    }
+
+    @AfterClass
+    public static void resetRequestParser() {
+        Rlcp.setRequestParser(Rlcp.RequestParser.STREAMING);
+    }
+
     @BeforeClass
     public static void init() {
         rlcpCalculateRequestBody = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n" +
@@ -228,6 +258,13 @@ public class RlcpTest {
         assertEquals(request.getBody().getConditionsList().size(), 2);
     }
 
+    @Test
+    public void testParseCheckRequestKeepsBlankLinesOfBody() throws BadRlcpRequestException {
+        RlcpCheckRequest request = Rlcp.parseRequest(rlcpCheckRequest.replace("<!--тест-Input-1-->", "<!--тест\n\nInput-1-->"),
+                RlcpCheckRequest.class);
+        assertEquals("тест\n\nInput-1", request.getBody().getConditionsList().get(0).getInput());
+    }
+
     @Test
     public void testParseGenerateValidRequestCast() {
         RlcpGenerateRequest request = null;
@@ -444,6 +481,37 @@ public class RlcpTest {
         RlcpGenerateRequestBody request = Rlcp.parseRequestBody("", RlcpGenerateRequestBody.class);
     }
 
+    @Test
+    public void testParseBlankRequestBodyFailsTheSameWithEveryParser() throws BadRlcpBodyException {
+        for (String body : Arrays.asList("", "  ", "\n\t\n")) {
+            assertEquals("Request body is empty", parseRequestBodyError(body, RlcpCheckRequestBody.class));
+            assertEquals("Request body is empty", parseRequestBodyError(body, RlcpCalculateRequestBody.class));
+            assertEquals("Request body is empty", parseRequestBodyError(body, RlcpGenerateRequestBody.class));
+        }
+    }
+
+    @Test
+    public void testParseRequestWithBlankBodyFailsTheSameWithEveryParser() {
+        String request = rlcpCheckRequest.replace(rlcpCheckRequestBody, "\n");
+        try {
+            Rlcp.parseRequest(request, RlcpCheckRequest.class);
+            fail("request without body should not be parsed");
+        } catch (BadRlcpRequestException e) {
+            assertTrue(e.getCause() instanceof RlcpException);
+            assertEquals("Request body is empty", e.getCause().getMessage());
+        }
+    }
+
+    private static String parseRequestBodyError(String body, Class<? extends RlcpRequestBody> clazz) throws BadRlcpBodyException {
+        try {
+            Rlcp.parseRequestBody(body, clazz);
+        } catch (RlcpException e) {
+            return e.getMessage();
+        }
+        fail("blank body should not be parsed as " + clazz.getSimpleName());
+        return null;
+    }
+
     //    ------------------------------------------ ParseResponse(String, Class) ------------------------------------------
     @Test
     public void testParseCalculateValidResponseCast() {
@@ -0,0 +1,29 @@
+package rlcp.check;
+
+import org.junit.*;
+
+import static org.junit.Assert.*;
+
+public class CheckingResultTest {
+
+    public CheckingResultTest() {
+    }
+
+    @Test
+    public void testTimeIsRoundedUpToMillis() {
+        System.out.println("time in milliseconds of unit measured in nanoseconds");
+        assertEquals(0, new CheckingResult(1, "1.0", "", 0).getTime());
+        assertEquals(1, new CheckingResult(1, "1.0", "", 1).getTime());
+        assertEquals(1, new CheckingResult(1, "1.0", "", 1000000).getTime());
+        assertEquals(2, new CheckingResult(1, "1.0", "", 1000001).getTime());
+        assertEquals(1000001, new CheckingResult(1, "1.0", "", 1000001).getTimeInNanos());
+    }
+
+    @Test
+    public void testTimeInMillis() {
+        System.out.println("time of unit measured in milliseconds");
+        CheckingResult result = new CheckingResult(1, 5, "1.0", "");
+        assertEquals(5, result.getTime());
+        assertEquals(5000000, result.getTimeInNanos());
+    }
+}
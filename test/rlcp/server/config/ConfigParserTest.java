@@ -0,0 +1,70 @@
+package rlcp.server.config;
+
+import org.junit.*;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import static org.junit.Assert.*;
+
+public class ConfigParserTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    public ConfigParserTest() {
+    }
+
+    @Test
+    public void testBadWorkerPoolKeepsRestOfConfig() throws Exception {
+        System.out.println("out of range worker pool falls back to default worker pool, rest of config is kept");
+        Config config = read("<WorkerPool coreSize=\"4\" maxSize=\"2\"/><Framing mode=\"shutdown\" maxBodySize=\"1024\"/>");
+
+        assertConfigKept(config);
+        assertEquals(WorkerPoolConfig.getDefault().getCoreSize(), config.getWorkerPoolConfig().getCoreSize());
+        assertEquals(WorkerPoolConfig.getDefault().getMaxSize(), config.getWorkerPoolConfig().getMaxSize());
+        assertEquals(ConnectionConfig.Framing.SHUTDOWN, config.getConnectionConfig().getFraming());
+        assertEquals(1024, config.getConnectionConfig().getMaxBodySize());
+    }
+
+    @Test
+    public void testBadFramingKeepsRestOfConfig() throws Exception {
+        System.out.println("out of range framing falls back to default connection config, rest of config is kept");
+        Config config = read("<WorkerPool coreSize=\"2\" maxSize=\"3\"/><Framing maxBodySize=\"-1\"/>");
+
+        assertConfigKept(config);
+        assertEquals(2, config.getWorkerPoolConfig().getCoreSize());
+        assertEquals(3, config.getWorkerPoolConfig().getMaxSize());
+        assertEquals(ConnectionConfig.getDefault().getMaxBodySize(), config.getConnectionConfig().getMaxBodySize());
+    }
+
+    @Test
+    public void testBadCheckUnitPoolSizeKeepsRestOfConfig() throws Exception {
+        System.out.println("out of range check unit pool size falls back to default pool size, check mode is kept");
+        Config config = read("<CheckUnits mode=\"parallel\" poolSize=\"0\"/>");
+
+        assertConfigKept(config);
+        assertEquals(ExecutionConfig.CheckMode.PARALLEL, config.getExecutionConfig().getCheckMode());
+        assertEquals(ExecutionConfig.getDefault().getCheckUnitPoolSize(), config.getExecutionConfig().getCheckUnitPoolSize());
+    }
+
+    private Config read(String configElements) throws Exception {
+        File configFile = folder.newFile("config.xml");
+        String configXml = "<Config>"
+                + "<Port value=\"4000\"/>"
+                + "<UserInfo login=\"admin\" password=\"secret\"/>"
+                + configElements
+                + "</Config>";
+        Files.write(configFile.toPath(), configXml.getBytes(StandardCharsets.UTF_8));
+        return ConfigParser.readConfigFromFileOrGetDefaults(configFile.getPath());
+    }
+
+    private static void assertConfigKept(Config config) {
+        assertEquals(4000, config.getPort());
+        assertEquals(1, config.getUsers().size());
+        assertEquals("admin", config.getUsers().get(0).getLogin());
+        assertEquals("secret", config.getUsers().get(0).getPassword());
+    }
+}
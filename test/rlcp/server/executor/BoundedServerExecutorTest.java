@@ -0,0 +1,98 @@
+package rlcp.server.executor;
+
+import org.junit.*;
+import rlcp.server.config.WorkerPoolConfig;
+import rlcp.server.config.WorkerPoolConfig.RejectionPolicy;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.*;
+
+public class BoundedServerExecutorTest {
+
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final AtomicInteger completed = new AtomicInteger();
+
+    public BoundedServerExecutorTest() {
+    }
+
+    @After
+    public void tearDown() {
+        release.countDown();
+    }
+
+    @Test
+    public void testTaskAboveWorkersAndQueueIsRejected() throws Exception {
+        System.out.println("tryExecute rejects task when workers are busy and queue is full");
+        BoundedServerExecutor executor = new BoundedServerExecutor(new WorkerPoolConfig(1, 1, 1, RejectionPolicy.REJECT, 5));
+        assertTrue(executor.tryExecute(this::blockingTask));
+        assertTrue(executor.tryExecute(this::blockingTask));
+        assertFalse(executor.tryExecute(this::blockingTask));
+
+        release.countDown();
+        executor.drain();
+        assertEquals(2, completed.get());
+    }
+
+    @Test
+    public void testPoolGrowsToMaxSizeBeforeQueueing() throws Exception {
+        System.out.println("tryExecute starts workers up to max size before queueing tasks");
+        BoundedServerExecutor executor = new BoundedServerExecutor(new WorkerPoolConfig(1, 3, 8, RejectionPolicy.REJECT, 5));
+        CountDownLatch started = new CountDownLatch(3);
+        for (int i = 0; i < 3; i++) {
+            assertTrue(executor.tryExecute(() -> {
+                started.countDown();
+                blockingTask();
+            }));
+        }
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        assertTrue(executor.tryExecute(this::blockingTask));
+
+        release.countDown();
+        executor.drain();
+        assertEquals(4, completed.get());
+    }
+
+    @Test
+    public void testCallerRunsTaskAboveWorkersAndQueue() throws Exception {
+        System.out.println("tryExecute runs task in calling thread when pool is saturated and policy is caller-runs");
+        BoundedServerExecutor executor = new BoundedServerExecutor(new WorkerPoolConfig(1, 1, 0, RejectionPolicy.CALLER_RUNS, 5));
+        assertTrue(executor.tryExecute(this::blockingTask));
+        AtomicReference<Thread> runner = new AtomicReference<>();
+        assertTrue(executor.tryExecute(() -> runner.set(Thread.currentThread())));
+        assertSame(Thread.currentThread(), runner.get());
+
+        release.countDown();
+        executor.drain();
+        assertEquals(1, completed.get());
+    }
+
+    @Test
+    public void testDrainInterruptsTasksAfterTimeLimit() throws Exception {
+        System.out.println("drain interrupts tasks not finished within drain time limit");
+        BoundedServerExecutor executor = new BoundedServerExecutor(new WorkerPoolConfig(1, 1, 0, RejectionPolicy.REJECT, 0));
+        CountDownLatch interrupted = new CountDownLatch(1);
+        assertTrue(executor.tryExecute(() -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+            }
+        }));
+        executor.drain();
+        assertTrue(interrupted.await(5, TimeUnit.SECONDS));
+        assertFalse(executor.tryExecute(this::blockingTask));
+    }
+
+    private void blockingTask() {
+        try {
+            release.await();
+            completed.incrementAndGet();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
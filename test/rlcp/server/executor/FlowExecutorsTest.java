@@ -0,0 +1,109 @@
+package rlcp.server.executor;
+
+import org.junit.*;
+import rlcp.server.config.BulkheadConfig;
+import rlcp.server.config.ExecutionConfig;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class FlowExecutorsTest {
+
+    private final CountDownLatch release = new CountDownLatch(1);
+    private FlowExecutors flowExecutors;
+
+    public FlowExecutorsTest() {
+    }
+
+    @Before
+    public void setUp() {
+        ExecutionConfig executionConfig = new ExecutionConfig(ExecutionConfig.ThreadMode.PLATFORM, ExecutionConfig.CheckMode.SEQUENTIAL, 1,
+                ExecutionConfig.Isolation.THREAD, new BulkheadConfig(2, 0), Collections.singletonMap("check", new BulkheadConfig(1, 1)));
+        flowExecutors = new FlowExecutors(executionConfig);
+    }
+
+    @After
+    public void tearDown() {
+        release.countDown();
+        flowExecutors.shutdown();
+    }
+
+    @Test
+    public void testFlowExecutorIsCreatedOncePerMethod() throws Exception {
+        System.out.println("one flow executor per method is created even by concurrent first requests");
+        ExecutorService requests = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<ThreadPoolExecutor>> futures = new ArrayList<>();
+            for (int i = 0; i < 32; i++) {
+                String methodName = i % 2 == 0 ? "check" : "CHECK";
+                futures.add(requests.submit(() -> flowExecutors.getFlowExecutor(methodName)));
+            }
+            Set<ThreadPoolExecutor> executors = Collections.newSetFromMap(new IdentityHashMap<ThreadPoolExecutor, Boolean>());
+            for (Future<ThreadPoolExecutor> future : futures) {
+                executors.add(future.get(5, TimeUnit.SECONDS));
+            }
+            assertEquals(1, executors.size());
+            assertNotSame(flowExecutors.getFlowExecutor("check"), flowExecutors.getFlowExecutor("generate"));
+        } finally {
+            requests.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testFlowThreadsAreReused() throws Exception {
+        System.out.println("sequential requests of one method are run by the same pool thread");
+        ThreadPoolExecutor executor = flowExecutors.getFlowExecutor("check");
+        Set<Thread> threads = new HashSet<>();
+        for (int i = 0; i < 10; i++) {
+            threads.add(executor.submit((Callable<Thread>) Thread::currentThread).get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(1, threads.size());
+        assertEquals(1, executor.getPoolSize());
+    }
+
+    @Test
+    public void testMethodRequestsAboveBulkheadAreRejected() throws Exception {
+        System.out.println("requests above method concurrency and queue size are rejected, other methods are not affected");
+        ThreadPoolExecutor check = flowExecutors.getFlowExecutor("check");
+        check.execute(this::await);
+        check.execute(this::await);
+        try {
+            check.execute(this::await);
+            fail("request above check bulkhead is accepted");
+        } catch (RejectedExecutionException e) {
+            //expected
+        }
+
+        ThreadPoolExecutor generate = flowExecutors.getFlowExecutor("generate");
+        generate.execute(this::await);
+        generate.execute(this::await);
+        try {
+            generate.execute(this::await);
+            fail("request above default bulkhead is accepted");
+        } catch (RejectedExecutionException e) {
+            //expected
+        }
+    }
+
+    private void await() {
+        try {
+            release.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package rlcp.server.executor;
+
+import org.junit.*;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class SupervisedTaskTest {
+
+    private final CountDownLatch stop = new CountDownLatch(1);
+    private ThreadPoolExecutor pool;
+
+    public SupervisedTaskTest() {
+    }
+
+    @Before
+    public void setUp() {
+        pool = new ThreadPoolExecutor(2, 2, 60, TimeUnit.SECONDS, new LinkedBlockingQueue<>());
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        stop.countDown();
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testCompletedTaskIsNotQuarantined() throws Exception {
+        System.out.println("cancelAndQuarantine of task that completed, but has not left run() yet");
+        CountDownLatch completed = new CountDownLatch(1);
+        SupervisedTask<String> task = new SupervisedTask<String>(() -> "done") {
+            @Override
+            protected void set(String result) {
+                super.set(result);
+                completed.countDown();
+                awaitStop();
+            }
+        };
+        pool.execute(task);
+        completed.await();
+        TaskSupervisor supervisor = new TaskSupervisor();
+        task.cancelAndQuarantine(supervisor, pool);
+        assertFalse(task.isCancelled());
+        assertEquals("done", task.get());
+        assertEquals(0, supervisor.getRunawayTaskCount());
+        assertEquals(2, pool.getMaximumPoolSize());
+    }
+
+    @Test
+    public void testRunawayTaskIsQuarantinedUntilItStops() throws Exception {
+        System.out.println("task ignoring interruption is quarantined until it stops");
+        TaskSupervisor supervisor = new TaskSupervisor();
+        CountDownLatch running = new CountDownLatch(1);
+        SupervisedTask<String> task = runaway(running);
+        pool.execute(task);
+        running.await();
+        task.cancelAndQuarantine(supervisor, pool);
+        assertTrue(task.isCancelled());
+        assertEquals(1, supervisor.getRunawayTaskCount());
+        assertEquals(3, pool.getCorePoolSize());
+        assertEquals(3, pool.getMaximumPoolSize());
+
+        CountDownLatch stopped = new CountDownLatch(1);
+        task.whenStopped(stopped::countDown);
+        stop.countDown();
+        assertTrue(stopped.await(5, TimeUnit.SECONDS));
+        assertEquals(0, supervisor.getRunawayTaskCount());
+        assertEquals(2, pool.getCorePoolSize());
+        assertEquals(2, pool.getMaximumPoolSize());
+    }
+
+    @Test
+    public void testReplacedThreadsAreLimited() throws Exception {
+        System.out.println("no more than maxReplacedThreadsPerPool runaway threads are replaced");
+        TaskSupervisor supervisor = new TaskSupervisor(1);
+        CountDownLatch running = new CountDownLatch(2);
+        SupervisedTask<String> first = runaway(running);
+        SupervisedTask<String> second = runaway(running);
+        pool.execute(first);
+        pool.execute(second);
+        running.await();
+        first.cancelAndQuarantine(supervisor, pool);
+        second.cancelAndQuarantine(supervisor, pool);
+        assertEquals(2, supervisor.getRunawayTaskCount());
+        assertEquals(1, supervisor.getReplacedThreadCount(pool));
+        assertEquals(3, pool.getMaximumPoolSize());
+
+        CountDownLatch stopped = new CountDownLatch(2);
+        first.whenStopped(stopped::countDown);
+        second.whenStopped(stopped::countDown);
+        stop.countDown();
+        assertTrue(stopped.await(5, TimeUnit.SECONDS));
+        assertEquals(0, supervisor.getRunawayTaskCount());
+        assertEquals(0, supervisor.getReplacedThreadCount(pool));
+        assertEquals(2, pool.getMaximumPoolSize());
+    }
+
+    /**
+     * Returns task, that ignores interruption until test stops it.
+     */
+    private SupervisedTask<String> runaway(CountDownLatch running) {
+        return new SupervisedTask<>(() -> {
+            running.countDown();
+            awaitStop();
+            return "stopped";
+        });
+    }
+
+    private void awaitStop() {
+        boolean interrupted = false;
+        while (true) {
+            try {
+                stop.await();
+                break;
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package rlcp.server.flow;
+
+import org.junit.*;
+import rlcp.check.CheckingResult;
+import rlcp.check.ConditionForChecking;
+import rlcp.check.RlcpCheckRequestBody;
+import rlcp.check.RlcpCheckResponseBody;
+import rlcp.server.config.Config;
+import rlcp.server.config.ConnectionConfig;
+import rlcp.server.config.ExecutionConfig;
+import rlcp.server.config.User;
+import rlcp.server.config.WorkerPoolConfig;
+import rlcp.server.executor.FlowExecutors;
+import rlcp.server.processor.check.CheckProcessor;
+import rlcp.server.processor.factory.ProcessorFactory;
+import rlcp.server.processor.factory.ProcessorFactoryContainer;
+import rlcp.server.processor.factory.SingletonProcessorFactory;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class RlcpCheckFlowTest {
+
+    private final CountDownLatch release = new CountDownLatch(1);
+    private Config config;
+    private FlowExecutors flowExecutors;
+
+    public RlcpCheckFlowTest() {
+    }
+
+    @Before
+    public void setUp() {
+        ExecutionConfig executionConfig = new ExecutionConfig(ExecutionConfig.ThreadMode.PLATFORM, ExecutionConfig.CheckMode.PARALLEL, 4);
+        config = new Config(0, Collections.singletonList(new User("user", "user")), 10, 5,
+                WorkerPoolConfig.getDefault(), ConnectionConfig.getDefault(), executionConfig);
+        flowExecutors = FlowExecutors.create(config);
+    }
+
+    @After
+    public void tearDown() {
+        release.countDown();
+        flowExecutors.shutdown();
+    }
+
+    @Test
+    public void testCheckUnitsRunInParallel() {
+        System.out.println("check units of parallel check mode run at once, results are in the order of conditions");
+        CyclicBarrier allUnitsRunning = new CyclicBarrier(3);
+        List<CheckingResult> results = check((condition, instructions, preGenerated) -> {
+            allUnitsRunning.await(5, TimeUnit.SECONDS);
+            return new CheckProcessor.CheckingSingleConditionResult(BigDecimal.ONE, condition.getInput());
+        }, condition(1, "первый", 5), condition(2, "второй", 5), condition(3, "третий", 5));
+
+        assertEquals(3, results.size());
+        assertResult(results.get(0), 1, "1.00", "первый");
+        assertResult(results.get(1), 2, "1.00", "второй");
+        assertResult(results.get(2), 3, "1.00", "третий");
+    }
+
+    @Test
+    public void testCheckUnitExceedingTimeLimitDoesNotDelayOthers() {
+        System.out.println("parallel check unit not finished in its time limit gets zero result, other units are checked");
+        long start = System.nanoTime();
+        List<CheckingResult> results = check((condition, instructions, preGenerated) -> {
+            if (condition.getId() == 2) {
+                release.await();
+            }
+            return new CheckProcessor.CheckingSingleConditionResult(BigDecimal.ONE, condition.getInput());
+        }, condition(1, "первый", 5), condition(2, "второй", 1), condition(3, "третий", 5));
+        long elapsedInMillis = (System.nanoTime() - start) / 1000000;
+
+        assertTrue("checked in " + elapsedInMillis + " ms", elapsedInMillis < 4000);
+        assertResult(results.get(0), 1, "1.00", "первый");
+        assertResult(results.get(1), 2, "0.00", "Time limit exceeded");
+        assertResult(results.get(2), 3, "1.00", "третий");
+    }
+
+    @Test
+    public void testRunawayCheckProcessorIsReleasedWhenItStops() throws Exception {
+        System.out.println("check processor ignoring interruption is quarantined and given back to factory only when it stops");
+        CountDownLatch released = new CountDownLatch(1);
+        CheckProcessor runaway = (condition, instructions, preGenerated) -> {
+            while (release.getCount() > 0) {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    //ignored on purpose
+                }
+            }
+            return new CheckProcessor.CheckingSingleConditionResult(BigDecimal.ONE, condition.getInput());
+        };
+        ProcessorFactory<CheckProcessor> factory = new ProcessorFactory<CheckProcessor>() {
+            @Override
+            public CheckProcessor getInstance() {
+                return runaway;
+            }
+
+            @Override
+            public void release(CheckProcessor instance) {
+                released.countDown();
+            }
+        };
+        List<CheckingResult> results = check(factory, condition(1, "первый", 1));
+
+        assertResult(results.get(0), 1, "0.00", "Time limit exceeded");
+        assertEquals(1, flowExecutors.getSupervisor().getRunawayTaskCount());
+        assertFalse(released.await(200, TimeUnit.MILLISECONDS));
+
+        release.countDown();
+        assertTrue(released.await(5, TimeUnit.SECONDS));
+        assertEquals(0, flowExecutors.getSupervisor().getRunawayTaskCount());
+    }
+
+    @Test
+    public void testCheckUnitNotStartedInTimeLimitGetsZeroResult() throws Exception {
+        System.out.println("parallel check unit waiting in busy pool longer than its time limit gets zero result");
+        CountDownLatch poolBusy = new CountDownLatch(4);
+        for (int i = 0; i < 4; i++) {
+            flowExecutors.getCheckUnitExecutor().execute(() -> {
+                poolBusy.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+        }
+        assertTrue(poolBusy.await(5, TimeUnit.SECONDS));
+
+        long start = System.nanoTime();
+        List<CheckingResult> results = check((condition, instructions, preGenerated) ->
+                new CheckProcessor.CheckingSingleConditionResult(BigDecimal.ONE, condition.getInput()), condition(1, "первый", 1));
+        long elapsedInMillis = (System.nanoTime() - start) / 1000000;
+
+        assertTrue("checked in " + elapsedInMillis + " ms", elapsedInMillis < 3000);
+        assertResult(results.get(0), 1, "0.00", "Time limit exceeded");
+        assertTrue(flowExecutors.getCheckUnitExecutor().getQueue().isEmpty());
+    }
+
+    @Test
+    public void testRejectedCheckUnitGetsZeroResult() {
+        System.out.println("parallel check unit rejected by check unit pool gets zero result, request is still answered");
+        flowExecutors.getCheckUnitExecutor().shutdown();
+        List<CheckingResult> results = check((condition, instructions, preGenerated) ->
+                new CheckProcessor.CheckingSingleConditionResult(BigDecimal.ONE, condition.getInput()), condition(1, "первый", 5), condition(2, "второй", 5));
+
+        assertEquals(2, results.size());
+        assertResult(results.get(0), 1, "0.00", "Check unit is rejected by check unit pool");
+        assertResult(results.get(1), 2, "0.00", "Check unit is rejected by check unit pool");
+    }
+
+    private List<CheckingResult> check(CheckProcessor checkProcessor, ConditionForChecking... conditions) {
+        return check(new SingletonProcessorFactory<>(checkProcessor), conditions);
+    }
+
+    private List<CheckingResult> check(ProcessorFactory<CheckProcessor> checkProcessorFactory, ConditionForChecking... conditions) {
+        ProcessorFactoryContainer container = new ProcessorFactoryContainer();
+        container.setCheckProcessorFactory(checkProcessorFactory);
+        RlcpCheckRequestBody body = new RlcpCheckRequestBody(Arrays.asList(conditions), "ответ");
+        RlcpCheckResponseBody responseBody = new RlcpCheckFlow().processBody(container, body, config, flowExecutors);
+        return responseBody.getResults();
+    }
+
+    private static ConditionForChecking condition(int id, String input, int timeInSec) {
+        return new ConditionForChecking(id, timeInSec, input, "выход");
+    }
+
+    private static void assertResult(CheckingResult result, int id, String value, String output) {
+        assertEquals(id, result.getId());
+        assertEquals(value, result.getResult());
+        assertEquals(output, result.getOutput());
+    }
+}
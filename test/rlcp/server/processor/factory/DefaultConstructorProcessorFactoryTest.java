@@ -0,0 +1,96 @@
+package rlcp.server.processor.factory;
+
+import org.junit.*;
+import rlcp.server.processor.Processor;
+
+import java.io.IOException;
+
+import static org.junit.Assert.*;
+
+public class DefaultConstructorProcessorFactoryTest {
+
+    public DefaultConstructorProcessorFactoryTest() {
+    }
+
+    @Test
+    public void testNewInstanceIsCreatedEveryTime() {
+        System.out.println("getInstance of public class creates new instance every time");
+        DefaultConstructorProcessorFactory<Processor> factory = new DefaultConstructorProcessorFactory<>(PublicProcessor.class);
+        Processor first = factory.getInstance();
+        Processor second = factory.getInstance();
+        assertTrue(first instanceof PublicProcessor);
+        assertTrue(second instanceof PublicProcessor);
+        assertNotSame(first, second);
+    }
+
+    @Test
+    public void testNonPublicClassInstanceIsCreated() {
+        System.out.println("getInstance of non-public class with public constructor");
+        DefaultConstructorProcessorFactory<Processor> factory = new DefaultConstructorProcessorFactory<>(PackagePrivateProcessor.class);
+        Processor first = factory.getInstance();
+        assertTrue(first instanceof PackagePrivateProcessor);
+        assertNotSame(first, factory.getInstance());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testAbstractClassIsNotAccepted() {
+        System.out.println("abstract class is not accepted");
+        new DefaultConstructorProcessorFactory<>(AbstractProcessor.class);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testClassWithoutDefaultConstructorIsNotAccepted() {
+        System.out.println("class without constructor without parameters is not accepted");
+        new DefaultConstructorProcessorFactory<>(ParameterizedProcessor.class);
+    }
+
+    @Test
+    public void testCheckedExceptionOfConstructorIsWrapped() {
+        System.out.println("checked exception of constructor is cause of IllegalStateException");
+        DefaultConstructorProcessorFactory<Processor> factory = new DefaultConstructorProcessorFactory<>(CheckedFailingProcessor.class);
+        try {
+            factory.getInstance();
+            fail("instance of failing constructor is created");
+        } catch (IllegalStateException e) {
+            assertTrue(e.getCause() instanceof IOException);
+        }
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testUncheckedExceptionOfConstructorIsThrownAsIs() {
+        System.out.println("unchecked exception of constructor is thrown as is");
+        new DefaultConstructorProcessorFactory<>(UncheckedFailingProcessor.class).getInstance();
+    }
+
+    public static class PublicProcessor implements Processor {
+        public PublicProcessor() {
+        }
+    }
+
+    static class PackagePrivateProcessor implements Processor {
+        public PackagePrivateProcessor() {
+        }
+    }
+
+    public abstract static class AbstractProcessor implements Processor {
+        public AbstractProcessor() {
+        }
+    }
+
+    public static class ParameterizedProcessor implements Processor {
+        public ParameterizedProcessor(String parameter) {
+        }
+    }
+
+    public static class CheckedFailingProcessor implements Processor {
+        public CheckedFailingProcessor() throws IOException {
+            throw new IOException("resource is not available");
+        }
+    }
+
+    public static class UncheckedFailingProcessor implements Processor {
+        public UncheckedFailingProcessor() {
+            throw new UnsupportedOperationException("not supported");
+        }
+    }
+}
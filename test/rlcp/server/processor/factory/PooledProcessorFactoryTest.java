@@ -0,0 +1,134 @@
+package rlcp.server.processor.factory;
+
+import org.junit.*;
+import rlcp.server.processor.Processor;
+
+import static org.junit.Assert.*;
+
+public class PooledProcessorFactoryTest {
+
+    public PooledProcessorFactoryTest() {
+    }
+
+    @Test
+    public void testReleasedInstanceIsResetAndReused() {
+        System.out.println("released instance is reset and borrowed again, init is called once");
+        PooledProcessorFactory<TestProcessor> factory = pool(new ProcessorPoolConfig(0, 4, 0));
+        TestProcessor instance = factory.getInstance();
+        assertEquals(1, instance.initCount);
+        factory.release(instance);
+        assertEquals(1, instance.resetCount);
+        assertEquals(1, factory.getIdleCount());
+
+        assertSame(instance, factory.getInstance());
+        assertEquals(1, instance.initCount);
+        assertEquals(1, factory.getCreatedCount());
+        assertEquals(0, factory.getIdleCount());
+    }
+
+    @Test
+    public void testInstanceReleasedToFullPoolIsClosed() {
+        System.out.println("instance released when there are maxIdle idle instances already is closed");
+        PooledProcessorFactory<TestProcessor> factory = pool(new ProcessorPoolConfig(0, 1, 0));
+        TestProcessor first = factory.getInstance();
+        TestProcessor second = factory.getInstance();
+        assertNotSame(first, second);
+        factory.release(first);
+        factory.release(second);
+        assertEquals(1, factory.getIdleCount());
+        assertEquals(0, first.closeCount);
+        assertEquals(1, second.closeCount);
+    }
+
+    @Test
+    public void testInstanceFailingResetIsClosed() {
+        System.out.println("instance that fails to reset is closed instead of being reused");
+        PooledProcessorFactory<TestProcessor> factory = pool(new ProcessorPoolConfig(0, 4, 0));
+        TestProcessor instance = factory.getInstance();
+        instance.failReset = true;
+        factory.release(instance);
+        assertEquals(1, instance.closeCount);
+        assertEquals(0, factory.getIdleCount());
+        assertNotSame(instance, factory.getInstance());
+    }
+
+    @Test
+    public void testInvalidIdleInstanceIsClosed() {
+        System.out.println("idle instance failing validation is closed and new instance is created");
+        PooledProcessorFactory<TestProcessor> factory = new PooledProcessorFactory<>(TestProcessor::new,
+                new ProcessorPoolConfig(0, 4, 0), instance -> instance.valid);
+        TestProcessor instance = factory.getInstance();
+        factory.release(instance);
+        instance.valid = false;
+
+        TestProcessor borrowed = factory.getInstance();
+        assertNotSame(instance, borrowed);
+        assertEquals(1, instance.closeCount);
+        assertEquals(2, factory.getCreatedCount());
+    }
+
+    @Test
+    public void testMinIdleInstancesAreKept() throws Exception {
+        System.out.println("minIdle instances are created with the pool and outlive idle time limit");
+        PooledProcessorFactory<TestProcessor> factory = pool(new ProcessorPoolConfig(1, 4, 10));
+        assertEquals(1, factory.getCreatedCount());
+        assertEquals(1, factory.getIdleCount());
+
+        TestProcessor first = factory.getInstance();
+        TestProcessor second = factory.getInstance();
+        factory.release(first);
+        factory.release(second);
+        Thread.sleep(50);
+        factory.evictIdleInstances();
+        assertEquals(1, factory.getIdleCount());
+        assertEquals(1, first.closeCount + second.closeCount);
+    }
+
+    @Test
+    public void testCloseClosesIdleAndReleasedInstances() {
+        System.out.println("close closes idle instances, instances borrowed before are closed when released");
+        PooledProcessorFactory<TestProcessor> factory = pool(new ProcessorPoolConfig(0, 4, 0));
+        TestProcessor idle = factory.getInstance();
+        TestProcessor borrowed = factory.getInstance();
+        factory.release(idle);
+
+        factory.close();
+        assertEquals(1, idle.closeCount);
+        factory.release(borrowed);
+        assertEquals(1, borrowed.closeCount);
+        assertEquals(0, factory.getIdleCount());
+    }
+
+    private static PooledProcessorFactory<TestProcessor> pool(ProcessorPoolConfig config) {
+        return new PooledProcessorFactory<>(TestProcessor::new, config, null);
+    }
+
+    /**
+     * Processor counting calls of its lifecycle callbacks.
+     */
+    private static class TestProcessor implements Processor {
+        private int initCount = 0;
+        private int resetCount = 0;
+        private int closeCount = 0;
+        private boolean failReset = false;
+        private boolean valid = true;
+
+        @Override
+        public void init() {
+            initCount++;
+        }
+
+        @Override
+        public void reset() throws Exception {
+            if (failReset) {
+                throw new Exception("state can not be cleared");
+            }
+            resetCount++;
+        }
+
+        @Override
+        public void close() {
+            closeCount++;
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package rlcp.server.processor.factory;
+
+import org.junit.*;
+import org.junit.rules.TemporaryFolder;
+import rlcp.check.ConditionForChecking;
+import rlcp.server.processor.check.CheckProcessor;
+
+import javax.script.ScriptEngineManager;
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import static org.junit.Assert.*;
+
+public class ScriptEngineFactoryTest {
+
+    private static final String engineName = "nashorn";
+    private static final String checkScript = ""
+            + "var Result = Java.type('rlcp.server.processor.check.CheckProcessor.CheckingSingleConditionResult');\n"
+            + "var BigDecimal = Java.type('java.math.BigDecimal');\n"
+            + "var calls = 0;\n"
+            + "function checkSingleCondition(condition, instructions, preGenerated) {\n"
+            + "    calls++;\n"
+            + "    return new Result(BigDecimal.ONE, 'VERSION ' + calls);\n"
+            + "}\n";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private File file;
+
+    public ScriptEngineFactoryTest() {
+    }
+
+    @Before
+    public void setUp() throws Exception {
+        Assume.assumeNotNull(new ScriptEngineManager().getEngineByName(engineName));
+        file = folder.newFile("check.js");
+        writeScript("v1", 0);
+    }
+
+    @Test
+    public void testProcessorIsBoundToOneInstanceUntilRelease() throws Exception {
+        System.out.println("getInstance binds one script instance until release");
+        ScriptEngineFactory<CheckProcessor> factory = new ScriptEngineFactory<>(engineName, file, CheckProcessor.class, 4);
+        CheckProcessor first = factory.getInstance();
+        CheckProcessor second = factory.getInstance();
+        assertEquals("v1 1", check(first));
+        assertEquals("v1 2", check(first));
+        assertEquals("v1 1", check(second));
+        factory.release(first);
+        factory.release(second);
+        assertEquals(2, factory.getMissCount());
+
+        CheckProcessor reused = factory.getInstance();
+        assertEquals(1, factory.getHitCount());
+        assertEquals("v1 3", check(reused));
+        factory.release(reused);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testReleasedProcessorCanNotBeUsed() throws Exception {
+        System.out.println("released processor can not be used");
+        ScriptEngineFactory<CheckProcessor> factory = new ScriptEngineFactory<>(engineName, file, CheckProcessor.class, 4);
+        CheckProcessor processor = factory.getInstance();
+        factory.release(processor);
+        check(processor);
+    }
+
+    @Test
+    public void testScriptIsReloadedOnChange() throws Exception {
+        System.out.println("script is compiled again after file changes");
+        ScriptEngineFactory<CheckProcessor> factory = new ScriptEngineFactory<>(engineName, file, CheckProcessor.class, 4);
+        CheckProcessor old = factory.getInstance();
+        assertEquals("v1 1", check(old));
+        writeScript("v2", 5000);
+
+        CheckProcessor changed = factory.getInstance();
+        assertEquals("v2 1", check(changed));
+        assertEquals("v1 2", check(old));
+        assertEquals(2, factory.getCompileCount());
+        factory.release(old);
+        factory.release(changed);
+
+        CheckProcessor reused = factory.getInstance();
+        assertEquals("v2 2", check(reused));
+        assertEquals(1, factory.getHitCount());
+    }
+
+    @Test
+    public void testCompiledFactoryIsNotReloaded() throws Exception {
+        System.out.println("factory returned by compile() keeps its version of script");
+        ScriptEngineFactory<CheckProcessor> factory = ScriptEngineFactory.compile(engineName, file, CheckProcessor.class, 4);
+        writeScript("v2", 5000);
+        CheckProcessor processor = factory.getInstance();
+        assertEquals("v1 1", check(processor));
+        assertEquals(1, factory.getCompileCount());
+        assertEquals(1, factory.getHitCount());
+    }
+
+    private void writeScript(String version, long lastModifiedShift) throws Exception {
+        Files.write(file.toPath(), checkScript.replace("VERSION", version).getBytes(StandardCharsets.UTF_8));
+        file.setLastModified(System.currentTimeMillis() + lastModifiedShift);
+    }
+
+    private static String check(CheckProcessor processor) throws Exception {
+        return processor.checkSingleCondition(new ConditionForChecking(1, 1, "in", "out"), "", null).getComment();
+    }
+}
@@ -0,0 +1,87 @@
+package rlcp.server.processor.factory;
+
+import org.junit.*;
+import org.junit.rules.TemporaryFolder;
+import rlcp.check.ConditionForChecking;
+import rlcp.server.processor.check.CheckProcessor;
+
+import javax.script.ScriptEngineManager;
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import static org.junit.Assert.*;
+
+public class ScriptFileWatcherTest {
+
+    private static final String engineName = "nashorn";
+    private static final String checkScript = ""
+            + "var Result = Java.type('rlcp.server.processor.check.CheckProcessor.CheckingSingleConditionResult');\n"
+            + "var BigDecimal = Java.type('java.math.BigDecimal');\n"
+            + "function checkSingleCondition(condition, instructions, preGenerated) {\n"
+            + "    return new Result(BigDecimal.ONE, 'VERSION');\n"
+            + "}\n";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private File file;
+    private ProcessorFactoryContainer container;
+    private ScriptFileWatcher watcher;
+
+    public ScriptFileWatcherTest() {
+    }
+
+    @Before
+    public void setUp() throws Exception {
+        Assume.assumeNotNull(new ScriptEngineManager().getEngineByName(engineName));
+        file = folder.newFile("check.js");
+        writeScript("v1");
+        container = new ProcessorFactoryContainer();
+        watcher = new ScriptFileWatcher(container);
+        watcher.watch(engineName, file, CheckProcessor.class);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        if (watcher != null) {
+            watcher.close();
+        }
+    }
+
+    @Test
+    public void testChangedScriptReplacesFactory() throws Exception {
+        System.out.println("changed script replaces factory in container, snapshot keeps old version");
+        ProcessorFactoryContainer snapshot = container.snapshot();
+        assertEquals("v1", check(container));
+
+        writeScript("v2");
+        long deadline = System.currentTimeMillis() + 10000;
+        while (!"v2".equals(check(container)) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+        }
+        assertEquals("v2", check(container));
+        assertEquals("v1", check(snapshot));
+    }
+
+    @Test
+    public void testBrokenScriptKeepsOldFactory() throws Exception {
+        System.out.println("script that fails to compile does not replace factory");
+        Files.write(file.toPath(), "function checkSingleCondition( {".getBytes(StandardCharsets.UTF_8));
+        Thread.sleep(1000);
+        assertEquals("v1", check(container));
+    }
+
+    private void writeScript(String version) throws Exception {
+        Files.write(file.toPath(), checkScript.replace("VERSION", version).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String check(ProcessorFactoryContainer container) throws Exception {
+        CheckProcessor processor = container.getProcessor(CheckProcessor.class);
+        try {
+            return processor.checkSingleCondition(new ConditionForChecking(1, 1, "in", "out"), "", null).getComment();
+        } finally {
+            container.releaseProcessor(CheckProcessor.class, processor);
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package rlcp.server.processor.factory;
+
+import org.junit.*;
+import rlcp.server.config.ExecutionConfig.ThreadMode;
+import rlcp.server.executor.WorkerThreads;
+import rlcp.server.processor.Processor;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.*;
+
+public class ThreadAffineProcessorFactoryTest {
+
+    private ThreadAffineProcessorFactory<TestProcessor> factory;
+
+    public ThreadAffineProcessorFactoryTest() {
+    }
+
+    @Before
+    public void setUp() {
+        factory = new ThreadAffineProcessorFactory<>(TestProcessor::new, 1);
+    }
+
+    @After
+    public void tearDown() {
+        factory.close();
+    }
+
+    @Test
+    public void testInstanceIsReusedBySameThread() throws Exception {
+        System.out.println("released instance is reused by the same thread only");
+        TestProcessor instance = factory.getInstance();
+        factory.release(instance);
+        assertEquals(1, instance.resetCount);
+        assertSame(instance, factory.getInstance());
+
+        AtomicReference<TestProcessor> otherThreadInstance = new AtomicReference<>();
+        factory.release(instance);
+        Thread thread = new Thread(() -> otherThreadInstance.set(factory.getInstance()));
+        thread.start();
+        thread.join(5000);
+        assertNotNull(otherThreadInstance.get());
+        assertNotSame(instance, otherThreadInstance.get());
+        assertEquals(2, factory.getCreatedCount());
+    }
+
+    @Test
+    public void testInstanceAboveMaxIdlePerThreadIsClosed() {
+        System.out.println("instance released when thread keeps maxIdlePerThread instances already is closed");
+        TestProcessor first = factory.getInstance();
+        TestProcessor second = factory.getInstance();
+        factory.release(first);
+        factory.release(second);
+        assertEquals(0, first.closeCount);
+        assertEquals(1, second.closeCount);
+    }
+
+    @Test
+    public void testInstancesOfDeadThreadAreClosedByEviction() throws Exception {
+        System.out.println("idle instances of thread that is not alive are closed by evictRetiredThreads");
+        AtomicReference<TestProcessor> instance = new AtomicReference<>();
+        Thread thread = new Thread(() -> {
+            instance.set(factory.getInstance());
+            factory.release(instance.get());
+        });
+        thread.start();
+        thread.join(5000);
+        assertEquals(1, factory.getThreadCount());
+        assertEquals(0, instance.get().closeCount);
+
+        factory.evictRetiredThreads();
+        assertEquals(0, factory.getThreadCount());
+        assertEquals(1, instance.get().closeCount);
+    }
+
+    @Test
+    public void testInstancesOfRetiredWorkerAreClosed() throws Exception {
+        System.out.println("idle instances of worker thread are closed when the worker retires");
+        ExecutorService pool = new ThreadPoolExecutor(1, 1, 60, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(),
+                WorkerThreads.factory(ThreadMode.PLATFORM, "rlcp-test-worker-"));
+        AtomicReference<TestProcessor> instance = new AtomicReference<>();
+        pool.submit(() -> {
+            instance.set(factory.getInstance());
+            factory.release(instance.get());
+        }).get(5, TimeUnit.SECONDS);
+        assertEquals(0, instance.get().closeCount);
+
+        pool.shutdown();
+        assertTrue(instance.get().closed.await(5, TimeUnit.SECONDS));
+        assertEquals(0, factory.getThreadCount());
+    }
+
+    @Test
+    public void testCloseClosesIdleInstances() {
+        System.out.println("close closes idle instances, instances in use are closed when released");
+        TestProcessor idle = factory.getInstance();
+        TestProcessor inUse = factory.getInstance();
+        factory.release(idle);
+
+        factory.close();
+        assertEquals(1, idle.closeCount);
+        factory.release(inUse);
+        assertEquals(1, inUse.closeCount);
+    }
+
+    /**
+     * Processor counting calls of its lifecycle callbacks.
+     */
+    private static class TestProcessor implements Processor {
+        private final CountDownLatch closed = new CountDownLatch(1);
+        private volatile int resetCount = 0;
+        private volatile int closeCount = 0;
+
+        @Override
+        public void reset() {
+            resetCount++;
+        }
+
+        @Override
+        public void close() {
+            closeCount++;
+            closed.countDown();
+        }
+    }
+}
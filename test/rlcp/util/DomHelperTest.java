@@ -0,0 +1,57 @@
+package rlcp.util;
+
+import org.dom4j.Document;
+import org.dom4j.DocumentException;
+import org.junit.*;
+
+import static org.junit.Assert.assertEquals;
+
+public class DomHelperTest {
+
+    private static final String validRequest = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"
+            + "<!DOCTYPE Request SYSTEM \"http://de.ifmo.ru/--DTD/Request.dtd\">\n"
+            + "<Request>\n"
+            + "  <Conditions>\n"
+            + "    <ConditionForGenerating>\n"
+            + "      <Input><!--condition--></Input>\n"
+            + "    </ConditionForGenerating>\n"
+            + "  </Conditions>\n"
+            + "</Request>";
+    private static final String invalidRequest = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"
+            + "<!DOCTYPE Request SYSTEM \"http://de.ifmo.ru/--DTD/Request.dtd\">\n"
+            + "<Request><Unknown/></Request>";
+
+    public DomHelperTest() {
+    }
+
+    @After
+    public void tearDown() {
+        DomHelper.setDtdMode(DomHelper.DtdMode.LOCAL);
+    }
+
+    @Test
+    public void testToXmlWithLocalDtd() throws Exception {
+        System.out.println("toXml with local DTD");
+        DomHelper.setDtdMode(DomHelper.DtdMode.LOCAL);
+        Document document = DomHelper.toXml(validRequest);
+        //whitespace between elements is ignorable by DTD
+        assertEquals(1, document.getRootElement().content().size());
+        assertEquals("condition", DomHelper.getTextFromNodeByXpath(document, Constants.xPath_selectConditionForGenerating));
+        DomHelper.toXml(invalidRequest);
+    }
+
+    @Test
+    public void testToXmlWithValidatingDtd() throws Exception {
+        System.out.println("toXml with validating DTD");
+        DomHelper.setDtdMode(DomHelper.DtdMode.VALIDATING);
+        DomHelper.toXml(validRequest);
+        DomHelper.toXml("<Config><Port value=\"3000\"/></Config>");
+    }
+
+    @Test(expected = DocumentException.class)
+    public void testToXmlWithValidatingDtdRejectsInvalidDocument() throws Exception {
+        System.out.println("toXml with validating DTD rejects invalid document");
+        DomHelper.setDtdMode(DomHelper.DtdMode.VALIDATING);
+        DomHelper.toXml(invalidRequest);
+    }
+}
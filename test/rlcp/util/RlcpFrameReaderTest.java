@@ -0,0 +1,93 @@
+package rlcp.util;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.Charset;
+import rlcp.exception.BadRlcpHeaderException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import org.junit.*;
+
+public class RlcpFrameReaderTest {
+
+    private static final Charset utf8 = Charset.forName("UTF-8");
+
+    public RlcpFrameReaderTest() {
+    }
+
+    private static RlcpFrameReader reader(String input, int maxHeaderSize) {
+        return new RlcpFrameReader(new ByteArrayInputStream(input.getBytes(utf8)), utf8, maxHeaderSize, 1024);
+    }
+
+    @Test
+    public void testReadFrameWithContentLength() throws Exception {
+        System.out.println("readFrame with content-length");
+        String first = "method:echo\r\nconnection:keep-alive\r\ncontent-length:12\r\n\r\nпривет";
+        String second = "method:echo\r\nconnection:keep-alive\r\ncontent-length:2\r\n\r\nhi";
+        RlcpFrameReader frameReader = reader(first + "\r\n" + second, 8192);
+        assertEquals(first, frameReader.readFrame());
+        assertEquals(second, frameReader.readFrame());
+        assertNull(frameReader.readFrame());
+    }
+
+    @Test
+    public void testReadFrameWithCharsetWithoutEndOfStream() throws Exception {
+        System.out.println("readFrame with charset reads content-length bytes and does not wait for end of stream");
+        String frame = "method:echo\r\ncontent-length:12\r\ncharset:UTF-8\r\n\r\nпривет";
+        RlcpFrameReader frameReader = new RlcpFrameReader(new ByteArrayInputStream(frame.getBytes(utf8)) {
+            @Override
+            public synchronized int read(byte[] b, int off, int len) {
+                if (available() == 0) {
+                    //peer keeps connection open after the frame
+                    throw new IllegalStateException("read past the frame");
+                }
+                return super.read(b, off, len);
+            }
+        }, utf8, 8192, 1024);
+        assertEquals(frame, frameReader.readFrame());
+    }
+
+    @Test
+    public void testReadLastFrameUntilEndOfStream() throws Exception {
+        System.out.println("readFrame without keep-alive and with content-length in characters");
+        String frame = "method:echo\r\ncontent-length:6\r\n\r\nпривет";
+        RlcpFrameReader frameReader = reader(frame, 8192);
+        assertEquals(frame, frameReader.readFrame());
+        assertNull(frameReader.readFrame());
+    }
+
+    @Test
+    public void testReadFrameWithoutContentLength() throws Exception {
+        System.out.println("readFrame without content-length");
+        RlcpFrameReader frameReader = reader("method:echo\n\nbody", 8192);
+        assertEquals("method:echo\n\nbody", frameReader.readFrame());
+        assertNull(frameReader.readFrame());
+    }
+
+    @Test
+    public void testReadFrameWithTruncatedBody() throws Exception {
+        System.out.println("readFrame with truncated body");
+        assertEquals("Content-Length:10\n\nbody", reader("Content-Length:10\n\nbody", 8192).readFrame());
+    }
+
+    @Test
+    public void testReadFrameWithCharset() throws Exception {
+        System.out.println("readFrame with charset");
+        String frame = "method:echo\r\ncharset:windows-1251\r\ncontent-length:6\r\n\r\nпривет";
+        Charset cp1251 = Charset.forName("windows-1251");
+        RlcpFrameReader frameReader = new RlcpFrameReader(new ByteArrayInputStream(frame.getBytes(cp1251)), utf8, 8192, 1024);
+        assertEquals(frame, frameReader.readFrame());
+    }
+
+    @Test(expected = BadRlcpHeaderException.class)
+    public void testReadFrameWithUnsupportedCharset() throws Exception {
+        System.out.println("readFrame with unsupported charset");
+        reader("method:echo\ncharset:no-such-charset\n\nbody", 8192).readFrame();
+    }
+
+    @Test(expected = BadRlcpHeaderException.class)
+    public void testReadFrameWithLargeHeader() throws Exception {
+        System.out.println("readFrame with large header");
+        reader("method:echo\nurl:some-long-url\n\n", 16).readFrame();
+    }
+}